@@ -26,10 +26,16 @@
 import org.apache.velocity.exception.ResourceNotFoundException;
 import org.apache.velocity.exception.TemplateInitException;
 import org.apache.velocity.exception.VelocityException;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.VelocimacroManager;
 import org.apache.velocity.runtime.directive.Scope;
 import org.apache.velocity.runtime.directive.StopCommand;
 import org.apache.velocity.runtime.parser.ParseException;
+import org.apache.velocity.runtime.parser.node.Node;
+import org.apache.velocity.runtime.parser.node.NodeUtils;
 import org.apache.velocity.runtime.parser.node.SimpleNode;
+import org.apache.velocity.runtime.parser.node.SourceBlocks;
+import org.apache.velocity.runtime.parser.node.SourceMap;
 import org.apache.velocity.runtime.resource.Resource;
 import org.apache.velocity.runtime.resource.ResourceManager;
 import org.slf4j.Logger;
@@ -37,6 +43,7 @@
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
@@ -73,10 +80,36 @@ public class Template extends Resource
      */
     private String scopeName = "template";
     private boolean provideScope = false;
+    private boolean scopeReferenced = true;
     private Map<String, Object> macros = new ConcurrentHashMap<>(17, 0.7f);
 
     private VelocityException errorCondition = null;
 
+    /*
+     * Source and top-level blocks offsets, kept for incremental re-parsing
+     */
+    private SourceBlocks sourceBlocks = null;
+
+    /*
+     * Previous version of this template, whose unmodified blocks can be reused
+     */
+    private Template previousVersion = null;
+
+    /**
+     * Source map of the whole template, when parsed entirely
+     */
+    private SourceMap sourceMap = null;
+
+    /**
+     * Approximate shallow size of an AST node, along with its slot in its parent children array
+     */
+    private static final int NODE_SIZE = 96;
+
+    /**
+     * Approximate heap size of the compacted AST, or -1
+     */
+    private long retainedSize = -1;
+
     /** Default constructor */
     public Template()
     {
@@ -94,6 +127,54 @@ public Map<String, Object> getMacros()
         return macros;
     }
 
+    /**
+     * @return false if the template content was found not to reference
+     * its $template scope control
+     * @since 2.4
+     */
+    public boolean isScopeReferenced()
+    {
+        return scopeReferenced;
+    }
+
+    /**
+     * Get the source map of this template, giving access to the literal text of its lines,
+     * for instance to display error snippets.
+     * @return source map, or null if source maps are disabled, if the template has not
+     * been parsed, or if it has only been partially re-parsed
+     * @see RuntimeConstants#PARSER_SOURCE_MAP
+     * @since 2.4
+     */
+    public SourceMap getSourceMap()
+    {
+        return sourceMap;
+    }
+
+    /**
+     * Get the approximate heap size retained by the AST of this template once compacted:
+     * its nodes and the source maps they use. Strings held by the nodes (like static texts,
+     * identifiers or cached literals) are not counted, since they can be shared.
+     * @return approximate retained size in bytes, or -1 if the AST is not compacted
+     * @see RuntimeConstants#PARSER_COMPACT_AST
+     * @since 2.4
+     */
+    public long getRetainedSize()
+    {
+        return retainedSize;
+    }
+
+    /**
+     * Set the previous version of this template, being refreshed. If incremental
+     * re-parsing is enabled, the top-level blocks of the previous version which
+     * are not affected by the modification are reused by {@link #process()}.
+     * @param previousVersion previous version of this template
+     * @since 2.4
+     */
+    public void setPreviousVersion(Template previousVersion)
+    {
+        this.previousVersion = previousVersion;
+    }
+
     /**
      *  gets the named resource as a stream, parses and inits
      *
@@ -108,8 +189,12 @@ public boolean process()
         throws ResourceNotFoundException, ParseErrorException
     {
         data = null;
+        sourceMap = null;
+        retainedSize = -1;
         Reader reader = null;
         errorCondition = null;
+        Template previous = previousVersion;
+        previousVersion = null;
 
         /*
          *  first, try to get the stream from the loader
@@ -142,8 +227,23 @@ public boolean process()
             try
             {
                 BufferedReader br = new BufferedReader( reader );
-                data = rsvc.parse( br, this);
-                initDocument();
+                if (rsvc.getBoolean(RuntimeConstants.RESOURCE_MANAGER_INCREMENTAL_REPARSE, false))
+                {
+                    String source = readSource(br);
+                    if (previous == null || !reparse(previous, source))
+                    {
+                        data = rsvc.parse(new StringReader(source), this);
+                        sourceMap = mapSource((SimpleNode)data);
+                        sourceBlocks = SourceBlocks.index((SimpleNode)data, source);
+                        initDocument();
+                    }
+                }
+                else
+                {
+                    data = rsvc.parse( br, this);
+                    sourceMap = mapSource((SimpleNode)data);
+                    initDocument();
+                }
                 return true;
             }
             catch ( ParseException pex )
@@ -198,6 +298,175 @@ public boolean process()
         }
     }
 
+    /**
+     * Reads the whole template source.
+     * @param reader
+     * @return template source
+     */
+    private String readSource(Reader reader)
+    {
+        try
+        {
+            StringBuilder builder = new StringBuilder();
+            char[] buffer = new char[4096];
+            int read;
+            while ((read = reader.read(buffer)) != -1)
+            {
+                builder.append(buffer, 0, read);
+            }
+            return builder.toString();
+        }
+        catch (IOException ioe)
+        {
+            throw new VelocityException("Could not read template " + name, ioe, rsvc.getLogContext().getStackTrace());
+        }
+    }
+
+    /**
+     * Re-parses the top-level blocks of the previous version of this template which are
+     * affected by the modification, along with one block of context on each side, and
+     * reuses the other ones. The template is entirely parsed instead if the replaced
+     * blocks or their replacement define macros, or if the modification cannot be
+     * isolated in whole lines.
+     * The reused blocks are shared with the previous version, which is left untouched since
+     * it may still be merged: they keep referencing it, and so do their stored texts.
+     * @param previous previous version of this template
+     * @param source new template source
+     * @return true if the template was incrementally re-parsed
+     * @throws TemplateInitException
+     */
+    private boolean reparse(Template previous, String source)
+        throws TemplateInitException
+    {
+        SourceBlocks blocks = previous.sourceBlocks;
+        SimpleNode previousRoot = (SimpleNode)previous.data;
+        if (blocks == null || previousRoot == null || previous.errorCondition != null
+            || blocks.size() == 0 || blocks.size() != previousRoot.jjtGetNumChildren()
+            || rsvc.getSpaceGobbling() == RuntimeConstants.SpaceGobbling.BC)
+        {
+            /* nothing to reuse from an empty template, and backward compatible
+               space gobbling modifies preceding blocks */
+            return false;
+        }
+
+        /* find the modified range */
+        String previousSource = blocks.getSource();
+        int previousLength = previousSource.length();
+        int length = source.length();
+        int max = Math.min(previousLength, length);
+        int prefix = 0;
+        while (prefix < max && previousSource.charAt(prefix) == source.charAt(prefix))
+        {
+            ++prefix;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+               && previousSource.charAt(previousLength - suffix - 1) == source.charAt(length - suffix - 1))
+        {
+            ++suffix;
+        }
+
+        /* find the replaced blocks, which must span whole lines */
+        int from = Math.max(0, blocks.getBlock(prefix) - 1);
+        while (!blocks.startsLine(from))
+        {
+            --from;
+        }
+        int to = Math.min(blocks.size() - 1, blocks.getBlock(Math.max(prefix, previousLength - suffix - 1)) + 1);
+        int lineStart = Math.max(0, prefix - 1);
+        if (SourceBlocks.countLines(previousSource, lineStart, previousLength - suffix)
+            != SourceBlocks.countLines(source, lineStart, length - suffix))
+        {
+            /* line numbers of the following blocks would change */
+            to = blocks.size() - 1;
+        }
+        else
+        {
+            while (to + 1 < blocks.size() && !blocks.startsLine(to + 1))
+            {
+                ++to;
+            }
+        }
+        for (int block = from; block <= to; ++block)
+        {
+            if (NodeUtils.definesMacro(previousRoot.jjtGetChild(block)))
+            {
+                return false;
+            }
+        }
+
+        /* comments and unparsed content could extend past the segment */
+        int start = blocks.getStart(from);
+        String segment = source.substring(start, blocks.getStart(to + 1) + length - previousLength);
+        char hash = rsvc.getParserConfiguration().getHashChar();
+        if (segment.indexOf(hash + "*") != -1 || segment.indexOf(hash + "[[") != -1)
+        {
+            return false;
+        }
+
+        SimpleNode root;
+        try
+        {
+            root = rsvc.parse(new StringReader(segment), this);
+        }
+        catch (ParseException pe)
+        {
+            log.debug("could not re-parse blocks {} to {} of template {}, parsing it entirely", from, to, name);
+            return false;
+        }
+        SourceBlocks segmentBlocks = SourceBlocks.index(root, segment);
+        if (segmentBlocks == null || NodeUtils.definesMacro(root))
+        {
+            return false;
+        }
+        /* the new blocks only get their own source map, for their literals */
+        mapSource(root);
+        NodeUtils.shiftLines(root, SourceBlocks.countLines(source, 0, start));
+
+        /* init the new blocks, then splice them with the reused ones */
+        data = root;
+        initNodes(root);
+        int count = root.jjtGetNumChildren();
+        int previousCount = previousRoot.jjtGetNumChildren();
+        Node[] children = new Node[from + count + previousCount - to - 1];
+        for (int i = 0; i < from; ++i)
+        {
+            children[i] = previousRoot.jjtGetChild(i);
+        }
+        for (int i = 0; i < count; ++i)
+        {
+            children[from + i] = root.jjtGetChild(i);
+        }
+        for (int i = to + 1, j = from + count; i < previousCount; ++i, ++j)
+        {
+            children[j] = previousRoot.jjtGetChild(i);
+        }
+        NodeUtils.setChildren(root, children);
+        sourceBlocks = blocks.splice(from, to, segmentBlocks, source);
+        VelocimacroManager.copyMacros(previous, this);
+        initScope();
+
+        log.debug("re-parsed blocks {} to {} out of {} of template {}", from, to, previousCount, name);
+        return true;
+    }
+
+    /**
+     * Builds the source map of a freshly parsed tree, before its initialization
+     * modifies its tokens, if source maps are enabled or needed by AST compaction.
+     * @param root parsed tree
+     * @return source map of the tree, or null
+     */
+    private SourceMap mapSource(SimpleNode root)
+    {
+        if (rsvc.getBoolean(RuntimeConstants.PARSER_SOURCE_MAP, false)
+            || rsvc.getBoolean(RuntimeConstants.PARSER_COMPACT_AST, false))
+        {
+            NodeUtils.indexTokens(root, root.getParser());
+            return root.getSourceMap();
+        }
+        return null;
+    }
+
     /**
      *  initializes the document.  init() is not longer
      *  dependant upon context, but we need to let the
@@ -207,6 +476,18 @@ public boolean process()
      */
     public void initDocument()
     throws TemplateInitException
+    {
+        initNodes((SimpleNode)data);
+        initScope();
+    }
+
+    /**
+     * Initializes the given nodes of the document.
+     * @param node
+     * @throws TemplateInitException
+     */
+    private void initNodes(SimpleNode node)
+    throws TemplateInitException
     {
         /*
          *  send an empty InternalContextAdapter down into the AST to initialize it
@@ -227,9 +508,7 @@ public void initDocument()
              *  init the AST
              */
 
-            ((SimpleNode)data).init( ica, rsvc);
-
-            provideScope = rsvc.isScopeControlEnabled(scopeName);
+            node.init( ica, rsvc);
         }
         finally
         {
@@ -244,6 +523,30 @@ public void initDocument()
 
     }
 
+    /**
+     * Checks the template scope usage, and compacts the initialized tree if asked so.
+     */
+    private void initScope()
+    {
+        provideScope = rsvc.isScopeControlEnabled(scopeName);
+        if (provideScope)
+        {
+            scopeReferenced = NodeUtils.mayReference((SimpleNode)data, scopeName);
+        }
+
+        if (rsvc.getBoolean(RuntimeConstants.PARSER_COMPACT_AST, false))
+        {
+            SimpleNode root = (SimpleNode)data;
+            int nodes = NodeUtils.compact(root);
+            retainedSize = (long)nodes * NODE_SIZE;
+            for (SourceMap map : NodeUtils.getSourceMaps(root))
+            {
+                retainedSize += map.getRetainedSize();
+            }
+            log.debug("compacted template {}: {} nodes, about {} bytes", name, nodes, retainedSize);
+        }
+    }
+
     /**
      * The AST node structure is merged with the
      * context to produce the final output.
@@ -293,7 +596,8 @@ public void merge( Context context, Writer writer, List<String> macroLibraries)
                 throw errorCondition;
             }
 
-            if (data != null)
+            SimpleNode root = (SimpleNode)data;
+            if (root != null)
             {
                 /*
                  *  create an InternalContextAdapter to carry the user Context down
@@ -346,7 +650,9 @@ public void merge( Context context, Writer writer, List<String> macroLibraries)
                     }
                 }
 
-                if (provideScope)
+                boolean pushScope = provideScope &&
+                    (scopeReferenced || rsvc.isReferencedByBlocks(scopeName));
+                if (pushScope)
                 {
                     ica.put(scopeName, new Scope(this, ica.get(scopeName)));
                 }
@@ -355,7 +661,7 @@ public void merge( Context context, Writer writer, List<String> macroLibraries)
                     ica.pushCurrentTemplateName(name);
                     ica.setCurrentResource(this);
 
-                    ((SimpleNode) data).render(ica, writer);
+                    root.render(ica, writer);
                 }
                 catch (StopCommand stop)
                 {
@@ -381,7 +687,7 @@ public void merge( Context context, Writer writer, List<String> macroLibraries)
                     ica.popCurrentTemplateName();
                     ica.setCurrentResource(null);
 
-                    if (provideScope)
+                    if (pushScope)
                     {
                         Object obj = ica.get(scopeName);
                         if (obj instanceof Scope)
@@ -60,6 +60,23 @@
     private List<IncludeEventHandler> includeHandlers = new ArrayList<>();
     private List<InvalidReferenceEventHandler> invalidReferenceHandlers = new ArrayList<>();
 
+    /*
+     * Immutable dispatch chains, rebuilt whenever handlers are added or removed.
+     * Empty chains are shared singletons.
+     */
+    private static final ReferenceInsertionEventHandler[] NO_REFERENCE_HANDLERS = new ReferenceInsertionEventHandler[0];
+    private static final IncludeEventHandler[] NO_INCLUDE_HANDLERS = new IncludeEventHandler[0];
+    private static final InvalidReferenceEventHandler[] NO_INVALID_REFERENCE_HANDLERS = new InvalidReferenceEventHandler[0];
+
+    private volatile ReferenceInsertionEventHandler[] referenceChain = NO_REFERENCE_HANDLERS;
+    private volatile IncludeEventHandler[] includeChain = NO_INCLUDE_HANDLERS;
+    private volatile InvalidReferenceEventHandler[] invalidReferenceChain = NO_INVALID_REFERENCE_HANDLERS;
+
+    /**
+     * Runtime services instance the handlers have been initialized for
+     */
+    private volatile RuntimeServices initializedFor = null;
+
     /**
      * Ensure that handlers are not initialized more than once.
      */
@@ -115,6 +132,7 @@ public synchronized void setRuntimeServices(RuntimeServices rs)
                     initializedHandlers.add(handler);
                 }
             }
+            initializedFor = rs;
         }
         else if (rsvc != rs)
         {
@@ -122,6 +140,21 @@ else if (rsvc != rs)
         }
     }
 
+    /**
+     * Same as {@link #setRuntimeServices(RuntimeServices)}, without any locking once
+     * the handlers have been initialized; called before each event dispatch.
+     *
+     * @param rs runtime services
+     * @since 2.4
+     */
+    void ensureRuntimeServices(RuntimeServices rs)
+    {
+        if (initializedFor != rs)
+        {
+            setRuntimeServices(rs);
+        }
+    }
+
     /**
      * Adds an event handler(s) to the Cartridge.  This method
      * will find all possible event handler interfaces supported
@@ -181,6 +214,7 @@ public boolean addEventHandler(EventHandler ev)
     public void addReferenceInsertionEventHandler(ReferenceInsertionEventHandler ev)
     {
         referenceHandlers.add(ev);
+        referenceChain = referenceHandlers.toArray(NO_REFERENCE_HANDLERS);
     }
 
     /**
@@ -210,6 +244,7 @@ public void addMethodExceptionHandler(MethodExceptionEventHandler ev)
     public void addIncludeEventHandler(IncludeEventHandler ev)
     {
         includeHandlers.add(ev);
+        includeChain = includeHandlers.toArray(NO_INCLUDE_HANDLERS);
     }
 
     /**
@@ -221,6 +256,7 @@ public void addIncludeEventHandler(IncludeEventHandler ev)
     public void addInvalidReferenceEventHandler(InvalidReferenceEventHandler ev)
     {
         invalidReferenceHandlers.add(ev);
+        invalidReferenceChain = invalidReferenceHandlers.toArray(NO_INVALID_REFERENCE_HANDLERS);
     }
 
 
@@ -242,7 +278,9 @@ public boolean removeEventHandler(EventHandler ev)
 
         if (ev instanceof ReferenceInsertionEventHandler)
         {
-            return referenceHandlers.remove(ev);
+            boolean removed = referenceHandlers.remove(ev);
+            referenceChain = referenceHandlers.toArray(NO_REFERENCE_HANDLERS);
+            return removed;
         }
 
         if (ev instanceof MethodExceptionEventHandler)
@@ -256,12 +294,16 @@ public boolean removeEventHandler(EventHandler ev)
 
         if (ev instanceof IncludeEventHandler)
         {
-            return includeHandlers.remove(ev);
+            boolean removed = includeHandlers.remove(ev);
+            includeChain = includeHandlers.toArray(NO_INCLUDE_HANDLERS);
+            return removed;
         }
 
         if (ev instanceof InvalidReferenceEventHandler)
         {
-            return invalidReferenceHandlers.remove(ev);
+            boolean removed = invalidReferenceHandlers.remove(ev);
+            invalidReferenceChain = invalidReferenceHandlers.toArray(NO_INVALID_REFERENCE_HANDLERS);
+            return removed;
         }
 
         return false;
@@ -277,13 +319,67 @@ public boolean removeEventHandler(EventHandler ev)
      */
     public Object referenceInsert(InternalContextAdapter context, String reference, Object value)
     {
-        for (ReferenceInsertionEventHandler handler : referenceHandlers)
+        for (ReferenceInsertionEventHandler handler : referenceChain)
         {
             value = handler.referenceInsert(context, reference, value);
         }
         return value;
     }
 
+    /**
+     * Check whether this event cartridge has reference insertion event handlers
+     *
+     * @return true if at least one reference insertion event handler has been registered
+     * @since 2.4
+     */
+    boolean hasReferenceInsertionEventHandlers()
+    {
+        return referenceChain != NO_REFERENCE_HANDLERS;
+    }
+
+    /**
+     * Check whether this event cartridge has include event handlers
+     *
+     * @return true if at least one include event handler has been registered
+     * @since 2.4
+     */
+    boolean hasIncludeEventHandlers()
+    {
+        return includeChain != NO_INCLUDE_HANDLERS;
+    }
+
+    /**
+     * Check whether this event cartridge has invalid reference event handlers
+     *
+     * @return true if at least one invalid reference event handler has been registered
+     * @since 2.4
+     */
+    boolean hasInvalidReferenceEventHandlers()
+    {
+        return invalidReferenceChain != NO_INVALID_REFERENCE_HANDLERS;
+    }
+
+    /**
+     * Get the reference insertion event handler of this cartridge if it is the only
+     * one and if it can write references itself
+     *
+     * @return single streaming reference insertion event handler, or null
+     * @since 2.4
+     */
+    StreamingReferenceInsertionEventHandler getStreamingReferenceInsertionEventHandler()
+    {
+        ReferenceInsertionEventHandler[] chain = referenceChain;
+        if (chain.length == 1)
+        {
+            ReferenceInsertionEventHandler handler = chain[0];
+            if (handler instanceof StreamingReferenceInsertionEventHandler)
+            {
+                return (StreamingReferenceInsertionEventHandler)handler;
+            }
+        }
+        return null;
+    }
+
     /**
      * Check whether this event cartridge has a method exception event handler
      *
@@ -326,7 +422,7 @@ public Object methodException(Context context, Class<?> claz, String method, Exc
      */
     public String includeEvent(Context context, String includeResourcePath, String currentResourcePath, String directiveName)
     {
-        for (IncludeEventHandler handler : includeHandlers)
+        for (IncludeEventHandler handler : includeChain)
         {
             includeResourcePath = handler.includeEvent(context, includeResourcePath, currentResourcePath, directiveName);
             /* reflect 1.x behavior: exit after at least one execution whenever a null include path has been found */
@@ -352,7 +448,7 @@ public String includeEvent(Context context, String includeResourcePath, String c
     public Object invalidGetMethod(Context context, String reference, Object object, String property, Info info)
     {
         Object result = null;
-        for (InvalidReferenceEventHandler handler : invalidReferenceHandlers)
+        for (InvalidReferenceEventHandler handler : invalidReferenceChain)
         {
             result = handler.invalidGetMethod(context, reference, object, property, info);
               /* reflect 1.x behavior: exit after at least one execution whenever a non-null value has been found */
@@ -376,7 +472,7 @@ public Object invalidGetMethod(Context context, String reference, Object object,
      */
     public boolean invalidSetMethod(Context context, String leftreference, String rightreference, Info info)
     {
-        for (InvalidReferenceEventHandler handler : invalidReferenceHandlers)
+        for (InvalidReferenceEventHandler handler : invalidReferenceChain)
         {
             if (handler.invalidSetMethod(context, leftreference, rightreference, info))
             {
@@ -400,7 +496,7 @@ public boolean invalidSetMethod(Context context, String leftreference, String ri
     public Object invalidMethod(Context context, String reference, Object object, String method, Info info)
     {
         Object result = null;
-        for (InvalidReferenceEventHandler handler : invalidReferenceHandlers)
+        for (InvalidReferenceEventHandler handler : invalidReferenceChain)
         {
             result = handler.invalidMethod(context, reference, object, method, info);
               /* reflect 1.x behavior: exit after at least one execution whenever a non-null value has been found */
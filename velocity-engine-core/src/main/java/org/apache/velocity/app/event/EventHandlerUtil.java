@@ -56,11 +56,14 @@ public static Object referenceInsert(RuntimeServices rsvc,
     {
         try
         {
-            value = rsvc.getApplicationEventCartridge().referenceInsert(context, reference, value);
-            EventCartridge contextCartridge = context.getEventCartridge();
-            if (contextCartridge != null)
+            EventCartridge ev = rsvc.getApplicationEventCartridge();
+            if (ev.hasReferenceInsertionEventHandlers())
+            {
+                value = ev.referenceInsert(context, reference, value);
+            }
+            EventCartridge contextCartridge = getContextCartridge(rsvc, context);
+            if (contextCartridge != null && contextCartridge.hasReferenceInsertionEventHandlers())
             {
-                contextCartridge.setRuntimeServices(rsvc);
                 value = contextCartridge.referenceInsert(context, reference, value);
             }
             return value;
@@ -75,6 +78,47 @@ public static Object referenceInsert(RuntimeServices rsvc,
         }
     }
 
+    /**
+     * Checks whether any reference insertion event handler is registered, either at the
+     * application or at the context level, so that callers can skip the
+     * {@link #referenceInsert(RuntimeServices, InternalContextAdapter, String, Object)} call.
+     *
+     * @param rsvc current instance of RuntimeServices
+     * @param context The internal context adapter.
+     * @return whether references values have to go through reference insertion event handlers
+     * @since 2.4
+     */
+    public static boolean hasReferenceInsertion(RuntimeServices rsvc, InternalContextAdapter context)
+    {
+        if (rsvc.getApplicationEventCartridge().hasReferenceInsertionEventHandlers())
+        {
+            return true;
+        }
+        EventCartridge contextCartridge = context.getEventCartridge();
+        return contextCartridge != null && contextCartridge.hasReferenceInsertionEventHandlers();
+    }
+
+    /**
+     * Returns the reference insertion event handler which can write references itself,
+     * if it is the only reference insertion event handler of the application, and if the
+     * context has no reference insertion event handler.
+     *
+     * @param rsvc current instance of RuntimeServices
+     * @param context The internal context adapter.
+     * @return single streaming reference insertion event handler, or null
+     * @since 2.4
+     */
+    public static StreamingReferenceInsertionEventHandler getStreamingReferenceInsertion(RuntimeServices rsvc,
+            InternalContextAdapter context)
+    {
+        EventCartridge contextCartridge = context.getEventCartridge();
+        if (contextCartridge != null && contextCartridge.hasReferenceInsertionEventHandlers())
+        {
+            return null;
+        }
+        return rsvc.getApplicationEventCartridge().getStreamingReferenceInsertionEventHandler();
+    }
+
     /**
      * Called when a method exception is generated during Velocity merge. Only
      * the first valid event handler in the sequence is called. The default
@@ -104,10 +148,9 @@ public static Object methodException(RuntimeServices rsvc,
             {
                 return ev.methodException(context, claz, method, e, info);
             }
-            EventCartridge contextCartridge = context.getEventCartridge();
+            EventCartridge contextCartridge = getContextCartridge(rsvc, context);
             if (contextCartridge != null)
             {
-                contextCartridge.setRuntimeServices(rsvc);
                 return contextCartridge.methodException(context, claz, method, e, info);
             }
         }
@@ -150,11 +193,14 @@ public static String includeEvent(RuntimeServices rsvc,
     {
         try
         {
-            includeResourcePath = rsvc.getApplicationEventCartridge().includeEvent(context, includeResourcePath, currentResourcePath, directiveName);
-            EventCartridge contextCartridge = context.getEventCartridge();
-            if (contextCartridge != null)
+            EventCartridge ev = rsvc.getApplicationEventCartridge();
+            if (ev.hasIncludeEventHandlers())
+            {
+                includeResourcePath = ev.includeEvent(context, includeResourcePath, currentResourcePath, directiveName);
+            }
+            EventCartridge contextCartridge = getContextCartridge(rsvc, context);
+            if (contextCartridge != null && contextCartridge.hasIncludeEventHandlers())
             {
-                contextCartridge.setRuntimeServices(rsvc);
                 includeResourcePath = contextCartridge.includeEvent(context, includeResourcePath, currentResourcePath, directiveName);
             }
             return includeResourcePath;
@@ -187,11 +233,15 @@ public static Object invalidGetMethod(RuntimeServices rsvc,
     {
         try
         {
-            Object result = rsvc.getApplicationEventCartridge().invalidGetMethod(context, reference, object, property, info);
-            EventCartridge contextCartridge = context.getEventCartridge();
+            Object result = null;
+            EventCartridge ev = rsvc.getApplicationEventCartridge();
+            if (ev.hasInvalidReferenceEventHandlers())
+            {
+                result = ev.invalidGetMethod(context, reference, object, property, info);
+            }
+            EventCartridge contextCartridge = getContextCartridge(rsvc, context);
             if (contextCartridge != null)
             {
-                contextCartridge.setRuntimeServices(rsvc);
                 result = contextCartridge.invalidGetMethod(context, reference, object, property, info);
             }
             return result;
@@ -223,10 +273,9 @@ public static void invalidSetMethod(RuntimeServices rsvc,
         {
             if (!rsvc.getApplicationEventCartridge().invalidSetMethod(context, leftreference, rightreference, info))
             {
-                EventCartridge contextCartridge = context.getEventCartridge();
-                if (contextCartridge != null)
+                EventCartridge contextCartridge = getContextCartridge(rsvc, context);
+                if (contextCartridge != null && contextCartridge.hasInvalidReferenceEventHandlers())
                 {
-                    contextCartridge.setRuntimeServices(rsvc);
                     contextCartridge.invalidSetMethod(context, leftreference, rightreference, info);
                 }
             }
@@ -258,11 +307,15 @@ public static Object invalidMethod(RuntimeServices rsvc,
     {
         try
         {
-            Object result = rsvc.getApplicationEventCartridge().invalidMethod(context, reference, object, method, info);
-            EventCartridge contextCartridge = context.getEventCartridge();
+            Object result = null;
+            EventCartridge ev = rsvc.getApplicationEventCartridge();
+            if (ev.hasInvalidReferenceEventHandlers())
+            {
+                result = ev.invalidMethod(context, reference, object, method, info);
+            }
+            EventCartridge contextCartridge = getContextCartridge(rsvc, context);
             if (contextCartridge != null)
             {
-                contextCartridge.setRuntimeServices(rsvc);
                 result = contextCartridge.invalidMethod(context, reference, object, method, info);
             }
             return result;
@@ -276,4 +329,22 @@ public static Object invalidMethod(RuntimeServices rsvc,
             throw new VelocityException("Exception in event handler.", e, rsvc.getLogContext().getStackTrace());
         }
     }
+
+    /**
+     * Get the event cartridge attached to the context, if any, making sure its
+     * handlers have been initialized.
+     *
+     * @param rsvc current instance of RuntimeServices
+     * @param context The internal context adapter.
+     * @return context event cartridge, or null
+     */
+    private static EventCartridge getContextCartridge(RuntimeServices rsvc, InternalContextAdapter context)
+    {
+        EventCartridge contextCartridge = context.getEventCartridge();
+        if (contextCartridge != null)
+        {
+            contextCartridge.ensureRuntimeServices(rsvc);
+        }
+        return contextCartridge;
+    }
 }
@@ -0,0 +1,65 @@
+package org.apache.velocity.app.event;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.context.Context;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ *  Reference insertion event handler which can write the modified value of
+ *  references directly into the output stream.
+ *
+ *  <p>When such a handler is the only reference insertion handler of the
+ *  application event cartridge, and the context doesn't carry its own reference
+ *  insertion handlers, references call {@link #writeReference(Context, String, Object, Writer)}
+ *  instead of {@link #referenceInsert(Context, String, Object)}, and the result of
+ *  {@link #appliesTo(String)} is only computed once per reference node. References
+ *  the handler doesn't apply to are inserted without calling it.</p>
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public interface StreamingReferenceInsertionEventHandler extends ReferenceInsertionEventHandler
+{
+    /**
+     * Whether this handler modifies the values of the given reference. The answer
+     * must only depend upon the reference literal, since it is cached.
+     *
+     * @param reference Reference from template.
+     * @return true if values of this reference have to be passed to this handler
+     */
+    boolean appliesTo(String reference);
+
+    /**
+     * Writes the modified value of a reference into the output stream.
+     *
+     * @param context current context
+     * @param reference Reference from template about to be inserted.
+     * @param value non-null value about to be inserted
+     * @param writer output stream
+     * @return false if nothing was written because the modified value is null
+     * @throws IOException
+     */
+    boolean writeReference(Context context, String reference, Object value, Writer writer)
+        throws IOException;
+
+}
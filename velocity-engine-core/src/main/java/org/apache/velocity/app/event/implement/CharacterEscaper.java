@@ -0,0 +1,175 @@
+package org.apache.velocity.app.event.implement;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Table-driven text escaper. Each character below the table length is replaced by its
+ * table entry, if any, while runs of characters which don't need to be escaped are
+ * copied in bulk. Characters beyond the table can be handled by overriding
+ * {@link #escapeOther(String, int)}.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+class CharacterEscaper
+{
+    /**
+     * Replacement strings, indexed by character (null for unescaped characters)
+     */
+    private final String[] table;
+
+    /**
+     * First character beyond the table which is passed to {@link #escapeOther(String, int)}
+     */
+    private final int otherFrom;
+
+    /**
+     * @param otherFrom first character beyond the table passed to {@link #escapeOther(String, int)}
+     * @param entities arrays of {character, replacement} pairs
+     */
+    CharacterEscaper(int otherFrom, String[][]... entities)
+    {
+        int length = 0;
+        for (String[][] array : entities)
+        {
+            for (String[] entity : array)
+            {
+                length = Math.max(length, entity[0].charAt(0) + 1);
+            }
+        }
+        table = new String[length];
+        for (String[][] array : entities)
+        {
+            for (String[] entity : array)
+            {
+                char c = entity[0].charAt(0);
+                // first mapping wins
+                if (table[c] == null)
+                {
+                    table[c] = entity[1];
+                }
+            }
+        }
+        this.otherFrom = otherFrom;
+    }
+
+    /**
+     * Replacement of a character beyond the table. The default implementation
+     * doesn't escape anything.
+     * @param text text being escaped
+     * @param index index of the character in the text
+     * @return replacement string, or null to copy the character as is
+     */
+    protected String escapeOther(String text, int index)
+    {
+        return null;
+    }
+
+    /**
+     * @param text text being escaped
+     * @param from start index
+     * @return index of the next character needing a replacement, or the text length
+     */
+    private int next(String text, int from)
+    {
+        int length = text.length();
+        for (int i = from; i < length; ++i)
+        {
+            char c = text.charAt(i);
+            if (c < table.length ? table[c] != null : c >= otherFrom && escapeOther(text, i) != null)
+            {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * @param text text being escaped
+     * @param index index of a character needing a replacement
+     * @return replacement string
+     */
+    private String replacement(String text, int index)
+    {
+        char c = text.charAt(index);
+        return c < table.length ? table[c] : escapeOther(text, index);
+    }
+
+    /**
+     * Escape the given text.
+     * @param text text to escape
+     * @return escaped text, which is the given string itself if nothing needed to be escaped
+     */
+    String escape(String text)
+    {
+        if (text == null)
+        {
+            return null;
+        }
+        int length = text.length();
+        int i = next(text, 0);
+        if (i == length)
+        {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder(length + 16);
+        int start = 0;
+        for (; i < length; i = next(text, start))
+        {
+            builder.append(text, start, i).append(replacement(text, i));
+            start = i + 1;
+        }
+        return builder.append(text, start, length).toString();
+    }
+
+    /**
+     * Escape the given text into a writer.
+     * @param text text to escape
+     * @param writer output writer
+     * @return false if the text is null
+     * @throws IOException
+     */
+    boolean escape(String text, Writer writer) throws IOException
+    {
+        if (text == null)
+        {
+            return false;
+        }
+        int length = text.length();
+        int start = 0;
+        for (int i = next(text, 0); i < length; i = next(text, start))
+        {
+            if (i > start)
+            {
+                writer.write(text, start, i - start);
+            }
+            writer.write(replacement(text, i));
+            start = i + 1;
+        }
+        if (start < length)
+        {
+            writer.write(text, start, length - start);
+        }
+        return true;
+    }
+}
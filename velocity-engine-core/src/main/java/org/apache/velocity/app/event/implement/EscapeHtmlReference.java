@@ -1,6 +1,9 @@
 package org.apache.velocity.app.event.implement;
 
-import org.apache.commons.lang3.StringEscapeUtils;
+import org.apache.commons.lang3.text.translate.EntityArrays;
+
+import java.io.IOException;
+import java.io.Writer;
 
 /*
  * Licensed to the Apache Software Foundation (ASF) under one
@@ -33,6 +36,11 @@
 @Deprecated
 public class EscapeHtmlReference extends EscapeReference
 {
+    /**
+     * Same escaping as <code>StringEscapeUtils.escapeHtml4()</code>
+     */
+    private static final CharacterEscaper ESCAPER = new CharacterEscaper(Character.MAX_VALUE + 1,
+        EntityArrays.BASIC_ESCAPE(), EntityArrays.ISO8859_1_ESCAPE(), EntityArrays.HTML40_EXTENDED_ESCAPE());
 
     /**
      * Escape all HTML entities.
@@ -44,7 +52,22 @@ public class EscapeHtmlReference extends EscapeReference
     @Override
     protected String escape(Object text)
     {
-        return StringEscapeUtils.escapeHtml4(text.toString());
+        return ESCAPER.escape(text.toString());
+    }
+
+    /**
+     * Escape all HTML entities directly into the writer.
+     *
+     * @param value
+     * @param writer
+     * @return false if the value string is null
+     * @throws IOException
+     * @since 2.4
+     */
+    @Override
+    protected boolean escape(Object value, Writer writer) throws IOException
+    {
+        return ESCAPER.escape(value.toString(), writer);
     }
 
     /**
@@ -1,6 +1,10 @@
 package org.apache.velocity.app.event.implement;
 
-import org.apache.commons.lang3.StringEscapeUtils;
+import org.apache.commons.lang3.text.translate.EntityArrays;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
 
 /*
  * Licensed to the Apache Software Foundation (ASF) under one
@@ -33,6 +37,45 @@
 @Deprecated
 public class EscapeJavaScriptReference extends EscapeReference
 {
+    /**
+     * Same escaping as <code>StringEscapeUtils.escapeEcmaScript()</code>: control
+     * and non-ASCII characters are written as unicode escapes.
+     */
+    private static final CharacterEscaper ESCAPER = new CharacterEscaper(0x80,
+        new String[][] { {"'", "\\'"}, {"\"", "\\\""}, {"\\", "\\\\"}, {"/", "\\/"} },
+        EntityArrays.JAVA_CTRL_CHARS_ESCAPE(), unicodeEscapes(0, 0x20))
+    {
+        @Override
+        protected String escapeOther(String text, int index)
+        {
+            return unicodeEscape(text.charAt(index));
+        }
+    };
+
+    /**
+     * @param from first character
+     * @param to last character, exclusive
+     * @return unicode escapes of the given characters
+     */
+    private static String[][] unicodeEscapes(int from, int to)
+    {
+        String[][] escapes = new String[to - from][];
+        for (int c = from; c < to; ++c)
+        {
+            escapes[c - from] = new String[] { String.valueOf((char)c), unicodeEscape((char)c) };
+        }
+        return escapes;
+    }
+
+    /**
+     * @param c character
+     * @return unicode escape of the character, with uppercase hexadecimal digits
+     */
+    private static String unicodeEscape(char c)
+    {
+        String hex = Integer.toHexString(c).toUpperCase(Locale.ROOT);
+        return "\\u0000".substring(0, 6 - hex.length()) + hex;
+    }
 
     /**
      * Escapes the characters in a String to be suitable for use in JavaScript.
@@ -44,7 +87,22 @@ public class EscapeJavaScriptReference extends EscapeReference
     @Override
     protected String escape(Object text)
     {
-        return StringEscapeUtils.escapeEcmaScript(text.toString());
+        return ESCAPER.escape(text.toString());
+    }
+
+    /**
+     * Escape the value for JavaScript directly into the writer.
+     *
+     * @param value
+     * @param writer
+     * @return false if the value string is null
+     * @throws IOException
+     * @since 2.4
+     */
+    @Override
+    protected boolean escape(Object value, Writer writer) throws IOException
+    {
+        return ESCAPER.escape(value.toString(), writer);
     }
 
     /**
@@ -19,7 +19,7 @@
  * under the License.
  */
 
-import org.apache.velocity.app.event.ReferenceInsertionEventHandler;
+import org.apache.velocity.app.event.StreamingReferenceInsertionEventHandler;
 import org.apache.velocity.context.Context;
 import org.apache.velocity.runtime.RuntimeServices;
 import org.apache.velocity.util.RuntimeServicesAware;
@@ -28,6 +28,9 @@
 
 import org.slf4j.Logger;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
@@ -52,16 +55,22 @@
  * Regular expressions should follow the format used by the Java language.  More info in the
  * <a href="http://docs.oracle.com/javase/7/docs/api/java/util/regex/Pattern.html">Pattern class documentation</a>.
  *
+ * <P>When it is the only reference insertion event handler, references write their escaped
+ * values directly into the output stream, using <code>boolean escape(Object value, Writer writer)</code>,
+ * which can also be overridden to avoid building the escaped string.
+ *
  * @author <a href="mailto:wglass@forio.com">Will Glass-Husain </a>
  * @version $Id$
  * @since 1.5
  */
-public abstract class EscapeReference implements ReferenceInsertionEventHandler,RuntimeServicesAware {
+public abstract class EscapeReference implements StreamingReferenceInsertionEventHandler,RuntimeServicesAware {
 
     private RuntimeServices rs;
 
     private String matchRegExp = null;
 
+    private Pattern matchPattern = null;
+
     protected Logger log;
 
     /**
@@ -73,6 +82,27 @@ public abstract class EscapeReference implements ReferenceInsertionEventHandler,
      */
     protected abstract String escape(Object text);
 
+    /**
+     * Escape the given value into the writer.  The default implementation writes
+     * the result of <code>escape(Object)</code>.
+     *
+     * @param value the value to escape
+     * @param writer output writer
+     * @return false if the escaped value is null
+     * @throws IOException
+     * @since 2.4
+     */
+    protected boolean escape(Object value, Writer writer) throws IOException
+    {
+        String escaped = escape(value);
+        if (escaped == null)
+        {
+            return false;
+        }
+        writer.write(escaped);
+        return true;
+    }
+
     /**
      * Specify the configuration attribute that specifies the
      * regular expression.  Ideally should be in a form
@@ -98,12 +128,7 @@ public Object referenceInsert(Context context, String reference, Object value)
             return value;
         }
 
-        if (matchRegExp == null)
-        {
-            return escape(value);
-        }
-
-        else if (reference.matches(matchRegExp))
+        if (appliesTo(reference))
         {
             return escape(value);
         }
@@ -114,6 +139,38 @@ else if (reference.matches(matchRegExp))
         }
     }
 
+    /**
+     * Whether the given reference matches the configured regular expression.
+     *
+     * @param reference
+     * @return true if values of this reference are to be escaped
+     * @since 2.4
+     */
+    @Override
+    public boolean appliesTo(String reference)
+    {
+        return matchPattern == null || matchPattern.matcher(reference).matches();
+    }
+
+    /**
+     * Escape the provided value into the writer. Only called for
+     * references matching the configured regular expression.
+     *
+     * @param context
+     * @param reference
+     * @param value
+     * @param writer
+     * @return false if the escaped value is null
+     * @throws IOException
+     * @since 2.4
+     */
+    @Override
+    public boolean writeReference(Context context, String reference, Object value, Writer writer)
+        throws IOException
+    {
+        return escape(value, writer);
+    }
+
     /**
      * Called automatically when event cartridge is initialized.
      *
@@ -137,7 +194,7 @@ public void setRuntimeServices(RuntimeServices rs)
         {
             try
             {
-                "".matches(matchRegExp);
+                matchPattern = Pattern.compile(matchRegExp);
             }
             catch (PatternSyntaxException E)
             {
@@ -19,6 +19,9 @@
  * under the License.
  */
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  * Escapes the characters in a String to be suitable to pass to an SQL query.
  *
@@ -27,6 +30,11 @@
  */
 public class EscapeSqlReference extends EscapeReference
 {
+    /**
+     * Doubles single quotes
+     */
+    private static final CharacterEscaper ESCAPER = new CharacterEscaper(Character.MAX_VALUE + 1,
+        new String[][] { {"'", "''"} });
 
     /**
      * Escapes the characters in a String to be suitable to pass to an SQL query.
@@ -37,7 +45,22 @@ public class EscapeSqlReference extends EscapeReference
     @Override
     protected String escape(Object text)
     {
-        return text.toString().replaceAll("'", "''");
+        return ESCAPER.escape(text.toString());
+    }
+
+    /**
+     * Escapes the value for an SQL query directly into the writer.
+     *
+     * @param value
+     * @param writer
+     * @return false if the value string is null
+     * @throws IOException
+     * @since 2.4
+     */
+    @Override
+    protected boolean escape(Object value, Writer writer) throws IOException
+    {
+        return ESCAPER.escape(value.toString(), writer);
     }
 
     /**
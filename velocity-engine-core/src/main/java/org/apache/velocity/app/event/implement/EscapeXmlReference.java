@@ -1,6 +1,10 @@
 package org.apache.velocity.app.event.implement;
 
-import org.apache.commons.lang3.StringEscapeUtils;
+import org.apache.commons.lang3.text.translate.EntityArrays;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
 
 /*
  * Licensed to the Apache Software Foundation (ASF) under one
@@ -32,6 +36,53 @@
  */
 public class EscapeXmlReference extends EscapeReference
 {
+    /**
+     * Same escaping as <code>StringEscapeUtils.escapeXml10()</code>: invalid XML 1.0
+     * characters are removed, as well as unpaired surrogates.
+     */
+    private static final CharacterEscaper ESCAPER = new CharacterEscaper(Character.MIN_SURROGATE,
+        EntityArrays.BASIC_ESCAPE(), EntityArrays.APOS_ESCAPE(), xml10Controls())
+    {
+        @Override
+        protected String escapeOther(String text, int index)
+        {
+            char c = text.charAt(index);
+            if (c == '\ufffe' || c == '\uffff')
+            {
+                return "";
+            }
+            else if (Character.isHighSurrogate(c))
+            {
+                return index + 1 < text.length() && Character.isLowSurrogate(text.charAt(index + 1)) ? null : "";
+            }
+            else if (Character.isLowSurrogate(c))
+            {
+                return index > 0 && Character.isHighSurrogate(text.charAt(index - 1)) ? null : "";
+            }
+            return null;
+        }
+    };
+
+    /**
+     * @return removal of control characters, and numeric entities for the C1 controls but NEL
+     */
+    private static String[][] xml10Controls()
+    {
+        String[][] controls = new String[0xa0][];
+        int n = 0;
+        for (char c = 0; c < 0xa0; ++c)
+        {
+            if (c < 0x20 && c != '\t' && c != '\n' && c != '\r')
+            {
+                controls[n++] = new String[] { String.valueOf(c), "" };
+            }
+            else if (c >= 0x7f && c != 0x85)
+            {
+                controls[n++] = new String[] { String.valueOf(c), "&#" + (int)c + ";" };
+            }
+        }
+        return Arrays.copyOf(controls, n);
+    }
 
     /**
      * Escape all XML entities.
@@ -43,7 +94,22 @@ public class EscapeXmlReference extends EscapeReference
     @Override
     protected String escape(Object text)
     {
-        return StringEscapeUtils.escapeXml10(text.toString());
+        return ESCAPER.escape(text.toString());
+    }
+
+    /**
+     * Escape all XML entities directly into the writer.
+     *
+     * @param value
+     * @param writer
+     * @return false if the value string is null
+     * @throws IOException
+     * @since 2.4
+     */
+    @Override
+    protected boolean escape(Object value, Writer writer) throws IOException
+    {
+        return ESCAPER.escape(value.toString(), writer);
     }
 
     /**
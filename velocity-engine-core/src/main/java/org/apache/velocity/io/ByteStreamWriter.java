@@ -0,0 +1,136 @@
+package org.apache.velocity.io;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Writer on top of an OutputStream, which accepts {@link RawOutput} content:
+ * characters are encoded using the provided charset, while already encoded
+ * content bypasses the encoder and is transferred as is to the underlying
+ * stream (using the file channel if the stream is a file stream).
+ *
+ * <p>Use it to merge templates towards an OutputStream:</p>
+ * <pre><code>
+ *    template.merge(context, new ByteStreamWriter(response.getOutputStream(), "UTF-8"));
+ * </code></pre>
+ *
+ * @since 2.4
+ */
+public class ByteStreamWriter extends Writer implements RawOutput
+{
+    private final OutputStream out;
+    private final Charset charset;
+    private final Writer encoder;
+    private WritableByteChannel channel = null;
+
+    /**
+     * @param out target output stream
+     * @param encoding output encoding
+     */
+    public ByteStreamWriter(OutputStream out, String encoding)
+    {
+        this(out, Charset.forName(encoding));
+    }
+
+    /**
+     * @param out target output stream
+     * @param charset output charset
+     */
+    public ByteStreamWriter(OutputStream out, Charset charset)
+    {
+        this.out = out;
+        this.charset = charset;
+        this.encoder = new OutputStreamWriter(out, charset);
+    }
+
+    /**
+     * @see RawOutput#getOutputCharset()
+     */
+    @Override
+    public Charset getOutputCharset()
+    {
+        return charset;
+    }
+
+    /**
+     * @see RawOutput#writeRaw(ByteBuffer)
+     */
+    @Override
+    public void writeRaw(ByteBuffer bytes) throws IOException
+    {
+        /* pending characters must reach the stream before raw bytes */
+        encoder.flush();
+        if (bytes.hasArray())
+        {
+            out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            bytes.position(bytes.limit());
+        }
+        else
+        {
+            if (channel == null)
+            {
+                channel = out instanceof FileOutputStream ? ((FileOutputStream)out).getChannel() : Channels.newChannel(out);
+            }
+            while (bytes.hasRemaining())
+            {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException
+    {
+        encoder.write(c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException
+    {
+        encoder.write(cbuf, off, len);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException
+    {
+        encoder.write(str, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        encoder.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        encoder.close();
+    }
+}
@@ -0,0 +1,50 @@
+package org.apache.velocity.io;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Velocity will hand already encoded static content (like the one of resources
+ * included with <code>#include()</code>) directly to any Writer that implements
+ * this interface, whenever the content encoding matches the writer output charset,
+ * rather than decoding it and writing it back as characters.
+ *
+ * @since 2.4
+ */
+
+public interface RawOutput
+{
+    /**
+     * @return the charset used to encode characters written to this output, or null if unknown
+     */
+    Charset getOutputCharset();
+
+    /**
+     * Write already encoded bytes to the output. Any pending character
+     * output must be flushed beforehand, so that ordering is preserved.
+     * The buffer content must not be modified, only its position.
+     * @param bytes bytes to write, from their position up to their limit
+     * @throws IOException
+     */
+    void writeRaw(ByteBuffer bytes) throws IOException;
+}
@@ -21,6 +21,8 @@
 
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 /**
  * Implementation of a fast Writer. It was originally taken from JspWriter
@@ -31,7 +33,7 @@
  * @author Anil K. Vijendran
  * @version $Id$
  */
-public final class VelocityWriter extends Writer implements Filter
+public final class VelocityWriter extends Writer implements Filter, RawOutput
 {
     /**
      * constant indicating that the Writer is not buffering output
@@ -341,6 +343,35 @@ public final void recycle(Writer writer)
         clear();
     }
 
+    /**
+     * Returns the output charset of the wrapped writer, if it is itself
+     * a {@link RawOutput}.
+     * @return wrapped writer output charset, or null
+     * @since 2.4
+     */
+    @Override
+    public Charset getOutputCharset()
+    {
+        return writer instanceof RawOutput ? ((RawOutput)writer).getOutputCharset() : null;
+    }
+
+    /**
+     * Flush the buffer and forward already encoded content to the wrapped writer.
+     * @param bytes
+     * @throws IOException
+     * @since 2.4
+     */
+    @Override
+    public void writeRaw(ByteBuffer bytes) throws IOException
+    {
+        if (!(writer instanceof RawOutput))
+        {
+            throw new IOException("wrapped writer does not accept raw output");
+        }
+        flushBuffer();
+        ((RawOutput)writer).writeRaw(bytes);
+    }
+
     /**
      * Send the content of a reference, e.g.; $foo, to the writer.
      * The default implementation is to call the wrapped Writer's
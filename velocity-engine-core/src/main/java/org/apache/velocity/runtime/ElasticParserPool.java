@@ -0,0 +1,231 @@
+package org.apache.velocity.runtime;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.runtime.parser.CharStream;
+import org.apache.velocity.runtime.parser.Parser;
+import org.slf4j.Logger;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Lock-free parser pool, which can be used instead of {@link ParserPoolImpl}
+ * by setting <code>parser.pool.class</code>.</p>
+ * <p>The pool starts with <code>parser.pool.min_size</code> parsers, and creates new
+ * ones on demand up to <code>parser.pool.size</code> parsers. Once the bound is reached,
+ * {@link #get()} returns null and the runtime uses a temporary parser. Parsers left
+ * idle for more than <code>parser.pool.idle_timeout</code> milliseconds are released,
+ * down to the minimum size.</p>
+ * <p>Idle parsers are reused in LIFO order, so that the least recently used ones
+ * are the first to expire.</p>
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class ElasticParserPool implements ParserPool
+{
+    /**
+     * Idle parser, along with the time it was returned to the pool
+     */
+    private static final class IdleParser
+    {
+        final Parser parser;
+        final long since;
+
+        IdleParser(Parser parser, long since)
+        {
+            this.parser = parser;
+            this.since = since;
+        }
+    }
+
+    private final ConcurrentLinkedDeque<IdleParser> idle = new ConcurrentLinkedDeque<>();
+
+    /* number of parsers owned by the pool, idle or borrowed */
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder borrowWaitNanos = new LongAdder();
+
+    private RuntimeServices rsvc;
+    private Logger log;
+    private int max = RuntimeConstants.NUMBER_OF_PARSERS;
+    private int min = 0;
+    private long idleTimeoutNanos;
+
+    /**
+     * Create the minimum number of parsers.
+     * @param rsvc
+     */
+    @Override
+    public void initialize(RuntimeServices rsvc)
+    {
+        this.rsvc = rsvc;
+        log = rsvc.getLog("parser");
+        max = Math.max(1, rsvc.getInt(RuntimeConstants.PARSER_POOL_SIZE, RuntimeConstants.NUMBER_OF_PARSERS));
+        min = Math.min(max, Math.max(0, rsvc.getInt(RuntimeConstants.PARSER_POOL_MIN_SIZE, 0)));
+        idleTimeoutNanos = Math.max(0, rsvc.getInt(RuntimeConstants.PARSER_POOL_IDLE_TIMEOUT, 60000)) * 1000000L;
+
+        long now = System.nanoTime();
+        for (int i = 0; i < min; i++)
+        {
+            idle.offerFirst(new IdleParser(rsvc.createNewParser(), now));
+        }
+        size.set(min);
+
+        log.debug("Created '{}' parsers, the pool can grow up to '{}' parsers.", min, max);
+    }
+
+    /**
+     * Borrows an idle parser, or creates a new one if the pool didn't reach its bound,
+     * and releases expired idle parsers.
+     * @return A parser Object, or null if all parsers are in use.
+     */
+    @Override
+    public Parser get()
+    {
+        long start = System.nanoTime();
+        try
+        {
+            borrows.increment();
+            IdleParser entry = idle.pollFirst();
+            evict(start);
+            if (entry != null)
+            {
+                return entry.parser;
+            }
+            misses.increment();
+            int current;
+            while ((current = size.get()) < max)
+            {
+                if (size.compareAndSet(current, current + 1))
+                {
+                    try
+                    {
+                        return rsvc.createNewParser();
+                    }
+                    catch (RuntimeException re)
+                    {
+                        size.decrementAndGet();
+                        throw re;
+                    }
+                }
+            }
+            overflows.increment();
+            return null;
+        }
+        finally
+        {
+            borrowWaitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns a parser to the pool, and releases expired idle parsers.
+     * @param parser
+     */
+    @Override
+    public void put(Parser parser)
+    {
+        parser.ReInit((CharStream) null);
+        long now = System.nanoTime();
+        idle.offerFirst(new IdleParser(parser, now));
+        evict(now);
+    }
+
+    /**
+     * Releases the least recently used idle parsers which expired. It is done on both
+     * {@link #get()} and {@link #put(Parser)}, so that a pool which is only borrowed
+     * from still shrinks.
+     * @param now current time, in nanoseconds
+     */
+    private void evict(long now)
+    {
+        IdleParser oldest;
+        while ((oldest = idle.peekLast()) != null && now - oldest.since > idleTimeoutNanos)
+        {
+            int current = size.get();
+            if (current <= min)
+            {
+                break;
+            }
+            if (size.compareAndSet(current, current - 1))
+            {
+                if (!idle.removeLastOccurrence(oldest))
+                {
+                    /* borrowed meanwhile */
+                    size.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of parsers owned by the pool, idle or borrowed
+     */
+    public int getSize()
+    {
+        return size.get();
+    }
+
+    /**
+     * @return number of idle parsers
+     */
+    public int getIdleCount()
+    {
+        return idle.size();
+    }
+
+    /**
+     * @return number of calls to {@link #get()}
+     */
+    public long getBorrowCount()
+    {
+        return borrows.sum();
+    }
+
+    /**
+     * @return number of calls to {@link #get()} which found no idle parser
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of calls to {@link #get()} which returned null because the pool reached its bound
+     */
+    public long getOverflowCount()
+    {
+        return overflows.sum();
+    }
+
+    /**
+     * @return total time spent in {@link #get()}, including parsers creation, in nanoseconds
+     */
+    public long getBorrowWaitNanos()
+    {
+        return borrowWaitNanos.sum();
+    }
+}
@@ -85,6 +85,13 @@ public interface RuntimeConstants extends DeprecatedRuntimeConstants
      */
     String SKIP_INVALID_ITERATOR = "directive.foreach.skip_invalid";
 
+    /**
+     * Number of items rendered by each task of a #parallelforeach loop. Loops with
+     * fewer than two chunks of items are rendered sequentially. Default is 1000.
+     * @since 2.4
+     */
+    String PARALLEL_FOREACH_CHUNK_SIZE = "directive.parallelforeach.chunk_size";
+
     /**
      * An empty object (string, collection) or zero number is false.
      * @since 2.0
@@ -129,6 +136,14 @@ public interface RuntimeConstants extends DeprecatedRuntimeConstants
      */
     String CONTEXT_SCOPE_CONTROL = "context.scope_control";
 
+    /**
+     * Whether enabled scope controls are only provided when the rendered content
+     * can reference them (true by default). Set it to false to always provide them,
+     * for instance when Java tools or event handlers read them from the context.
+     * @since 2.4
+     */
+    String CONTEXT_SCOPE_ANALYSIS = "context.scope_analysis";
+
     /**
      * Vector of custom directives
      */
@@ -161,6 +176,14 @@ public interface RuntimeConstants extends DeprecatedRuntimeConstants
     /** The <code>resource.manager.cache.size</code> property specifies the cache upper bound (if relevant). */
     String RESOURCE_MANAGER_DEFAULTCACHE_SIZE = "resource.manager.cache.default_size";
 
+    /**
+     * The <code>resource.content.keep_encoded</code> property specifies whether static content resources
+     * (as included by <code>#include()</code>) are to be kept in their encoded form, memory-mapped or as raw bytes,
+     * by the resource loaders which support it, rather than being decoded to strings (defaults to false).
+     * @since 2.4
+     */
+    String RESOURCE_CONTENT_KEEP_ENCODED = "resource.content.keep_encoded";
+
     /*
      * ----------------------------------------------------------------------
      * R E S O U R C E  L O A D E R  C O N F I G U R A T I O N
@@ -170,6 +193,33 @@ public interface RuntimeConstants extends DeprecatedRuntimeConstants
     /** controls if the finding of a resource is logged. */
     String RESOURCE_MANAGER_LOGWHENFOUND = "resource.manager.log_when_found";
 
+    /**
+     * Whether modified templates are re-parsed incrementally, by only re-parsing their top-level
+     * blocks affected by the modification (defaults to false). Each cached template then keeps
+     * its source in memory.
+     * @since 2.4
+     */
+    String RESOURCE_MANAGER_INCREMENTAL_REPARSE = "resource.manager.incremental_reparse";
+
+    /**
+     * Whether the long static texts of templates are stored off-heap, in memory-mapped
+     * chunks owned by the resource manager (defaults to false).
+     * @since 2.4
+     */
+    String RESOURCE_MANAGER_TEXT_ARENA = "resource.manager.text_arena";
+
+    /**
+     * Size in bytes of the memory-mapped chunks of the text arena (defaults to 16 MB).
+     * @since 2.4
+     */
+    String RESOURCE_MANAGER_TEXT_ARENA_CHUNK_SIZE = "resource.manager.text_arena.chunk_size";
+
+    /**
+     * Minimum length of the static texts stored in the text arena (defaults to 256).
+     * @since 2.4
+     */
+    String RESOURCE_MANAGER_TEXT_ARENA_MIN_LENGTH = "resource.manager.text_arena.min_length";
+
     /**
      * Key used to retrieve the names of the resource loaders to be used. In a properties file they may appear as the following:
      *
@@ -318,6 +368,12 @@ public interface RuntimeConstants extends DeprecatedRuntimeConstants
     /** switch for autoloading library-sourced VMs (for development). */
     String VM_LIBRARY_AUTORELOAD = "velocimacro.library.autoreload";
 
+    /**
+     * Number of threads loading Velocimacro libraries concurrently at startup (defaults to 1)
+     * @since 2.4
+     */
+    String VM_LIBRARY_PARALLELISM = "velocimacro.library.parallelism";
+
     /** boolean (true/false) default true: allow inline (in-template) macro definitions. */
     String VM_PERM_ALLOW_INLINE = "velocimacro.inline.allow";
 
@@ -347,6 +403,13 @@ public interface RuntimeConstants extends DeprecatedRuntimeConstants
      */
     String VM_ENABLE_BC_MODE = "velocimacro.enable_bc_mode";
 
+    /**
+     * Whether identical macro definitions, like inline macros of a common #parse'd header, share
+     * a single initialized body (defaults to false).
+     * @since 2.4
+     */
+    String VM_SHARE_DEFINITIONS = "velocimacro.share_definitions";
+
     /**
      * Specify the maximum depth for macro calls
      * @since 1.6
@@ -403,6 +466,12 @@ public interface RuntimeConstants extends DeprecatedRuntimeConstants
     /** key for Conversion Manager instance */
     String CONVERSION_HANDLER_INSTANCE = "introspector.conversion_handler.instance";
 
+    /**
+     * A comma separated list of classes whose property getters are resolved when the uberspector is initialized.
+     * @since 2.4
+     */
+    String INTROSPECTOR_PRELOAD_CLASSES = "introspector.preload.classes";
+
     /*
      * ----------------------------------------------------------------------
      * P A R S E R  C O N F I G U R A T I O N
@@ -432,12 +501,46 @@ public interface RuntimeConstants extends DeprecatedRuntimeConstants
      */
     String PARSER_POOL_SIZE = "parser.pool.size";
 
+    /**
+     * Minimum number of parsers kept by the {@link org.apache.velocity.runtime.ElasticParserPool}
+     * @since 2.4
+     */
+    String PARSER_POOL_MIN_SIZE = "parser.pool.min_size";
+
+    /**
+     * Number of milliseconds after which an idle parser of the {@link org.apache.velocity.runtime.ElasticParserPool}
+     * is released
+     * @since 2.4
+     */
+    String PARSER_POOL_IDLE_TIMEOUT = "parser.pool.idle_timeout";
+
     /**
      * Allow hyphen in identifiers (backward compatibility option)
      * @since 2.1
      */
     String PARSER_HYPHEN_ALLOWED = "parser.allow_hyphen_in_identifiers";
 
+    /**
+     * Whether to drop all parser tokens once templates are initialized, keeping
+     * only their images to compute node literals (defaults to false)
+     * @since 2.4
+     */
+    String PARSER_COMPACT_AST = "parser.compact_ast";
+
+    /**
+     * Whether to build a source map for each parsed template (defaults to false).
+     * Source maps are always built when AST compaction is enabled.
+     * @since 2.4
+     */
+    String PARSER_SOURCE_MAP = "parser.source_map";
+
+    /**
+     * Whether the parser reads the whole template content up front, instead of
+     * buffering it while lexing (defaults to false)
+     * @since 2.4
+     */
+    String PARSER_BULK_READ = "parser.bulk_read";
+
     /*
      * ----------------------------------------------------------------------
      * G E N E R A L  R U N T I M E  C O N F I G U R A T I O N
@@ -446,6 +549,20 @@ public interface RuntimeConstants extends DeprecatedRuntimeConstants
 
     /** Whether to use string interning. */
     String RUNTIME_STRING_INTERNING = "runtime.string_interning";
+
+    /**
+     * Whether to share identical static text, identifiers and string literals
+     * between templates (defaults to false)
+     * @since 2.4
+     */
+    String RUNTIME_STRING_CANONICALIZATION = "runtime.string_canonicalization";
+
+    /**
+     * Whether list and map literals having only constant elements are materialized once,
+     * as copy-on-write collections (defaults to false)
+     * @since 2.4
+     */
+    String RUNTIME_CONSTANT_LITERALS = "runtime.constant_literals";
     
     /** Switch for the interpolation facility for string literals. */
     String INTERPOLATE_STRINGLITERALS = "runtime.interpolate_string_literals";
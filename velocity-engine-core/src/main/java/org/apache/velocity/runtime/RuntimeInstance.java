@@ -41,12 +41,15 @@
 import org.apache.velocity.runtime.parser.ParseException;
 import org.apache.velocity.runtime.parser.Parser;
 import org.apache.velocity.runtime.parser.node.Node;
+import org.apache.velocity.runtime.parser.node.NodeUtils;
 import org.apache.velocity.runtime.parser.node.SimpleNode;
 import org.apache.velocity.runtime.resource.ContentResource;
 import org.apache.velocity.runtime.resource.ResourceManager;
+import org.apache.velocity.runtime.resource.TextArena;
 import org.apache.velocity.util.ClassUtils;
 import org.apache.velocity.util.ExtProperties;
 import org.apache.velocity.util.RuntimeServicesAware;
+import org.apache.velocity.util.StringTable;
 import org.apache.velocity.util.introspection.ChainableUberspector;
 import org.apache.velocity.util.introspection.LinkingUberspector;
 import org.apache.velocity.util.introspection.Uberspect;
@@ -74,6 +77,8 @@
 import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>This is the Runtime system for Velocity. It is the
@@ -185,6 +190,16 @@ public class RuntimeInstance implements RuntimeConstants, RuntimeServices
      */
     private boolean stringInterning = false;
 
+    /**
+     * Canonicalization table for template strings, if enabled
+     */
+    private StringTable stringTable = null;
+
+    /**
+     * Set for the threads helping to initialize this instance, like macro libraries loaders
+     */
+    private final ThreadLocal<Boolean> initHelper = new ThreadLocal<>();
+
     /**
      * Scope name for evaluate(...) calls.
      */
@@ -195,6 +210,22 @@ public class RuntimeInstance implements RuntimeConstants, RuntimeServices
      */
     private Set<String> enabledScopeControls = new HashSet<>();
 
+    /**
+     * Root names of the references found in #define and macro body blocks,
+     * which can be rendered within the scope of any directive
+     */
+    private Set<String> blockReferences = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether some #define or macro body block references unknown names
+     */
+    private volatile boolean unknownBlockReferences = false;
+
+    /**
+     * Whether scope controls are only provided when they can be referenced
+     */
+    private boolean scopeAnalysis = true;
+
     /**
      *  Opaque reference to something specified by the
      *  application for use in application supplied/specified
@@ -330,11 +361,15 @@ public synchronized void reset()
         this.overridingProperties = null;
         this.parserPool = null;
         this.enabledScopeControls.clear();
+        this.blockReferences.clear();
+        this.unknownBlockReferences = false;
+        this.scopeAnalysis = true;
         this.resourceManager = null;
         this.runtimeDirectives = new Hashtable<>();
         this.runtimeDirectivesShared = null;
         this.uberSpect = null;
         this.stringInterning = false;
+        this.stringTable = null;
         this.parserConfiguration = new ParserConfiguration();
 
         /*
@@ -364,7 +399,7 @@ public boolean isInitialized()
      */
     private void requireInitialization()
     {
-        if (!initialized)
+        if (!initialized && initHelper.get() == null)
         {
             try
             {
@@ -378,6 +413,30 @@ private void requireInitialization()
         }
     }
 
+    /**
+     * Wraps a task run by another thread on behalf of the initializing thread,
+     * so that it can use this instance before its initialization is complete.
+     * @param task
+     * @param <T>
+     * @return wrapped task
+     * @since 2.4
+     */
+    <T> Callable<T> initHelperTask(Callable<T> task)
+    {
+        return () ->
+        {
+            initHelper.set(Boolean.TRUE);
+            try
+            {
+                return task.call();
+            }
+            finally
+            {
+                initHelper.remove();
+            }
+        };
+    }
+
     /**
      *  Initialize runtime internal properties
      */
@@ -386,6 +445,9 @@ private void initializeSelfProperties()
         /* initialize string interning (defaults to false) */
         stringInterning = getBoolean(RUNTIME_STRING_INTERNING, true);
 
+        /* initialize string canonicalization (defaults to false) */
+        stringTable = getBoolean(RUNTIME_STRING_CANONICALIZATION, false) ? new StringTable() : null;
+
         /* initialize indentation mode (defaults to 'lines') */
         String im = getString(SPACE_GOBBLING, "lines");
         try
@@ -1280,6 +1342,17 @@ private void initializeParserPool()
 
     }
 
+    /**
+     * Returns the parser pool, to query its metrics
+     *
+     * @return parser pool
+     * @since 2.4
+     */
+    public ParserPool getParserPool()
+    {
+        return parserPool;
+    }
+
     /**
      * Returns a JavaCC generated Parser.
      *
@@ -1365,6 +1438,7 @@ private void initializeScopeSettings()
                 if (enabled) enabledScopeControls.add(scope);
             }
         }
+        scopeAnalysis = getBoolean(CONTEXT_SCOPE_ANALYSIS, true);
     }
 
     /**
@@ -1479,6 +1553,7 @@ public boolean render(Context context, Writer writer,
             new InternalContextAdapterImpl(context);
 
         ica.pushCurrentTemplateName(logTag);
+        boolean provideScope = false;
 
         try
         {
@@ -1506,7 +1581,13 @@ public boolean render(Context context, Writer writer,
 
             try
             {
-                if (isScopeControlEnabled(evaluateScopeName))
+                /*
+                 * only provide the scope control if something can reference it
+                 */
+                provideScope = isScopeControlEnabled(evaluateScopeName)
+                    && (NodeUtils.mayReference(nodeTree, evaluateScopeName)
+                        || isReferencedByBlocks(evaluateScopeName));
+                if (provideScope)
                 {
                     Object previous = ica.get(evaluateScopeName);
                     context.put(evaluateScopeName, new Scope(this, previous));
@@ -1537,7 +1618,7 @@ public boolean render(Context context, Writer writer,
         finally
         {
             ica.popCurrentTemplateName();
-            if (isScopeControlEnabled(evaluateScopeName))
+            if (provideScope)
             {
                 Object obj = ica.get(evaluateScopeName);
                 if (obj instanceof Scope)
@@ -1982,6 +2063,53 @@ public boolean useStringInterning()
         return stringInterning;
     }
 
+    /**
+     * Returns the canonical instance of a template string
+     *
+     * @param str string
+     * @return canonical string, or the given string if canonicalization is disabled
+     * @since 2.4
+     */
+    @Override
+    public String canonicalize(String str)
+    {
+        return stringTable == null ? str : stringTable.canonicalize(str);
+    }
+
+    /**
+     * Returns the off-heap storage of the static texts of templates, owned by the resource manager
+     *
+     * @return text arena, or null if static texts are kept on the heap
+     * @since 2.4
+     */
+    @Override
+    public TextArena getTextArena()
+    {
+        return resourceManager == null ? null : resourceManager.getTextArena();
+    }
+
+    /**
+     * Get the approximate number of bytes saved by the canonicalization of template strings
+     *
+     * @return saved bytes, or 0 if canonicalization is disabled
+     * @since 2.4
+     */
+    public long getCanonicalizedBytesSaved()
+    {
+        return stringTable == null ? 0L : stringTable.getBytesSaved();
+    }
+
+    /**
+     * Get the number of macro definitions which reuse the body of an identical definition
+     *
+     * @return number of shared macro definitions
+     * @since 2.4
+     */
+    public long getSharedMacrosCount()
+    {
+        return vmFactory.getSharedMacrosCount();
+    }
+
     /**
      * get space gobbling mode
      * @return indentation mode
@@ -2014,6 +2142,36 @@ public boolean isScopeControlEnabled(String scopeName)
         return enabledScopeControls.contains(scopeName);
     }
 
+    /**
+     * Registers the references found in a block which can be rendered
+     * from another template location, like a #define block or
+     * the body of a block macro call.
+     * @param block block AST, once initialized
+     * @since 2.4
+     */
+    @Override
+    public void registerBlockReferences(Node block)
+    {
+        if (scopeAnalysis && !enabledScopeControls.isEmpty() && !unknownBlockReferences
+            && !NodeUtils.collectReferences(block, blockReferences))
+        {
+            unknownBlockReferences = true;
+        }
+    }
+
+    /**
+     * Get whether a registered block may reference the given name.
+     * @param name reference name
+     * @return true if a registered block may reference this name,
+     * or if the scope analysis is disabled
+     * @since 2.4
+     */
+    @Override
+    public boolean isReferencedByBlocks(String name)
+    {
+        return !scopeAnalysis || unknownBlockReferences || blockReferences.contains(name);
+    }
+
     @Override
     public ParserConfiguration getParserConfiguration()
     {
@@ -34,6 +34,7 @@
 import org.apache.velocity.runtime.parser.node.Node;
 import org.apache.velocity.runtime.parser.node.SimpleNode;
 import org.apache.velocity.runtime.resource.ContentResource;
+import org.apache.velocity.runtime.resource.TextArena;
 import org.apache.velocity.util.ExtProperties;
 import org.apache.velocity.util.introspection.Uberspect;
 import org.slf4j.Logger;
@@ -468,6 +469,22 @@ boolean addVelocimacro(String name,
      */
     boolean useStringInterning();
 
+    /**
+     * Get the canonical instance of a string held by template nodes, so that
+     * identical strings of distinct templates are only stored once
+     * @param str string
+     * @return canonical string, or the given string if canonicalization is disabled
+     * @since 2.4
+     */
+    String canonicalize(String str);
+
+    /**
+     * Get the off-heap storage of the static texts of templates, if enabled
+     * @return text arena, or null
+     * @since 2.4
+     */
+    TextArena getTextArena();
+
     /**
      * get space gobbling mode
      * @return space gobbling mode
@@ -489,6 +506,25 @@ boolean addVelocimacro(String name,
     */
    boolean isScopeControlEnabled(String scopeName);
 
+   /**
+    * Registers the references found in a block which can be rendered
+    * from another template location, like a #define block or
+    * the body of a block macro call, so that scope controls
+    * are still provided to it.
+    * @param block block AST, once initialized
+    * @since 2.4
+    */
+   void registerBlockReferences(Node block);
+
+   /**
+    * Get whether a registered block may reference the given name.
+    * @param name reference name
+    * @return true if a registered block may reference this name,
+    * or if the scope analysis is disabled
+    * @since 2.4
+    */
+   boolean isReferencedByBlocks(String name);
+
     /**
      * Get the replacement characters configured for this runtime service's parser
      * @return configured replacement characters
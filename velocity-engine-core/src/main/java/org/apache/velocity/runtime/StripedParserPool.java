@@ -0,0 +1,129 @@
+package org.apache.velocity.runtime;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.runtime.parser.CharStream;
+import org.apache.velocity.runtime.parser.Parser;
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Parser cache with one slot per stripe, the stripe being chosen from the id of
+ * the current thread. It can be used instead of {@link ParserPoolImpl} by setting
+ * <code>parser.pool.class</code>.</p>
+ * <p>Unlike a thread local cache, the number of cached parsers doesn't depend on the
+ * number of threads: it is meant for deployments using virtual threads, where
+ * at most one virtual thread per carrier thread is parsing at a given time. The
+ * number of stripes is given by <code>parser.pool.size</code>, and should be at least
+ * the number of carrier threads.</p>
+ * <p>When the slot of the current thread is empty, the neighbouring slot is tried
+ * before creating a new parser; parsers returned to full slots are dropped.</p>
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class StripedParserPool implements ParserPool
+{
+    private AtomicReferenceArray<Parser> slots;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private RuntimeServices rsvc;
+    private Logger log;
+
+    /**
+     * Create the stripes.
+     * @param rsvc
+     */
+    @Override
+    public void initialize(RuntimeServices rsvc)
+    {
+        this.rsvc = rsvc;
+        log = rsvc.getLog("parser");
+        int stripes = Math.max(1, rsvc.getInt(RuntimeConstants.PARSER_POOL_SIZE, RuntimeConstants.NUMBER_OF_PARSERS));
+        slots = new AtomicReferenceArray<>(stripes);
+        log.debug("Created '{}' parser stripes.", stripes);
+    }
+
+    /**
+     * @return slot of the current thread
+     */
+    private int slot()
+    {
+        long id = Thread.currentThread().getId();
+        return (int)((id ^ (id >>> 32)) & Integer.MAX_VALUE) % slots.length();
+    }
+
+    /**
+     * Takes the parser of the current thread stripe, or creates a new one.
+     * @return A parser Object.
+     */
+    @Override
+    public Parser get()
+    {
+        borrows.increment();
+        int slot = slot();
+        Parser parser = slots.getAndSet(slot, null);
+        if (parser == null && slots.length() > 1)
+        {
+            parser = slots.getAndSet((slot + 1) % slots.length(), null);
+        }
+        if (parser == null)
+        {
+            misses.increment();
+            parser = rsvc.createNewParser();
+        }
+        return parser;
+    }
+
+    /**
+     * Puts the parser back in the current thread stripe, if empty.
+     * @param parser
+     */
+    @Override
+    public void put(Parser parser)
+    {
+        parser.ReInit((CharStream) null);
+        int slot = slot();
+        if (!slots.compareAndSet(slot, null, parser) && slots.length() > 1)
+        {
+            slots.compareAndSet((slot + 1) % slots.length(), null, parser);
+        }
+    }
+
+    /**
+     * @return number of calls to {@link #get()}
+     */
+    public long getBorrowCount()
+    {
+        return borrows.sum();
+    }
+
+    /**
+     * @return number of calls to {@link #get()} which had to create a new parser
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+}
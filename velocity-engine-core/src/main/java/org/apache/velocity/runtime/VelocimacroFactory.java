@@ -34,6 +34,11 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *  VelocimacroFactory.java
@@ -97,6 +102,12 @@
      */
     private Map<String, Twonk> libModMap;
 
+    /**
+     *  macros defined by the library being loaded by the current thread,
+     *  when libraries are loaded concurrently
+     */
+    private final ThreadLocal<List<PendingMacro>> pendingMacros = new ThreadLocal<>();
+
     /**
      *  C'tor for the VelociMacro factory.
      *
@@ -183,49 +194,14 @@ else if (libfiles instanceof String)
                      macroLibVec.add((String)libfiles);
                  }
 
-                 for (String lib : macroLibVec)
+                 int parallelism = rsvc.getInt(RuntimeConstants.VM_LIBRARY_PARALLELISM, 1);
+                 if (parallelism > 1 && macroLibVec.size() > 1 && rsvc instanceof RuntimeInstance)
                  {
-                     /*
-                      * only if it's a non-empty string do we bother
-                      */
-
-                     if (StringUtils.isNotEmpty(lib))
-                     {
-                         /*
-                          *  let the VMManager know that the following is coming
-                          *  from libraries - need to know for auto-load
-                          */
-
-                         vmManager.setRegisterFromLib(true);
-
-                         log.debug("adding VMs from VM library: {}", lib);
-
-                         try
-                         {
-                             Template template = rsvc.getTemplate(lib);
-
-                             /*
-                              *  save the template.  This depends on the assumption
-                              *  that the Template object won't change - currently
-                              *  this is how the Resource manager works
-                              */
-
-                             Twonk twonk = new Twonk();
-                             twonk.template = template;
-                             twonk.modificationTime = template.getLastModified();
-                             libModMap.put(lib, twonk);
-                         }
-                         catch (Exception e)
-                         {
-                             String msg = "Velocimacro: Error using VM library: " + lib;
-                             log.error(msg, e);
-                             throw new VelocityException(msg, e, rsvc.getLogContext().getStackTrace());
-                         }
-
-                         log.trace("VM library registration complete.");
-
-                         vmManager.setRegisterFromLib(false);
-                     }
+                     loadLibrariesConcurrently(parallelism);
+                 }
+                 else
+                 {
+                     loadLibraries();
                  }
              }
 
@@ -316,10 +292,164 @@ else if (libfiles instanceof String)
                       "will not automatically reload global library macros");
             }
 
+            /*
+             *  sharing of identical definitions: default is off
+             */
+            vmManager.setShareDefinitions(rsvc.getBoolean(RuntimeConstants.VM_SHARE_DEFINITIONS, false));
+
             log.trace("Velocimacro: initialization complete.");
         }
     }
 
+    /**
+     * Loads the macro libraries one after the other.
+     */
+    private void loadLibraries()
+    {
+        for (String lib : macroLibVec)
+        {
+            /*
+             * only if it's a non-empty string do we bother
+             */
+
+            if (StringUtils.isNotEmpty(lib))
+            {
+                /*
+                 *  let the VMManager know that the following is coming
+                 *  from libraries - need to know for auto-load
+                 */
+
+                vmManager.setRegisterFromLib(true);
+
+                log.debug("adding VMs from VM library: {}", lib);
+
+                long start = System.nanoTime();
+                try
+                {
+                    Template template = rsvc.getTemplate(lib);
+
+                    /*
+                     *  save the template.  This depends on the assumption
+                     *  that the Template object won't change - currently
+                     *  this is how the Resource manager works
+                     */
+
+                    Twonk twonk = new Twonk();
+                    twonk.template = template;
+                    twonk.modificationTime = template.getLastModified();
+                    libModMap.put(lib, twonk);
+                }
+                catch (Exception e)
+                {
+                    String msg = "Velocimacro: Error using VM library: " + lib;
+                    log.error(msg, e);
+                    throw new VelocityException(msg, e, rsvc.getLogContext().getStackTrace());
+                }
+
+                log.debug("VM library {} loaded in {} ms", lib, (System.nanoTime() - start) / 1000000);
+                log.trace("VM library registration complete.");
+
+                vmManager.setRegisterFromLib(false);
+            }
+        }
+    }
+
+    /**
+     * Loads and parses the macro libraries concurrently, then registers their macros
+     * in the libraries order, so that the precedence rules are the same as for
+     * {@link #loadLibraries()}. Macro calls are resolved at render time, so libraries
+     * can still call each other's macros, but since macros are only registered once
+     * all libraries are parsed, a library cannot escape the macros of another one
+     * (<code>\#othermacro</code> renders as is), while it can escape its own ones.
+     * @param parallelism maximum number of loading threads
+     */
+    private void loadLibrariesConcurrently(int parallelism)
+    {
+        List<String> libs = new ArrayList<>();
+        for (String lib : macroLibVec)
+        {
+            if (StringUtils.isNotEmpty(lib))
+            {
+                libs.add(lib);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, libs.size()), r ->
+        {
+            Thread thread = new Thread(r, "velocity-macro-library-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try
+        {
+            List<Future<LibraryMacros>> futures = new ArrayList<>(libs.size());
+            for (String lib : libs)
+            {
+                log.debug("adding VMs from VM library: {}", lib);
+                futures.add(executor.submit(((RuntimeInstance)rsvc).initHelperTask(() -> loadLibrary(lib))));
+            }
+            for (int i = 0; i < libs.size(); ++i)
+            {
+                String lib = libs.get(i);
+                LibraryMacros library;
+                try
+                {
+                    library = futures.get(i).get();
+                }
+                catch (InterruptedException ie)
+                {
+                    Thread.currentThread().interrupt();
+                    String msg = "Velocimacro: interrupted while loading VM library: " + lib;
+                    log.error(msg, ie);
+                    throw new VelocityException(msg, ie, rsvc.getLogContext().getStackTrace());
+                }
+                catch (ExecutionException ee)
+                {
+                    String msg = "Velocimacro: Error using VM library: " + lib;
+                    log.error(msg, ee.getCause());
+                    throw new VelocityException(msg, ee.getCause(), rsvc.getLogContext().getStackTrace());
+                }
+
+                vmManager.setRegisterFromLib(true);
+                for (PendingMacro macro : library.macros)
+                {
+                    addVelocimacro(macro.name, macro.body, macro.args, macro.template);
+                }
+                Twonk twonk = new Twonk();
+                twonk.template = library.template;
+                twonk.modificationTime = library.template.getLastModified();
+                libModMap.put(lib, twonk);
+                log.debug("VM library {} loaded in {} ms", lib, library.millis);
+                log.trace("VM library registration complete.");
+                vmManager.setRegisterFromLib(false);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads and parses a macro library, keeping aside the macros it defines.
+     * @param lib library name
+     * @return the library template and macros
+     */
+    private LibraryMacros loadLibrary(String lib)
+    {
+        long start = System.nanoTime();
+        List<PendingMacro> macros = new ArrayList<>();
+        pendingMacros.set(macros);
+        try
+        {
+            return new LibraryMacros(rsvc.getTemplate(lib), macros, (System.nanoTime() - start) / 1000000);
+        }
+        finally
+        {
+            pendingMacros.remove();
+        }
+    }
+
     /**
      * Adds a macro to the factory.
      *
@@ -369,6 +499,17 @@ else if (macroArgs == null)
             throw new NullPointerException(msg);
         }
 
+        /*
+         *  macros of libraries loaded concurrently are registered afterwards
+         */
+
+        List<PendingMacro> pending = pendingMacros.get();
+        if (pending != null)
+        {
+            pending.add(new PendingMacro(name, macroBody, macroArgs, definingTemplate));
+            return true;
+        }
+
         /*
          *  see if the current ruleset allows this addition
          */
@@ -448,6 +589,16 @@ private synchronized boolean canAddVelocimacro(String name, Template definingTem
         return true;
     }
 
+    /**
+     * Get the number of macro definitions which reuse the body of an identical definition
+     * @return number of shared macro definitions
+     * @since 2.4
+     */
+    public long getSharedMacrosCount()
+    {
+        return vmManager.getSharedCount();
+    }
+
     /**
      * Tells the world if a given directive string is a Velocimacro
      * @param vm Name of the Macro.
@@ -629,6 +780,42 @@ private boolean getAutoload()
         /** modification time of the template. */
         public long modificationTime;
     }
+
+    /**
+     * macro definition waiting for its registration
+     */
+    private static class PendingMacro
+    {
+        final String name;
+        final Node body;
+        final List<Macro.MacroArg> args;
+        final Template template;
+
+        PendingMacro(String name, Node body, List<Macro.MacroArg> args, Template template)
+        {
+            this.name = name;
+            this.body = body;
+            this.args = args;
+            this.template = template;
+        }
+    }
+
+    /**
+     * library loaded concurrently, along with its macros
+     */
+    private static class LibraryMacros
+    {
+        final Template template;
+        final List<PendingMacro> macros;
+        final long millis;
+
+        LibraryMacros(Template template, List<PendingMacro> macros, long millis)
+        {
+            this.template = template;
+            this.macros = macros;
+            this.millis = millis;
+        }
+    }
 }
 
 
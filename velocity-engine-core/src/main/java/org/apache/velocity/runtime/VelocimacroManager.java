@@ -26,9 +26,12 @@
 import org.apache.velocity.runtime.parser.node.Node;
 import org.apache.velocity.runtime.parser.node.SimpleNode;
 
+import java.lang.ref.WeakReference;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Manages VMs in namespaces.  Currently, two namespace modes are
@@ -66,6 +69,14 @@
     private boolean inlineLocalMode = false;
     private boolean inlineReplacesGlobal = false;
 
+    /*
+     * proxies of identical macro definitions, by definition key. Keys are weakly
+     * referenced, and remain reachable from the proxy through the definition node
+     */
+    private boolean shareDefinitions = false;
+    private final Map<String, WeakReference<VelocimacroProxy>> sharedDefinitions = new WeakHashMap<>();
+    private final LongAdder sharedCount = new LongAdder();
+
     /**
      * Adds the global namespace to the hash.
      */
@@ -102,7 +113,7 @@ public boolean addVM(final String vmName, final Node macroBody, List<Macro.Macro
             throw new VelocityException("Null AST for "+vmName+" in " + definingTemplate.getName());
         }
 
-        MacroEntry me = new MacroEntry(vmName, macroBody, macroArgs, definingTemplate.getName(), rsvc);
+        MacroEntry me = new MacroEntry(getProxy(vmName, macroBody, macroArgs), definingTemplate.getName());
 
         me.setFromLibrary(registerFromLib);
 
@@ -161,6 +172,56 @@ public boolean addVM(final String vmName, final Node macroBody, List<Macro.Macro
         return true;
     }
 
+    /**
+     * Creates the proxy of a macro, or returns the proxy of an identical definition
+     * if definitions are shared. The body of the shared proxy then replaces the given
+     * one in the defining template.
+     * @param vmName macro name
+     * @param macroBody macro body
+     * @param macroArgs macro arguments
+     * @return macro proxy
+     */
+    private VelocimacroProxy getProxy(String vmName, Node macroBody, List<Macro.MacroArg> macroArgs)
+    {
+        String definition = shareDefinitions ? Macro.getDefinition(macroBody) : null;
+        if (definition != null)
+        {
+            synchronized (sharedDefinitions)
+            {
+                WeakReference<VelocimacroProxy> ref = sharedDefinitions.get(definition);
+                VelocimacroProxy shared = ref == null ? null : ref.get();
+                if (shared != null)
+                {
+                    Node parent = macroBody.jjtGetParent();
+                    parent.jjtAddChild(shared.getNodeTree(), parent.jjtGetNumChildren() - 1);
+                    sharedCount.increment();
+                    return shared;
+                }
+                VelocimacroProxy vp = createProxy(vmName, macroBody, macroArgs);
+                sharedDefinitions.put(definition, new WeakReference<>(vp));
+                return vp;
+            }
+        }
+        return createProxy(vmName, macroBody, macroArgs);
+    }
+
+    /**
+     * @param vmName macro name
+     * @param macroBody macro body
+     * @param macroArgs macro arguments
+     * @return new macro proxy
+     */
+    private VelocimacroProxy createProxy(String vmName, Node macroBody, List<Macro.MacroArg> macroArgs)
+    {
+        VelocimacroProxy vp = new VelocimacroProxy();
+        vp.init(rsvc);
+        vp.setName(vmName);
+        vp.setMacroArgs(macroArgs);
+        vp.setNodeTree((SimpleNode)macroBody);
+        vp.setLocation(macroBody.getLine(), macroBody.getColumn(), macroBody.getTemplate());
+        return vp;
+    }
+
     /**
      * Gets a VelocimacroProxy object by the name / source template duple.
      *
@@ -300,6 +361,47 @@ public void setInlineReplacesGlobal(boolean is)
         inlineReplacesGlobal = is;
     }
 
+    /**
+     * Should identical macro definitions share a single proxy and body?
+     * @param share True if identical definitions should be shared
+     * @since 2.4
+     */
+    public void setShareDefinitions(boolean share)
+    {
+        shareDefinitions = share;
+    }
+
+    /**
+     * @return number of macro definitions which reused the proxy of an identical definition
+     * @since 2.4
+     */
+    public long getSharedCount()
+    {
+        return sharedCount.sum();
+    }
+
+    /**
+     * Copies the macros of a template to a newer version of it, which reuses their definitions.
+     * The macros defined by the previous version are copied, so that it is left untouched.
+     * @param from previous version of the template
+     * @param to new version of the template
+     * @since 2.4
+     */
+    public static void copyMacros(Template from, Template to)
+    {
+        for (Map.Entry<String, Object> macro : from.getMacros().entrySet())
+        {
+            MacroEntry entry = (MacroEntry)macro.getValue();
+            VelocimacroProxy vp = entry.getProxy();
+            if (vp.getTemplate() == from)
+            {
+                MacroEntry copy = new MacroEntry(vp.copy(to), entry.getSourceTemplate());
+                copy.setFromLibrary(entry.getFromLibrary());
+                entry = copy;
+            }
+            to.getMacros().put(macro.getKey(), entry);
+        }
+    }
 
     /**
      *  wrapper class for holding VM information
@@ -308,20 +410,12 @@ public void setInlineReplacesGlobal(boolean is)
     {
         private final String sourceTemplate;
         private boolean fromLibrary = false;
-        private VelocimacroProxy vp;
+        private final VelocimacroProxy vp;
 
-        private MacroEntry(final String vmName, final Node macro,
-                   List<Macro.MacroArg> macroArgs, final String sourceTemplate,
-                   RuntimeServices rsvc)
+        private MacroEntry(final VelocimacroProxy vp, final String sourceTemplate)
         {
             this.sourceTemplate = sourceTemplate;
-
-            vp = new VelocimacroProxy();
-            vp.init(rsvc);
-            vp.setName(vmName);
-            vp.setMacroArgs(macroArgs);
-            vp.setNodeTree((SimpleNode)macro);
-            vp.setLocation(macro.getLine(), macro.getColumn(), macro.getTemplate());
+            this.vp = vp;
         }
 
         /**
@@ -78,6 +78,13 @@ public void init(RuntimeServices rs, InternalContextAdapter context, Node node)
          * that it's the block!
          */
         block = node.jjtGetChild(node.jjtGetNumChildren() - 1);
+
+        /*
+         * the block can be rendered from anywhere through its reference,
+         * so the scope controls it references must always be provided
+         */
+        rsvc.registerBlockReferences(block);
+        checkScopeReferences(block);
     }
 
     /**
@@ -71,6 +71,17 @@ public boolean isScopeProvided()
         return false;
     }
 
+    /**
+     * Breaking does not render anything.
+     * @return true
+     * @since 2.4
+     */
+    @Override
+    public boolean rendersKnownCode()
+    {
+        return true;
+    }
+
     @Override
     public void init(RuntimeServices rs, InternalContextAdapter context, Node node)
     {
@@ -85,6 +85,17 @@ public void init(RuntimeServices rs, InternalContextAdapter context, Node node)
         maxDepth = rsvc.getInt(RuntimeConstants.DEFINE_DIRECTIVE_MAXDEPTH, 2);
     }
 
+    /**
+     * Defining a block does not render it.
+     * @return true
+     * @since 2.4
+     */
+    @Override
+    public boolean rendersKnownCode()
+    {
+        return true;
+    }
+
     /**
      * directive.render() simply makes an instance of the Block inner class
      * and places it into the context as indicated.
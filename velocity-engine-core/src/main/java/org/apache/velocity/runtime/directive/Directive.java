@@ -29,6 +29,7 @@
 import org.apache.velocity.runtime.parser.ParseException;
 import org.apache.velocity.runtime.parser.Token;
 import org.apache.velocity.runtime.parser.node.Node;
+import org.apache.velocity.runtime.parser.node.NodeUtils;
 
 import org.slf4j.Logger;
 
@@ -48,6 +49,7 @@ public abstract class Directive implements DirectiveConstants, Cloneable
     private int line = 0;
     private int column = 0;
     private boolean provideScope = false;
+    private boolean scopeReferenced = true;
     private Template template;
 
     protected Logger log = null;
@@ -146,6 +148,31 @@ public boolean isScopeProvided()
         return provideScope;
     }
 
+    /**
+     * @return false if the content of this directive was found not to
+     * reference its scope control, in which case the scope control is
+     * only provided if some #define or macro body block may reference it.
+     * @since 2.4
+     */
+    public boolean isScopeReferenced()
+    {
+        return scopeReferenced;
+    }
+
+    /**
+     * Whether rendering this directive only renders the code of its own
+     * node children, so that the references it evaluates can be known at
+     * init time by looking at its AST. This is false by default, and should
+     * only be overridden by directives which never render other templates,
+     * macros or dynamic content.
+     * @return true if the rendered code is known at init time
+     * @since 2.4
+     */
+    public boolean rendersKnownCode()
+    {
+        return false;
+    }
+
     /**
      * How this directive is to be initialized.
      * @param rs
@@ -163,6 +190,26 @@ public void init( RuntimeServices rs, InternalContextAdapter context,
         provideScope = rsvc.isScopeControlEnabled(getScopeName());
     }
 
+    /**
+     * Checks at init time whether the given content can reference the scope
+     * control of this directive. To be called by directives providing a scope,
+     * once their content nodes have been initialized.
+     * @param contents ASTs rendered within the scope of this directive
+     * @since 2.4
+     */
+    protected void checkScopeReferences(Node... contents)
+    {
+        if (provideScope)
+        {
+            boolean referenced = false;
+            for (int i = 0; i < contents.length && !referenced; ++i)
+            {
+                referenced = NodeUtils.mayReference(contents[i], getScopeName());
+            }
+            scopeReferenced = referenced;
+        }
+    }
+
     /**
      * The Parser calls this method during template parsing to check the arguments
      * types.  Be aware that this method is called pre init, so not all data
@@ -199,22 +246,39 @@ public abstract boolean render( InternalContextAdapter context,
 
     /**
      * This creates and places the scope control for this directive
-     * into the context (if scope provision is turned on).
+     * into the context (if scope provision is turned on and the
+     * scope control can be referenced).
      * @param context
      */
     protected void preRender(InternalContextAdapter context)
+    {
+        preRender(context, scopeReferenced);
+    }
+
+    /**
+     * This creates and places the scope control for this directive
+     * into the context (if scope provision is turned on), for
+     * directives whose rendered content is only known at render time.
+     * @param context
+     * @param referenced whether the rendered content can reference the scope control
+     * @since 2.4
+     */
+    protected void preRender(InternalContextAdapter context, boolean referenced)
     {
         if (isScopeProvided())
         {
             String name = getScopeName();
-            Object previous = context.get(name);
-            context.put(name, makeScope(previous));
+            if (referenced || rsvc.isReferencedByBlocks(name))
+            {
+                Object previous = context.get(name);
+                context.put(name, makeScope(previous));
+            }
         }
     }
 
     /**
      * @param prev
-     * @return scope
+     * @return scope, which must be owned by this directive
      */
     protected Scope makeScope(Object prev)
     {
@@ -233,6 +297,13 @@ protected void postRender(InternalContextAdapter context)
             String name = getScopeName();
             Object obj = context.get(name);
 
+            // only clean up a scope control we did put into the context, since
+            // it is skipped whenever nothing could reference it
+            if (!(obj instanceof Scope) || ((Scope)obj).owner != this)
+            {
+                return;
+            }
+
             try
             {
                 Scope scope = (Scope)obj;
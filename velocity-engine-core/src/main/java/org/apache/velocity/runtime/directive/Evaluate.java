@@ -28,6 +28,7 @@
 import org.apache.velocity.runtime.RuntimeServices;
 import org.apache.velocity.runtime.parser.ParseException;
 import org.apache.velocity.runtime.parser.node.Node;
+import org.apache.velocity.runtime.parser.node.NodeUtils;
 import org.apache.velocity.runtime.parser.node.ParserTreeConstants;
 import org.apache.velocity.runtime.parser.node.SimpleNode;
 import org.apache.velocity.util.introspection.Info;
@@ -205,7 +206,7 @@ public boolean render(InternalContextAdapter context, Writer writer,
 
                 try
                 {
-                    preRender(context);
+                    preRender(context, NodeUtils.mayReference(nodeTree, getScopeName()));
 
                     /*
                      *  now render, and let any exceptions fly
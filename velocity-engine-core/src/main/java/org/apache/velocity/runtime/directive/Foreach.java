@@ -33,6 +33,7 @@
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.Writer;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Iterator;
 
@@ -67,6 +68,15 @@ public int getType()
         return BLOCK;
     }
 
+    /*
+     * Iterable kinds
+     */
+    private static final int ITERATOR = 0;
+    private static final int RANGE = 1;
+    private static final int OBJECT_ARRAY = 2;
+    private static final int INT_ARRAY = 3;
+    private static final int PRIMITIVE_ARRAY = 4;
+
     /**
      * The maximum number of times we're allowed to loop.
      */
@@ -148,6 +158,22 @@ public void init(RuntimeServices rs, InternalContextAdapter context, Node node)
 
         uberInfo = new Info(this.getTemplateName(),
                 getLine(),getColumn());
+
+        /*
+         * skip the scope control if the loop content never references it
+         */
+        checkScopeReferences(node);
+    }
+
+    /**
+     * The loop only renders its own content.
+     * @return true
+     * @since 2.4
+     */
+    @Override
+    public boolean rendersKnownCode()
+    {
+        return true;
     }
 
     /**
@@ -209,6 +235,38 @@ protected Iterator getIterator(Object iterable, Node node)
         return i;
     }
 
+    /**
+     * @return the maximum number of loops
+     * @since 2.4
+     */
+    protected int getMaxNbrLoops()
+    {
+        return maxNbrLoops;
+    }
+
+    /**
+     * @return the name of the loop variable
+     * @since 2.4
+     */
+    protected String getElementKey()
+    {
+        return elementKey;
+    }
+
+    /**
+     * Get the block ast tree of the loop, which is always the last child,
+     * except if there is an #else clause.
+     * @param node
+     * @return loop block node
+     * @since 2.4
+     */
+    protected Node getBlock(Node node)
+    {
+        Node block = node.jjtGetChild(node.jjtGetNumChildren()-1);
+        Node previous = node.jjtGetChild(node.jjtGetNumChildren()-2);
+        return previous instanceof ASTBlock ? previous : block;
+    }
+
     /**
      *  renders the #foreach() block
      * @param context
@@ -220,6 +278,23 @@ protected Iterator getIterator(Object iterable, Node node)
     @Override
     public boolean render(InternalContextAdapter context, Writer writer, Node node)
         throws IOException
+    {
+        Node iterableNode = node.jjtGetChild(2);
+        return render(context, writer, node, iterableNode.value(context));
+    }
+
+    /**
+     * renders the #foreach() block over an already evaluated iterable
+     * @param context
+     * @param writer
+     * @param node
+     * @param iterable
+     * @return True if the directive rendered successfully.
+     * @throws IOException
+     * @since 2.4
+     */
+    protected boolean render(InternalContextAdapter context, Writer writer, Node node, Object iterable)
+        throws IOException
     {
         // Get the block ast tree which is always the last child ...
         Node block = node.jjtGetChild(node.jjtGetNumChildren()-1);
@@ -234,9 +309,29 @@ public boolean render(InternalContextAdapter context, Writer writer, Node node)
         }
 
         Node iterableNode = node.jjtGetChild(2);
-        Object iterable = iterableNode.value(context);
-        Iterator i = getIterator(iterable, iterableNode);
-        if (i == null || !i.hasNext())
+
+        /*
+         * integer ranges and arrays are iterated by index,
+         * other iterables through their iterator
+         */
+        int kind = getIterableKind(iterable);
+        int size = -1;
+        Iterator i = null;
+        switch (kind)
+        {
+            case RANGE:
+                size = ((ASTIntegerRange.IntegerRange)iterable).size();
+                break;
+            case OBJECT_ARRAY:
+            case INT_ARRAY:
+            case PRIMITIVE_ARRAY:
+                size = Array.getLength(iterable);
+                break;
+            default:
+                i = getIterator(iterable, iterableNode);
+                break;
+        }
+        if (kind == ITERATOR ? i == null || !i.hasNext() : size == 0)
         {
             if (elseBlock != null)
             {
@@ -251,45 +346,85 @@ public boolean render(InternalContextAdapter context, Writer writer, Node node)
         Object o = context.get(elementKey);
 
         /*
-         * roll our own scope class instead of using preRender(ctx)'s
+         * roll our own scope class instead of using preRender(ctx)'s,
+         * and only when something can reference it
          */
         ForeachScope foreach = null;
         if (isScopeProvided())
         {
             String name = getScopeName();
-            foreach = new ForeachScope(this, context.get(name));
-            context.put(name, foreach);
+            if (isScopeReferenced() || rsvc.isReferencedByBlocks(name))
+            {
+                foreach = new ForeachScope(this, context.get(name));
+                context.put(name, foreach);
+            }
         }
 
-        int count = 1;
-        while (count <= maxNbrLoops && i.hasNext())
+        int count = Math.min(size, maxNbrLoops);
+        switch (kind)
         {
-            count++;
-
-            put(context, elementKey, i.next());
-            if (isScopeProvided())
+            case RANGE:
             {
-                // update the scope control
-                foreach.index++;
-                foreach.hasNext = i.hasNext();
+                ASTIntegerRange.IntegerRange range = (ASTIntegerRange.IntegerRange)iterable;
+                int value = range.getLeft();
+                int delta = range.getDelta();
+                for (int index = 0; index < count; ++index, value += delta)
+                {
+                    if (!renderItem(context, writer, block, foreach, ASTIntegerRange.IntegerRange.box(value), index + 1 < size, o))
+                    {
+                        break;
+                    }
+                }
+                break;
             }
-
-            try
+            case OBJECT_ARRAY:
             {
-                renderBlock(context, writer, block);
+                Object[] array = (Object[])iterable;
+                for (int index = 0; index < count; ++index)
+                {
+                    if (!renderItem(context, writer, block, foreach, array[index], index + 1 < size, o))
+                    {
+                        break;
+                    }
+                }
+                break;
             }
-            catch (StopCommand stop)
+            case INT_ARRAY:
             {
-                if (stop.isFor(this))
+                int[] array = (int[])iterable;
+                for (int index = 0; index < count; ++index)
                 {
-                    break;
+                    if (!renderItem(context, writer, block, foreach, ASTIntegerRange.IntegerRange.box(array[index]), index + 1 < size, o))
+                    {
+                        break;
+                    }
                 }
-                else
+                break;
+            }
+            case PRIMITIVE_ARRAY:
+            {
+                for (int index = 0; index < count; ++index)
                 {
-                    // clean up first
-                    clean(context, o);
-                    throw stop;
+                    if (!renderItem(context, writer, block, foreach, Array.get(iterable, index), index + 1 < size, o))
+                    {
+                        break;
+                    }
                 }
+                break;
+            }
+            default:
+            {
+                count = 1;
+                while (count <= maxNbrLoops && i.hasNext())
+                {
+                    count++;
+                    /* arguments are evaluated in order: hasNext() is called after next() */
+                    if (!renderItem(context, writer, block, foreach, i.next(), i.hasNext(), o))
+                    {
+                        break;
+                    }
+                }
+                break;
             }
         }
         clean(context, o);
@@ -303,6 +438,78 @@ public boolean render(InternalContextAdapter context, Writer writer, Node node)
         return true;
     }
 
+    /**
+     * Returns how the given iterable will be looped over: integer ranges and arrays
+     * are iterated by index, without any Iterator, everything else goes through
+     * {@link #getIterator(Object, Node)}.
+     * @param iterable
+     * @return iterable kind
+     */
+    private static int getIterableKind(Object iterable)
+    {
+        if (iterable instanceof ASTIntegerRange.IntegerRange)
+        {
+            return RANGE;
+        }
+        else if (iterable instanceof Object[])
+        {
+            return OBJECT_ARRAY;
+        }
+        else if (iterable instanceof int[])
+        {
+            return INT_ARRAY;
+        }
+        else if (iterable != null && iterable.getClass().isArray())
+        {
+            return PRIMITIVE_ARRAY;
+        }
+        return ITERATOR;
+    }
+
+    /**
+     * Renders the block for one item
+     * @param context
+     * @param writer
+     * @param block
+     * @param foreach scope control, if provided
+     * @param value current item
+     * @param hasNext whether there is an item after this one
+     * @param saved previous value of the element key
+     * @return false if the loop has been stopped by a #break
+     * @throws IOException
+     */
+    private boolean renderItem(InternalContextAdapter context, Writer writer, Node block,
+                               ForeachScope foreach, Object value, boolean hasNext, Object saved)
+        throws IOException
+    {
+        put(context, elementKey, value);
+        if (foreach != null)
+        {
+            // update the scope control
+            foreach.index++;
+            foreach.hasNext = hasNext;
+        }
+
+        try
+        {
+            renderBlock(context, writer, block);
+        }
+        catch (StopCommand stop)
+        {
+            if (stop.isFor(this))
+            {
+                return false;
+            }
+            else
+            {
+                // clean up first
+                clean(context, saved);
+                throw stop;
+            }
+        }
+        return true;
+    }
+
     protected void renderBlock(InternalContextAdapter context, Writer writer, Node block)
         throws IOException
     {
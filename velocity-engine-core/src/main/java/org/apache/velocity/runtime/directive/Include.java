@@ -29,7 +29,7 @@
 import org.apache.velocity.runtime.RuntimeServices;
 import org.apache.velocity.runtime.parser.node.Node;
 import org.apache.velocity.runtime.parser.node.ParserTreeConstants;
-import org.apache.velocity.runtime.resource.Resource;
+import org.apache.velocity.runtime.resource.ContentResource;
 import org.apache.velocity.util.StringUtils;
 
 import java.io.IOException;
@@ -105,6 +105,17 @@ public boolean isScopeProvided()
         return false;
     }
 
+    /**
+     * Included content is never rendered as template code.
+     * @return true
+     * @since 2.4
+     */
+    @Override
+    public boolean rendersKnownCode()
+    {
+        return true;
+    }
+
     /**
      *  simple init - init the tree and get the elementKey from
      *  the AST
@@ -235,7 +246,7 @@ private boolean renderOutput( Node node, InternalContextAdapter context,
         if (arg == null)
             blockinput = true;
 
-        Resource resource = null;
+        ContentResource resource = null;
 
         try
         {
@@ -281,7 +292,7 @@ private boolean renderOutput( Node node, InternalContextAdapter context,
         else if ( resource == null )
             return false;
 
-        writer.write((String)resource.getData());
+        resource.writeTo(writer);
         return true;
     }
 
@@ -24,6 +24,7 @@
 import org.apache.velocity.runtime.RuntimeServices;
 import org.apache.velocity.runtime.parser.ParseException;
 import org.apache.velocity.runtime.parser.Token;
+import org.apache.velocity.runtime.parser.node.ASTDirective;
 import org.apache.velocity.runtime.parser.node.Node;
 import org.apache.velocity.runtime.parser.node.ParserTreeConstants;
 
@@ -54,6 +55,11 @@ public class Macro extends Directive
 {
     private static  boolean debugMode = false;
 
+    /**
+     * Structural key of this macro definition, or null if it cannot be shared
+     */
+    private String definition = null;
+
     /**
      * Return name of this directive.
      * @return The name of this directive.
@@ -84,6 +90,17 @@ public boolean isScopeProvided()
         return false;
     }
 
+    /**
+     * A macro definition does not render anything.
+     * @return true
+     * @since 2.4
+     */
+    @Override
+    public boolean rendersKnownCode()
+    {
+        return true;
+    }
+
     /**
      *   render() doesn't do anything in the final output rendering.
      *   There is no output from a #macro() directive.
@@ -115,14 +132,107 @@ public void init(RuntimeServices rs, InternalContextAdapter context,
     {
         super.init(rs, context, node);
 
+        // tokens of the definition are still available at this point
+        int numArgs = node.jjtGetNumChildren();
+        if (!callsMacros(node.jjtGetChild(numArgs - 1)))
+        {
+            definition = getDefinitionKey(node);
+        }
 
         // Add this macro to the VelocimacroManager now that it has been initialized.
         List<MacroArg> macroArgs = getArgArray(node, rsvc);
-        int numArgs = node.jjtGetNumChildren();
         rsvc.addVelocimacro(macroArgs.get(0).name, node.jjtGetChild(numArgs - 1),
             macroArgs, node.getTemplate());
     }
 
+    /**
+     * Returns the structural key of the macro definition owning the given body:
+     * identical definitions, as far as tokens and tree structure are concerned,
+     * have equal keys. Bodies calling other macros have no key, since the called
+     * macros are looked up in the namespace of the defining template.
+     * @param body macro body
+     * @return definition key, or null
+     * @since 2.4
+     */
+    public static String getDefinition(Node body)
+    {
+        Node parent = body.jjtGetParent();
+        if (parent instanceof ASTDirective)
+        {
+            Directive directive = ((ASTDirective)parent).getDirective();
+            if (directive instanceof Macro)
+            {
+                return ((Macro)directive).definition;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param node macro definition node, with its tokens
+     * @return token images of the definition, followed by its tree structure
+     */
+    private static String getDefinitionKey(Node node)
+    {
+        Token t = node.getFirstToken();
+        Token last = node.getLastToken();
+        if (t == null || last == null)
+        {
+            return null;
+        }
+        StringBuilder key = new StringBuilder();
+        while (true)
+        {
+            key.append(t.image).append('\u0000');
+            if (t == last || t.next == null)
+            {
+                break;
+            }
+            t = t.next;
+        }
+        appendStructure(key, node);
+        return key.toString();
+    }
+
+    /**
+     * @param key key builder
+     * @param node node
+     */
+    private static void appendStructure(StringBuilder key, Node node)
+    {
+        int count = node.jjtGetNumChildren();
+        key.append(node.getType()).append(':').append(count).append(',');
+        for (int i = 0; i < count; ++i)
+        {
+            appendStructure(key, node.jjtGetChild(i));
+        }
+    }
+
+    /**
+     * @param node initialized node
+     * @return whether the node contains a macro call
+     */
+    private static boolean callsMacros(Node node)
+    {
+        if (node instanceof ASTDirective)
+        {
+            Directive directive = ((ASTDirective)node).getDirective();
+            if (directive instanceof RuntimeMacro || directive instanceof BlockMacro)
+            {
+                return true;
+            }
+        }
+        int count = node.jjtGetNumChildren();
+        for (int i = 0; i < count; ++i)
+        {
+            if (callsMacros(node.jjtGetChild(i)))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Check the argument types of a macro call, called by the parser to do validation
      */
@@ -0,0 +1,335 @@
+package org.apache.velocity.runtime.directive;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.context.InternalContextAdapter;
+import org.apache.velocity.context.InternalContextAdapterImpl;
+import org.apache.velocity.exception.TemplateInitException;
+import org.apache.velocity.exception.VelocityException;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeServices;
+import org.apache.velocity.runtime.parser.node.ASTDirective;
+import org.apache.velocity.runtime.parser.node.ASTIntegerRange;
+import org.apache.velocity.runtime.parser.node.ASTSetDirective;
+import org.apache.velocity.runtime.parser.node.Node;
+import org.apache.velocity.util.StringUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parallel variant of the #foreach directive:
+ * <pre>
+ * #parallelforeach( $row in $rows ) ... #end
+ * </pre>
+ * <p>Integer ranges, arrays and random access lists are split into chunks of items
+ * (see {@link RuntimeConstants#PARALLEL_FOREACH_CHUNK_SIZE}). Each chunk is rendered on
+ * the common fork-join pool into its own buffer, with a child context, and the buffers
+ * are then written in order.</p>
+ * <p>The loop body must not have any side effect on the context: bodies containing a #set,
+ * a #define, a #break, a #stop, a macro call or any directive rendering other content
+ * (like #parse or #evaluate) are always rendered sequentially, as are other iterables
+ * and loops shorter than two chunks. Methods called by the body, as well as the attached
+ * event handlers, have to be thread-safe.</p>
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class ParallelForeach extends Foreach
+{
+    /**
+     * Number of items rendered by each task
+     */
+    private int chunkSize;
+
+    /**
+     * Whether the loop body can be rendered concurrently
+     */
+    private boolean parallelizable;
+
+    /**
+     * Return name of this directive.
+     * @return The name of this directive.
+     */
+    @Override
+    public String getName()
+    {
+        return "parallelforeach";
+    }
+
+    /**
+     * Use the same scope control as #foreach.
+     * @return "foreach"
+     */
+    @Override
+    public String getScopeName()
+    {
+        return "foreach";
+    }
+
+    /**
+     *  init the tree and check whether the loop body can be rendered concurrently
+     * @param rs
+     * @param context
+     * @param node
+     * @throws TemplateInitException
+     */
+    @Override
+    public void init(RuntimeServices rs, InternalContextAdapter context, Node node)
+        throws TemplateInitException
+    {
+        super.init(rs, context, node);
+
+        chunkSize = rsvc.getInt(RuntimeConstants.PARALLEL_FOREACH_CHUNK_SIZE, 1000);
+        if (chunkSize < 1)
+        {
+            chunkSize = 1000;
+        }
+
+        parallelizable = isSideEffectFree(getBlock(node));
+        if (!parallelizable)
+        {
+            log.debug("#{} at {} will be rendered sequentially since its body may have side effects",
+                      getName(), StringUtils.formatFileString(this));
+        }
+    }
+
+    /**
+     * Checks that rendering the given node cannot modify the context,
+     * nor interrupt the loop.
+     * @param node
+     * @return true if the node is free of side effects
+     */
+    private static boolean isSideEffectFree(Node node)
+    {
+        if (node instanceof ASTSetDirective)
+        {
+            return false;
+        }
+        else if (node instanceof ASTDirective)
+        {
+            Directive directive = ((ASTDirective)node).getDirective();
+            if (directive != null && (!directive.rendersKnownCode() || directive instanceof Define
+                || directive instanceof Break || directive instanceof Stop))
+            {
+                return false;
+            }
+        }
+        int count = node.jjtGetNumChildren();
+        for (int i = 0; i < count; ++i)
+        {
+            if (!isSideEffectFree(node.jjtGetChild(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * renders the loop chunks concurrently, when possible
+     * @param context
+     * @param writer
+     * @param node
+     * @param iterable
+     * @return True if the directive rendered successfully.
+     * @throws IOException
+     */
+    @Override
+    protected boolean render(InternalContextAdapter context, Writer writer, Node node, Object iterable)
+        throws IOException
+    {
+        int size = parallelizable ? getSize(iterable) : -1;
+        int count = Math.min(size, getMaxNbrLoops());
+        if (count < 2 * chunkSize)
+        {
+            return super.render(context, writer, node, iterable);
+        }
+
+        Node block = getBlock(node);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        List<ForkJoinTask<String>> chunks = new ArrayList<>((count + chunkSize - 1) / chunkSize);
+        for (int start = 0; start < count; start += chunkSize)
+        {
+            int from = start;
+            int to = Math.min(start + chunkSize, count);
+            chunks.add(pool.submit(() -> renderChunk(context, block, iterable, from, to, size)));
+        }
+
+        try
+        {
+            for (ForkJoinTask<String> chunk : chunks)
+            {
+                writer.write(join(chunk));
+            }
+        }
+        finally
+        {
+            // no-op for the chunks already done
+            for (ForkJoinTask<String> chunk : chunks)
+            {
+                chunk.cancel(false);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Renders the items of the given index range into a buffer, using a child context.
+     * @param parent context of the loop
+     * @param block loop body
+     * @param iterable
+     * @param from first item index, inclusive
+     * @param to last item index, exclusive
+     * @param size number of items
+     * @return rendered chunk
+     * @throws IOException
+     */
+    private String renderChunk(InternalContextAdapter parent, Node block, Object iterable, int from, int to, int size)
+        throws IOException
+    {
+        InternalContextAdapterImpl context = new InternalContextAdapterImpl(new VelocityContext(parent));
+        for (String templateName : parent.getTemplateNameStack())
+        {
+            context.pushCurrentTemplateName(templateName);
+        }
+        for (String macroName : parent.getMacroNameStack())
+        {
+            context.pushCurrentMacroName(macroName);
+        }
+        context.setCurrentResource(parent.getCurrentResource());
+        context.setMacroLibraries(parent.getMacroLibraries());
+
+        ForeachScope foreach = null;
+        if (isScopeProvided())
+        {
+            String name = getScopeName();
+            if (isScopeReferenced() || rsvc.isReferencedByBlocks(name))
+            {
+                foreach = new ForeachScope(this, parent.get(name));
+                foreach.index = from - 1;
+                context.put(name, foreach);
+            }
+        }
+
+        StringWriter buffer = new StringWriter();
+        String elementKey = getElementKey();
+        for (int index = from; index < to; ++index)
+        {
+            put(context, elementKey, getItem(iterable, index));
+            if (foreach != null)
+            {
+                foreach.index++;
+                foreach.hasNext = index + 1 < size;
+            }
+            renderBlock(context, buffer, block);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Waits for a chunk, and propagates its rendering exception, if any.
+     * @param chunk
+     * @return rendered chunk
+     * @throws IOException
+     */
+    private String join(ForkJoinTask<String> chunk)
+        throws IOException
+    {
+        try
+        {
+            return chunk.get();
+        }
+        catch (InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            String msg = "Interrupted while rendering #" + getName() + " at " + StringUtils.formatFileString(this);
+            throw new VelocityException(msg, ie, rsvc.getLogContext().getStackTrace());
+        }
+        catch (ExecutionException ee)
+        {
+            Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+            else if (cause instanceof IOException)
+            {
+                throw (IOException)cause;
+            }
+            else if (cause instanceof Error)
+            {
+                throw (Error)cause;
+            }
+            String msg = "Exception rendering #" + getName() + " at " + StringUtils.formatFileString(this);
+            log.error(msg, cause);
+            throw new VelocityException(msg, cause, rsvc.getLogContext().getStackTrace());
+        }
+    }
+
+    /**
+     * @param iterable
+     * @return number of items of an iterable which can be split by index, or -1
+     */
+    private static int getSize(Object iterable)
+    {
+        if (iterable instanceof ASTIntegerRange.IntegerRange
+            || iterable instanceof List && iterable instanceof RandomAccess)
+        {
+            return ((List<?>)iterable).size();
+        }
+        else if (iterable != null && iterable.getClass().isArray())
+        {
+            return Array.getLength(iterable);
+        }
+        return -1;
+    }
+
+    /**
+     * @param iterable
+     * @param index
+     * @return item at the given index
+     */
+    private static Object getItem(Object iterable, int index)
+    {
+        if (iterable instanceof List)
+        {
+            return ((List<?>)iterable).get(index);
+        }
+        else if (iterable instanceof Object[])
+        {
+            return ((Object[])iterable)[index];
+        }
+        else if (iterable instanceof int[])
+        {
+            return ASTIntegerRange.IntegerRange.box(((int[])iterable)[index]);
+        }
+        return Array.get(iterable, index);
+    }
+}
@@ -278,7 +278,7 @@ public boolean render(InternalContextAdapter context,
          */
         try
         {
-            preRender(context);
+            preRender(context, t.isScopeReferenced());
             context.pushCurrentTemplateName(arg);
 
             ((SimpleNode) t.getData()).render(context, writer);
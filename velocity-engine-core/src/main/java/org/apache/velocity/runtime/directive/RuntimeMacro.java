@@ -175,6 +175,15 @@ public void init(RuntimeServices rs, String name, InternalContextAdapter context
         // literal which is in 99.9% cases waste. However, for regular macro calls (non Block macros)
         // this doesn't create very long Strings so it's probably acceptable
         getLiteral();
+
+        // arguments are evaluated within the macro scope, but not the call itself,
+        // which the analysis cannot know
+        Node[] arguments = new Node[node.jjtGetNumChildren()];
+        for (int i = 0; i < arguments.length; ++i)
+        {
+            arguments[i] = node.jjtGetChild(i);
+        }
+        checkScopeReferences(arguments);
     }
 
     /**
@@ -327,7 +336,7 @@ public boolean render(InternalContextAdapter context, Writer writer,
 
             try
             {
-                preRender(context);
+                preRender(context, isScopeReferenced() || vmProxy.isMacroScopeReferenced());
                 return vmProxy.render(context, writer, node, body);
             }
             catch (StopCommand stop)
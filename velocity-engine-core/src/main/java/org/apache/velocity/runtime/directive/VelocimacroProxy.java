@@ -19,6 +19,7 @@
  * under the License.
  */
 
+import org.apache.velocity.Template;
 import org.apache.velocity.context.InternalContextAdapter;
 import org.apache.velocity.exception.MacroOverflowException;
 import org.apache.velocity.exception.VelocityException;
@@ -29,6 +30,7 @@
 import org.apache.velocity.runtime.parser.node.ASTReference;
 import org.apache.velocity.runtime.parser.node.ASTStringLiteral;
 import org.apache.velocity.runtime.parser.node.Node;
+import org.apache.velocity.runtime.parser.node.NodeUtils;
 import org.apache.velocity.runtime.parser.node.SimpleNode;
 import org.apache.velocity.util.StringUtils;
 
@@ -57,6 +59,7 @@ public class VelocimacroProxy extends Directive
     private int maxCallDepth;
     private String bodyReference;
     private boolean enableBCmode;
+    private boolean macroScopeReferenced = true;
 
     private static final Object NULL_VALUE_MARKER = new Object();
 
@@ -133,6 +136,30 @@ public List<Macro.MacroArg> getMacroArgs()
     public void setNodeTree(SimpleNode tree)
     {
         nodeTree = tree;
+
+        /*
+         * the macro scope control is named "macro" for all macro calls
+         */
+        macroScopeReferenced = tree == null || NodeUtils.mayReference(tree, "macro");
+    }
+
+    /**
+     * @return macro body
+     * @since 2.4
+     */
+    public SimpleNode getNodeTree()
+    {
+        return nodeTree;
+    }
+
+    /**
+     * @return false if the macro body was found not to reference
+     * the $macro scope control
+     * @since 2.4
+     */
+    public boolean isMacroScopeReferenced()
+    {
+        return macroScopeReferenced;
     }
 
     /**
@@ -144,6 +171,23 @@ public int getNumArgs()
         return numMacroArgs;
     }
 
+    /**
+     * Copies this macro for another template which shares its definition.
+     * @param template template owning the copy
+     * @return new macro proxy, sharing the macro body
+     * @since 2.4
+     */
+    public VelocimacroProxy copy(Template template)
+    {
+        VelocimacroProxy copy = new VelocimacroProxy();
+        copy.init(rsvc);
+        copy.setName(macroName);
+        copy.setMacroArgs(macroArgs);
+        copy.setNodeTree(nodeTree);
+        copy.setLocation(getLine(), getColumn(), template);
+        return copy;
+    }
+
     /**
      * Initialize members of VelocimacroProxy.  called from MacroEntry
      * @param rs runtime services
@@ -0,0 +1,361 @@
+package org.apache.velocity.runtime.parser;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * <p>An implementation of interface CharStream for templates whose whole content
+ * is read up front, as an alternative to the circular buffer of {@link VelocityCharStream}.</p>
+ *
+ * <p>Characters are served from a single array, so that reading a character is
+ * a plain array access, backing up never copies anything and token images are
+ * extracted in one step. Line and column numbers are not tracked per character:
+ * they are computed on demand, from an index of line starts built on the first
+ * query, and follow the conventions of {@link VelocityCharStream} (CR, LF or CRLF
+ * line terminators, tabs expanded to the next multiple of 8 columns).</p>
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public final class ContentCharStream
+implements CharStream
+{
+    /* see VelocityCharStream: a 'file separator' char is sent just before EOF */
+    private static final char END_OF_FILE = '\u001C';
+
+    private static final int INITIAL_SIZE = 4096;
+
+    /**
+     * {@link #readTextRun(char, char)} result: the next char doesn't start a run of plain text
+     */
+    public static final int NO_TEXT_RUN = 0;
+
+    /**
+     * {@link #readTextRun(char, char)} result: a run of plain text without line terminator was read
+     */
+    public static final int INLINE_TEXT_RUN = 1;
+
+    /**
+     * {@link #readTextRun(char, char)} result: a run of plain text ending with a line terminator was read
+     */
+    public static final int TEXT_RUN = 2;
+
+    private char[] buffer = new char[INITIAL_SIZE];
+
+    /* number of template characters, the END_OF_FILE char being at index length */
+    private int length = 0;
+
+    private int bufpos = -1;
+    private int tokenBegin = 0;
+
+    private int startLine = 1;
+    private int startColumn = 1;
+
+    /* line starts index, built lazily */
+    private int[] lineStarts = null;
+    private int lineCount = 0;
+    private boolean hasTabs = false;
+
+    /* last line and column lookup, since most queries move forward */
+    private int lastLine = 0;
+    private int lastColumnOffset = -1;
+    private int lastColumn = 0;
+
+    /**
+     * Reads the whole content of the given reader.
+     * @param reader
+     * @param startline
+     * @param startcolumn
+     * @throws IOException
+     */
+    public void ReInit(Reader reader, int startline, int startcolumn) throws IOException
+    {
+        if (buffer == null)
+        {
+            buffer = new char[INITIAL_SIZE];
+        }
+        int len = 0;
+        int read;
+        while ((read = reader.read(buffer, len, buffer.length - len - 1)) != -1)
+        {
+            len += read;
+            if (len == buffer.length - 1)
+            {
+                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+            }
+        }
+        buffer[len] = END_OF_FILE;
+        length = len;
+        bufpos = -1;
+        tokenBegin = 0;
+        startLine = startline;
+        startColumn = startcolumn;
+        lineStarts = null;
+        lineCount = 0;
+        lastLine = 0;
+        lastColumnOffset = -1;
+        lastColumn = 0;
+    }
+
+    /**
+     * @see org.apache.velocity.runtime.parser.CharStream#readChar()
+     */
+    @Override
+    public char readChar() throws IOException
+    {
+        if (bufpos == length)
+        {
+            throw new IOException("end of stream");
+        }
+        return buffer[++bufpos];
+    }
+
+    /**
+     * @see org.apache.velocity.runtime.parser.CharStream#BeginToken()
+     */
+    @Override
+    public char BeginToken() throws IOException
+    {
+        if (bufpos == length)
+        {
+            tokenBegin = bufpos;
+            throw new IOException("end of stream");
+        }
+        tokenBegin = ++bufpos;
+        return buffer[bufpos];
+    }
+
+    /**
+     * Reads in bulk, as the next token, the run of plain text starting at the next char.
+     * Plain text is made of any char but the dollar, hash, backslash and end of file chars.
+     * The run must start with a char which is neither a whitespace nor a line terminator,
+     * and it ends after its last line terminator, if any, as the lexer TEXT token does,
+     * or else before the next non plain text char, as the INLINE_TEXT token does.
+     * @param dollar dollar char
+     * @param hash hash char
+     * @return {@link #NO_TEXT_RUN} if the next char doesn't start a run, in which case
+     * nothing is read, {@link #TEXT_RUN} or {@link #INLINE_TEXT_RUN} otherwise
+     * @since 2.4
+     */
+    public int readTextRun(char dollar, char hash)
+    {
+        int start = bufpos + 1;
+        if (start >= length)
+        {
+            return NO_TEXT_RUN;
+        }
+        char c = buffer[start];
+        if (c == dollar || c == hash || c == '\\' || c == END_OF_FILE
+            || c == ' ' || c == '\t' || c == '\n' || c == '\r')
+        {
+            return NO_TEXT_RUN;
+        }
+        int end = start + 1;
+        int lastNewline = -1;
+        // the END_OF_FILE char at index length stops the loop
+        while ((c = buffer[end]) != dollar && c != hash && c != '\\' && c != END_OF_FILE)
+        {
+            if (c == '\n' || c == '\r')
+            {
+                lastNewline = end;
+            }
+            ++end;
+        }
+        tokenBegin = start;
+        if (lastNewline == -1)
+        {
+            bufpos = end - 1;
+            return INLINE_TEXT_RUN;
+        }
+        bufpos = lastNewline;
+        return TEXT_RUN;
+    }
+
+    /**
+     * @see org.apache.velocity.runtime.parser.CharStream#backup(int)
+     */
+    @Override
+    public void backup(int amount)
+    {
+        bufpos -= amount;
+    }
+
+    /**
+     * @see org.apache.velocity.runtime.parser.CharStream#getEndColumn()
+     */
+    @Override
+    public int getEndColumn()
+    {
+        return getColumn(bufpos);
+    }
+
+    /**
+     * @see org.apache.velocity.runtime.parser.CharStream#getEndLine()
+     */
+    @Override
+    public int getEndLine()
+    {
+        return startLine + getLineIndex(bufpos);
+    }
+
+    /**
+     * @see org.apache.velocity.runtime.parser.CharStream#getBeginColumn()
+     */
+    @Override
+    public int getBeginColumn()
+    {
+        return getColumn(tokenBegin);
+    }
+
+    /**
+     * @see org.apache.velocity.runtime.parser.CharStream#getBeginLine()
+     */
+    @Override
+    public int getBeginLine()
+    {
+        return startLine + getLineIndex(tokenBegin);
+    }
+
+    /**
+     * @see org.apache.velocity.runtime.parser.CharStream#GetImage()
+     */
+    @Override
+    public String GetImage()
+    {
+        return new String(buffer, tokenBegin, bufpos - tokenBegin + 1);
+    }
+
+    /**
+     * @see org.apache.velocity.runtime.parser.CharStream#GetSuffix(int)
+     */
+    @Override
+    public char[] GetSuffix(int len)
+    {
+        return Arrays.copyOfRange(buffer, bufpos - len + 1, bufpos + 1);
+    }
+
+    /**
+     * Releases the buffer if it grew for a large template, so that a pooled parser
+     * doesn't retain the largest template it ever parsed.
+     * @see org.apache.velocity.runtime.parser.CharStream#Done()
+     */
+    @Override
+    public void Done()
+    {
+        if (buffer != null && buffer.length > INITIAL_SIZE)
+        {
+            buffer = null;
+        }
+        lineStarts = null;
+    }
+
+    /**
+     * Builds the index of line starts. A line starts after a LF, or after
+     * a CR which is not followed by a LF.
+     */
+    private void indexLines()
+    {
+        int[] starts = new int[64];
+        int count = 0;
+        starts[count++] = 0;
+        boolean tabs = false;
+        for (int i = 0; i < length; ++i)
+        {
+            char c = buffer[i];
+            if (c == '\n' || c == '\r' && buffer[i + 1] != '\n')
+            {
+                if (count == starts.length)
+                {
+                    starts = Arrays.copyOf(starts, 2 * count);
+                }
+                starts[count++] = i + 1;
+            }
+            else if (c == '\t')
+            {
+                tabs = true;
+            }
+        }
+        lineStarts = starts;
+        lineCount = count;
+        hasTabs = tabs;
+    }
+
+    /**
+     * @param offset
+     * @return zero-based index of the line containing the given offset
+     */
+    private int getLineIndex(int offset)
+    {
+        if (lineStarts == null)
+        {
+            indexLines();
+        }
+        int line = lastLine;
+        if (offset >= lineStarts[line] && (line + 1 == lineCount || offset < lineStarts[line + 1]))
+        {
+            return line;
+        }
+        int pos = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+        line = pos >= 0 ? pos : -pos - 2;
+        if (line < 0)
+        {
+            line = 0;
+        }
+        lastLine = line;
+        return line;
+    }
+
+    /**
+     * @param offset
+     * @return column of the character at the given offset
+     */
+    private int getColumn(int offset)
+    {
+        int line = getLineIndex(offset);
+        int lineStart = lineStarts[line];
+        int base = line == 0 ? startColumn - 1 : 0;
+        if (!hasTabs)
+        {
+            return base + offset - lineStart + 1;
+        }
+        int from = lineStart;
+        int column = base;
+        if (lastColumnOffset >= lineStart && lastColumnOffset <= offset)
+        {
+            from = lastColumnOffset + 1;
+            column = lastColumn;
+        }
+        for (int i = from; i <= offset; ++i)
+        {
+            column++;
+            if (buffer[i] == '\t')
+            {
+                column--;
+                column += (8 - (column & 07));
+            }
+        }
+        lastColumnOffset = offset;
+        lastColumn = column;
+        return column;
+    }
+}
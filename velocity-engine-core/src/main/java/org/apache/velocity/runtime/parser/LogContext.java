@@ -25,10 +25,7 @@
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * <p>Track location in template files during rendering by populating the slf4j MDC tags <code>file</code>, <code>line</code> and <code>column</code>.</p>
@@ -58,26 +55,49 @@ public LogContext(boolean trackLocation)
         this.trackLocation = trackLocation;
     }
 
-    private static ThreadLocal<Deque<StackElement>> contextStack = new ThreadLocal<Deque<StackElement>>()
+    private static ThreadLocal<Frames> contextStack = new ThreadLocal<Frames>()
     {
         @Override
-        public Deque<StackElement> initialValue()
+        public Frames initialValue()
         {
-            return new ArrayDeque<>();
+            return new Frames();
         }
     };
 
-    private static class StackElement
+    /**
+     * Stack of the rendering locations of a thread, kept in arrays which only grow,
+     * so that pushing and popping a location doesn't allocate anything.
+     * Consecutive pushes of the same node are counted rather than stacked.
+     * @since 2.4
+     */
+    private static class Frames
     {
-        protected StackElement(SimpleNode src, Info info)
+        protected SimpleNode[] nodes = new SimpleNode[16];
+        protected Info[] infos = new Info[16];
+        protected int[] counts = new int[16];
+        protected int depth = 0;
+
+        protected void push(SimpleNode src, Info info)
         {
-            this.src = src;
-            this.info = info;
+            if (depth == nodes.length)
+            {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                infos = Arrays.copyOf(infos, depth * 2);
+                counts = Arrays.copyOf(counts, depth * 2);
+            }
+            nodes[depth] = src;
+            infos[depth] = info;
+            counts[depth] = 1;
+            ++depth;
         }
 
-        protected SimpleNode src;
-        protected int count = 1;
-        protected Info info;
+        protected void pop()
+        {
+            --depth;
+            // don't retain templates
+            nodes[depth] = null;
+            infos[depth] = null;
+        }
     }
 
     public void pushLogContext(SimpleNode src, Info info)
@@ -86,15 +106,15 @@ public void pushLogContext(SimpleNode src, Info info)
         {
             return;
         }
-        Deque<StackElement> stack = contextStack.get();
-        StackElement last = stack.peek();
-        if (last != null && last.src == src)
+        Frames frames = contextStack.get();
+        int top = frames.depth - 1;
+        if (top >= 0 && frames.nodes[top] == src)
         {
-            ++last.count;
+            ++frames.counts[top];
         }
         else
         {
-            stack.push(new StackElement(src, info));
+            frames.push(src, info);
             setLogContext(info);
         }
     }
@@ -105,36 +125,44 @@ public void popLogContext()
         {
             return;
         }
-        Deque<StackElement> stack = contextStack.get();
-        StackElement last = stack.peek();
-        if (last == null)
+        Frames frames = contextStack.get();
+        int top = frames.depth - 1;
+        if (top < 0)
         {
             logger.error("log context is already empty");
             return;
         }
-        if (--last.count == 0)
+        if (--frames.counts[top] == 0)
         {
-            stack.pop();
-            last = stack.peek();
-            if (last == null)
+            frames.pop();
+            if (top == 0)
             {
                 clearLogContext();
             }
             else
             {
-                setLogContext(last.info);
+                setLogContext(frames.infos[top - 1]);
             }
         }
     }
 
-    private void setLogContext(Info info)
+    /**
+     * Sets the MDC tags to the given location.
+     * @param info current location
+     * @since 2.4
+     */
+    protected void setLogContext(Info info)
     {
         MDC.put(MDC_FILE, info.getTemplateName());
         MDC.put(MDC_LINE, String.valueOf(info.getLine()));
         MDC.put(MDC_COLUMN, String.valueOf(info.getColumn()));
     }
 
-    private void clearLogContext()
+    /**
+     * Removes the MDC tags, once the stack of locations is empty.
+     * @since 2.4
+     */
+    protected void clearLogContext()
     {
         MDC.remove(MDC_FILE);
         MDC.remove(MDC_LINE);
@@ -149,17 +177,23 @@ public String[] getStackTrace()
         {
             return null;
         }
-        Deque<StackElement> stack = contextStack.get();
-        List<String> levels = new ArrayList<>();
-        for (StackElement level : stack)
+        Frames frames = contextStack.get();
+        if (frames.depth == 0)
+        {
+            return null;
+        }
+        // the stack trace is only built when needed, innermost location first
+        String[] levels = new String[frames.depth];
+        for (int i = 0; i < frames.depth; ++i)
         {
-            String line = String.format(STACKTRACE_LINE,
-                level.src.literal(),
-                level.info.getTemplateName(),
-                level.info.getLine(),
-                level.info.getColumn());
-            levels.add(line);
+            int level = frames.depth - 1 - i;
+            Info info = frames.infos[level];
+            levels[i] = String.format(STACKTRACE_LINE,
+                frames.nodes[level].literal(),
+                info.getTemplateName(),
+                info.getLine(),
+                info.getColumn());
         }
-        return levels.size() > 0 ? levels.toArray(new String[levels.size()]) : null;
+        return levels;
     }
 }
@@ -57,6 +57,12 @@ public ASTAddNode(Parser p, int id)
     @Override
     protected Object handleSpecial(Object left, Object right, InternalContextAdapter context)
     {
+        // plain numbers are never converted to strings
+        if (MathUtils.isFastOperand(left) && MathUtils.isFastOperand(right))
+        {
+            return null;
+        }
+
         // check for strings, but don't coerce
         String lstr = DuckType.asString(left, false);
         String rstr = DuckType.asString(right, false);
@@ -335,6 +335,16 @@ public void setDirectiveName( String str )
         directiveName = str;
     }
 
+    /**
+     * Gets the directive instance of this node, once initialized.
+     * @return directive instance, or null if this node is not a directive
+     * @since 2.4
+     */
+    public Directive getDirective()
+    {
+        return directive;
+    }
+
     /**
      *  Gets the name of this directive.
      *  @return The name of this directive.
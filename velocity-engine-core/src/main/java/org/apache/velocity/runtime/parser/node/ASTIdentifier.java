@@ -62,6 +62,11 @@ public class ASTIdentifier extends SimpleNode
      */
     protected boolean strictRef = false;
 
+    /**
+     * Property getters for the receiver classes seen by this node
+     */
+    private final InlineCache<VelPropertyGet> propertyCache = new InlineCache<>();
+
     /**
      * @param id
      */
@@ -111,7 +116,7 @@ public  Object init(InternalContextAdapter context, Object data)
     {
         super.init(context, data);
 
-        identifier = rsvc.useStringInterning() ? getFirstToken().image.intern() : getFirstToken().image;
+        identifier = rsvc.useStringInterning() ? getFirstToken().image.intern() : rsvc.canonicalize(getFirstToken().image);
 
         uberInfo = new Info(getTemplateName(), getLine(), getColumn());
 
@@ -139,38 +144,58 @@ public Object execute(Object o, InternalContextAdapter context)
             try
             {
                 /*
-                 *  first, see if we have this information cached.
+                 *  first, see if this node has already seen this class.
+                 *  Class objects are only cached in the context.
                  */
 
-                IntrospectionCacheData icd = context.icacheGet(this);
-                Class<?> clazz = o instanceof Class<?> ? (Class<?>)o : o.getClass();
+                boolean classObject = o instanceof Class<?>;
+                Class<?> clazz = classObject ? (Class<?>)o : o.getClass();
 
-                /*
-                 * if we have the cache data and the class of the object we are
-                 * invoked with is the same as that in the cache, then we must
-                 * be all right.  The last 'variable' is the method name, and
-                 * that is fixed in the template :)
-                 */
-
-                if ( icd != null && (icd.contextData == clazz) )
+                if (!classObject)
                 {
-                    vg = (VelPropertyGet) icd.thingy;
+                    vg = propertyCache.get(clazz, InlineCache.NO_ARGUMENTS);
                 }
-                else
+
+                if (vg == null)
                 {
                     /*
-                     *  otherwise, do the introspection, and cache it.  Use the
-                     *  uberspector
+                     *  then see if we have this information cached.
                      */
 
-                    vg = rsvc.getUberspect().getPropertyGet(o, identifier, uberInfo);
+                    IntrospectionCacheData icd = context.icacheGet(this);
+
+                    /*
+                     * if we have the cache data and the class of the object we are
+                     * invoked with is the same as that in the cache, then we must
+                     * be all right.  The last 'variable' is the method name, and
+                     * that is fixed in the template :)
+                     */
 
-                    if (vg != null && vg.isCacheable())
+                    if ( icd != null && (icd.contextData == clazz) )
+                    {
+                        vg = (VelPropertyGet) icd.thingy;
+                    }
+                    else
                     {
-                        icd = new IntrospectionCacheData();
-                        icd.contextData = clazz;
-                        icd.thingy = vg;
-                        context.icachePut(this,icd);
+                        /*
+                         *  otherwise, do the introspection, and cache it.  Use the
+                         *  uberspector
+                         */
+
+                        vg = rsvc.getUberspect().getPropertyGet(o, identifier, uberInfo);
+
+                        if (vg != null && vg.isCacheable())
+                        {
+                            icd = new IntrospectionCacheData();
+                            icd.contextData = clazz;
+                            icd.thingy = vg;
+                            context.icachePut(this,icd);
+
+                            if (!classObject)
+                            {
+                                propertyCache.put(clazz, InlineCache.NO_ARGUMENTS, vg);
+                            }
+                        }
                     }
                 }
             }
@@ -27,6 +27,7 @@
 import org.apache.velocity.runtime.parser.Parser;
 import org.apache.velocity.util.ClassUtils;
 import org.apache.velocity.util.StringUtils;
+import org.apache.velocity.util.introspection.Info;
 import org.apache.velocity.util.introspection.VelMethod;
 
 /*
@@ -62,6 +63,16 @@ public class ASTIndex extends SimpleNode
      */
     protected boolean strictRef = false;
 
+    /**
+     * Introspection info of this node
+     */
+    private Info uberInfo;
+
+    /**
+     * 'get' methods for the receiver and argument classes seen by this node
+     */
+    private final InlineCache<VelMethod> methodCache = new InlineCache<>();
+
     /**
      * @param i
      */
@@ -91,6 +102,7 @@ public Object init(InternalContextAdapter context, Object data)
     {
         super.init(context, data);
         strictRef = rsvc.getBoolean(RuntimeConstants.RUNTIME_REFERENCES_STRICT, false);
+        uberInfo = new Info(getTemplateName(), getLine(), getColumn());
         cleanupParserAndTokens();
         return data;
     }
@@ -175,12 +187,26 @@ public Object execute(Object o, InternalContextAdapter context)
         // If negative, turn -1 into size - 1
         argument = adjMinusIndexArg(argument, o, context, this);
         Object [] params = {argument};
-        Class<?>[] paramClasses = {argument == null ? null : argument.getClass()};
 
-        VelMethod method = ClassUtils.getMethod(methodName, params, paramClasses,
-                                                o, context, this, strictRef);
+        /*
+         * first, see if this node has already seen these classes.
+         * Class objects are only cached in the context.
+         */
+        boolean classObject = o instanceof Class<?>;
+        VelMethod method = classObject ? null : methodCache.get(o.getClass(), params);
+        if (method == null)
+        {
+            Class<?>[] paramClasses = {argument == null ? null : argument.getClass()};
+            method = ClassUtils.getMethod(methodName, params, paramClasses,
+                                          o, context, this, uberInfo, strictRef);
+
+            if (method == null) return null;
 
-        if (method == null) return null;
+            if (!classObject && method.isCacheable())
+            {
+                methodCache.put(o.getClass(), params, method);
+            }
+        }
 
         try
         {
@@ -40,6 +40,11 @@
  */
 public class ASTIntegerRange extends SimpleNode
 {
+    /**
+     * Range of constant bounds, computed once since ranges are read only
+     */
+    private IntegerRange constant = null;
+
     /**
      * @param id
      */
@@ -68,6 +73,34 @@ public Object jjtAccept(ParserVisitor visitor, Object data)
 
     public static class IntegerRange extends AbstractList<Integer>
     {
+        /**
+         * Upper bound (exclusive) of the boxed values cache, which extends
+         * the standard -128..127 cache of Integer.valueOf() to the values
+         * most often met in loops.
+         */
+        private static final int BOXED_CACHE_SIZE = 1024;
+
+        private static final Integer[] boxedCache = new Integer[BOXED_CACHE_SIZE];
+
+        static
+        {
+            for (int i = 0; i < BOXED_CACHE_SIZE; ++i)
+            {
+                boxedCache[i] = i;
+            }
+        }
+
+        /**
+         * Box an integer value, reusing cached instances for small values.
+         * @param value integer value
+         * @return boxed value
+         * @since 2.4
+         */
+        public static Integer box(int value)
+        {
+            return value >= 0 && value < BOXED_CACHE_SIZE ? boxedCache[value] : Integer.valueOf(value);
+        }
+
         public class RangeIterator implements ListIterator<Integer>
         {
             private int value;
@@ -86,7 +119,7 @@ public RangeIterator(int startIndex)
             public Integer next()
             {
                 value += delta;
-                return value;
+                return box(value);
             }
 
             @Override
@@ -99,7 +132,7 @@ public boolean hasPrevious()
             public Integer previous()
             {
                 value -= delta;
-                return value;
+                return box(value);
             }
 
             @Override
@@ -150,6 +183,33 @@ public IntegerRange(int left, int right, int delta)
             this.delta = delta;
         }
 
+        /**
+         * @return first value of the range
+         * @since 2.4
+         */
+        public int getLeft()
+        {
+            return left;
+        }
+
+        /**
+         * @return last value of the range
+         * @since 2.4
+         */
+        public int getRight()
+        {
+            return right;
+        }
+
+        /**
+         * @return increment between values, 1 or -1
+         * @since 2.4
+         */
+        public int getDelta()
+        {
+            return delta;
+        }
+
         @Override
         public Iterator<Integer> iterator()
         {
@@ -164,7 +224,7 @@ public Integer get(int index)
             {
                 throw new IndexOutOfBoundsException();
             }
-            return ret;
+            return box(ret);
         }
 
         @Override
@@ -213,6 +273,11 @@ public int size()
     public Object value(InternalContextAdapter context)
         throws MethodInvocationException
     {
+        if (constant != null)
+        {
+            return constant;
+        }
+
         /*
          *  get the two range ends
          */
@@ -290,7 +355,24 @@ public Object init(InternalContextAdapter context, Object data) throws TemplateI
     {
     	Object obj = super.init(context, data);
     	cleanupParserAndTokens(); // drop reference to Parser and all JavaCC Tokens
+
+        if (NodeUtils.hasConstantChildren(this))
+        {
+            Object range = value(context);
+            if (range instanceof IntegerRange)
+            {
+                constant = (IntegerRange)range;
+            }
+        }
     	return obj;
     }
 
+    /**
+     * @return true if both bounds of the range are constant
+     * @since 2.4
+     */
+    boolean isConstant()
+    {
+        return constant != null;
+    }
 }
@@ -24,6 +24,7 @@
 import org.apache.velocity.exception.TemplateInitException;
 import org.apache.velocity.runtime.RuntimeConstants;
 import org.apache.velocity.runtime.parser.Parser;
+import org.apache.velocity.util.ConstantMap;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -38,6 +39,11 @@
  */
 public class ASTMap extends SimpleNode
 {
+    /**
+     * Materialized value of a constant map literal
+     */
+    private ConstantMap constant = null;
+
     /**
      * @param id
      */
@@ -71,6 +77,11 @@ public Object jjtAccept(ParserVisitor visitor, Object data)
     public Object value(InternalContextAdapter context)
         throws MethodInvocationException
     {
+        if (constant != null)
+        {
+            return new ConstantMap(constant);
+        }
+
         int size = jjtGetNumChildren();
 
         Map<Object, Object> objectMap = new LinkedHashMap<>();
@@ -98,6 +109,11 @@ public Object init(InternalContextAdapter context, Object data) throws TemplateI
     {
     	Object obj = super.init(context, data);
     	cleanupParserAndTokens(); // drop reference to Parser and all JavaCC Tokens
+
+        if (rsvc.getBoolean(RuntimeConstants.RUNTIME_CONSTANT_LITERALS, false) && NodeUtils.hasConstantChildren(this))
+        {
+            constant = new ConstantMap((Map<?, ?>)value(context));
+        }
     	return obj;
     }
 
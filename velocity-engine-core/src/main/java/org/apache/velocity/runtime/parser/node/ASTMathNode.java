@@ -98,16 +98,22 @@ public Object value(InternalContextAdapter context) throws MethodInvocationExcep
         }
 
         // coerce to Number type, if possible
-        try
+        if (!(left instanceof Number))
         {
-            left = DuckType.asNumber(left);
+            try
+            {
+                left = DuckType.asNumber(left);
+            }
+            catch (NumberFormatException nfe) {}
         }
-        catch (NumberFormatException nfe) {}
-        try
+        if (!(right instanceof Number))
         {
-            right = DuckType.asNumber(right);
+            try
+            {
+                right = DuckType.asNumber(right);
+            }
+            catch (NumberFormatException nfe) {}
         }
-        catch (NumberFormatException nfe) {}
 
         /*
          * if not a Number, not much we can do
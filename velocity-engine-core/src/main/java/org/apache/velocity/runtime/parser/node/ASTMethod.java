@@ -69,6 +69,11 @@ public class ASTMethod extends SimpleNode
      */
     protected boolean strictRef = false;
 
+    /**
+     * Methods for the receiver and argument classes seen by this node
+     */
+    private final InlineCache<VelMethod> methodCache = new InlineCache<>();
+
     /**
      * @param id
      */
@@ -86,6 +91,27 @@ public ASTMethod(Parser p, int id)
         super(p, id);
     }
 
+    /**
+     * @param params argument values
+     * @return argument classes
+     */
+    private static Class<?>[] getParamClasses(Object[] params)
+    {
+        if (params.length == 0)
+        {
+            return EMPTY_CLASS_ARRAY;
+        }
+        Class<?>[] paramClasses = new Class<?>[params.length];
+        for (int j = 0; j < params.length; j++)
+        {
+            if (params[j] != null)
+            {
+                paramClasses[j] = params[j].getClass();
+            }
+        }
+        return paramClasses;
+    }
+
     /**
      * @see org.apache.velocity.runtime.parser.node.SimpleNode#jjtAccept(org.apache.velocity.runtime.parser.node.ParserVisitor, java.lang.Object)
      */
@@ -119,7 +145,7 @@ public Object init(InternalContextAdapter context, Object data)
          *  this is about all we can do
          */
 
-        methodName = getFirstToken().image;
+        methodName = rsvc.canonicalize(getFirstToken().image);
         paramCount = jjtGetNumChildren() - 1;
 
         strictRef = rsvc.getBoolean(RuntimeConstants.RUNTIME_REFERENCES_STRICT, false);
@@ -148,32 +174,41 @@ public Object execute(Object o, InternalContextAdapter context)
             rsvc.getLogContext().pushLogContext(this, uberInfo);
 
             /*
-             *  new strategy (strategery!) for introspection. Since we want
-             *  to be thread- as well as context-safe, we *must* do it now,
-             *  at execution time.  There can be no in-node caching,
-             *  but if we are careful, we can do it in the context.
+             * sadly, we do need recalc the values of the args, as this can
+             * change from visit to visit. Calls without arguments share
+             * an empty array.
              */
-            Object [] params = new Object[paramCount];
-
-              /*
-               * sadly, we do need recalc the values of the args, as this can
-               * change from visit to visit
-               */
-            final Class<?>[] paramClasses =
-                paramCount > 0 ? new Class[paramCount] : EMPTY_CLASS_ARRAY;
+            Object [] params = paramCount > 0 ? new Object[paramCount] : InlineCache.NO_ARGUMENTS;
 
             for (int j = 0; j < paramCount; j++)
             {
                 params[j] = jjtGetChild(j + 1).value(context);
-                if (params[j] != null)
+            }
+
+            /*
+             *  new strategy (strategery!) for introspection. Since we want
+             *  to be thread- as well as context-safe, we *must* do it now,
+             *  at execution time.  The node keeps the methods found for the
+             *  few receiver and argument classes it has seen, and otherwise
+             *  we can do it in the context. Class objects are only cached
+             *  in the context.
+             */
+            boolean cacheable = o != null && !(o instanceof Class<?>);
+            VelMethod method = cacheable ? methodCache.get(o.getClass(), params) : null;
+            Class<?>[] paramClasses = null;
+
+            if (method == null)
+            {
+                paramClasses = getParamClasses(params);
+                method = ClassUtils.getMethod(methodName, params, paramClasses,
+                    o, context, this, uberInfo, strictRef);
+
+                if (cacheable && method != null && method.isCacheable())
                 {
-                    paramClasses[j] = params[j].getClass();
+                    methodCache.put(o.getClass(), params, method);
                 }
             }
 
-            VelMethod method = ClassUtils.getMethod(methodName, params, paramClasses,
-                o, context, this, strictRef);
-
             // warn if method wasn't found (if strictRef is true, then ClassUtils did throw an exception)
             if (o != null && method == null && logOnInvalid)
             {
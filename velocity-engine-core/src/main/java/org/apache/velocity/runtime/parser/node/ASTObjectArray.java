@@ -24,6 +24,7 @@
 import org.apache.velocity.exception.TemplateInitException;
 import org.apache.velocity.runtime.RuntimeConstants;
 import org.apache.velocity.runtime.parser.Parser;
+import org.apache.velocity.util.ConstantList;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -33,6 +34,11 @@
  */
 public class ASTObjectArray extends SimpleNode
 {
+    /**
+     * Materialized value of a constant list literal
+     */
+    private ConstantList constant = null;
+
     /**
      * @param id
      */
@@ -67,6 +73,11 @@ public Object jjtAccept(ParserVisitor visitor, Object data)
     public Object value(InternalContextAdapter context)
         throws MethodInvocationException
     {
+        if (constant != null)
+        {
+            return new ConstantList(constant);
+        }
+
         int size = jjtGetNumChildren();
 
         // since we know the amount of elements, initialize arraylist with proper size
@@ -89,6 +100,11 @@ public Object init(InternalContextAdapter context, Object data) throws TemplateI
     {
     	Object obj = super.init(context, data);
     	cleanupParserAndTokens(); // drop reference to Parser and all JavaCC Tokens
+
+        if (rsvc.getBoolean(RuntimeConstants.RUNTIME_CONSTANT_LITERALS, false) && NodeUtils.hasConstantChildren(this))
+        {
+            constant = new ConstantList(((List<?>)value(context)).toArray());
+        }
     	return obj;
     }
 
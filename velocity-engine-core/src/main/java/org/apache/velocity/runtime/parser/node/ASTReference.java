@@ -20,6 +20,7 @@
  */
 
 import org.apache.velocity.app.event.EventHandlerUtil;
+import org.apache.velocity.app.event.StreamingReferenceInsertionEventHandler;
 import org.apache.velocity.context.InternalContextAdapter;
 import org.apache.velocity.exception.MethodInvocationException;
 import org.apache.velocity.exception.TemplateInitException;
@@ -122,6 +123,19 @@ public class ASTReference extends SimpleNode
 
     protected Info uberInfo;
 
+    /**
+     * Last streaming reference insertion event handler met by this reference
+     * @since 2.4
+     */
+    private volatile StreamingReferenceInsertionEventHandler streamingHandler = null;
+
+    /**
+     * Whether the streaming handler applies to this reference
+     * (written before {@link #streamingHandler})
+     * @since 2.4
+     */
+    private boolean streamingHandlerApplies = false;
+
     /**
      * @param id
      */
@@ -521,15 +535,47 @@ public boolean render(InternalContextAdapter context, Writer writer) throws IOEx
             /*
              * the normal processing
              *
-             * if we have an event cartridge, get a new value object
+             * if we have an event cartridge, get a new value object, unless the
+             * only handler writes the value itself or leaves this reference unchanged
              */
 
-            value = EventHandlerUtil.referenceInsert(rsvc, context, literal, value);
+            StreamingReferenceInsertionEventHandler streaming = null;
+            if (EventHandlerUtil.hasReferenceInsertion(rsvc, context))
+            {
+                StreamingReferenceInsertionEventHandler handler = EventHandlerUtil.getStreamingReferenceInsertion(rsvc, context);
+                if (handler == null)
+                {
+                    value = EventHandlerUtil.referenceInsert(rsvc, context, literal, value);
+                }
+                else if (appliesTo(handler))
+                {
+                    /*
+                     * the handler can only write the value itself if the writer doesn't filter
+                     * references, and if no prefix has to be written before a null value
+                     */
+                    if (writer instanceof Filter || !escPrefix.isEmpty() || !morePrefix.isEmpty())
+                    {
+                        value = EventHandlerUtil.referenceInsert(rsvc, context, literal, value);
+                    }
+                    else
+                    {
+                        streaming = handler;
+                    }
+                }
+            }
 
             String toString = null;
             if (value != null)
             {
-                if (value instanceof Renderable)
+                if (streaming != null)
+                {
+                    if (streaming.writeReference(context, literal, value, writer))
+                    {
+                        return true;
+                    }
+                    value = null;
+                }
+                else if (value instanceof Renderable)
                 {
                     Renderable renderable = (Renderable)value;
                     try
@@ -634,6 +680,23 @@ public boolean render(InternalContextAdapter context, Writer writer) throws IOEx
         }
     }
 
+    /**
+     * Get whether the only reference insertion event handler applies to this
+     * reference. Whether it applies is only checked once per handler.
+     * @param handler streaming reference insertion event handler
+     * @return true if values of this reference have to be passed to the handler
+     * @since 2.4
+     */
+    private boolean appliesTo(StreamingReferenceInsertionEventHandler handler)
+    {
+        if (handler != streamingHandler)
+        {
+            streamingHandlerApplies = handler.appliesTo(literal);
+            streamingHandler = handler;
+        }
+        return streamingHandlerApplies;
+    }
+
     /**
      * This method helps to implement the "render literal if null" functionality.
      *
@@ -123,7 +123,11 @@ && getFirstToken().image.startsWith("\"")
             image = replaceQuotes(image, img.charAt(0));
         }
 
-        if (interpolate)
+        if (!interpolate)
+        {
+            image = rsvc.canonicalize(image);
+        }
+        else
         {
             /*
              * parse and init the nodeTree
@@ -297,6 +301,28 @@ public boolean isConstant()
         return !interpolate;
     }
 
+    /**
+     * @return the parsed tree of an interpolated string, or null
+     * for a constant one
+     * @since 2.4
+     */
+    SimpleNode getNodeTree()
+    {
+        return nodeTree;
+    }
+
+    /**
+     * Check whether the string content contains the reference
+     * character, in which case it could still be evaluated as
+     * template code by a tool, even if it isn't interpolated.
+     * @return true if the content contains the dollar char
+     * @since 2.4
+     */
+    boolean hasReferenceChar()
+    {
+        return rsvc == null || image.indexOf(rsvc.getParserConfiguration().getDollarChar()) != -1;
+    }
+
     /**
      * renders the value of the string literal If the properties allow, and the
      * string literal contains a $ or a # the literal is rendered against the
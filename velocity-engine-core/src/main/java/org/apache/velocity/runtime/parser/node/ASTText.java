@@ -21,8 +21,10 @@
 
 import org.apache.velocity.context.InternalContextAdapter;
 import org.apache.velocity.exception.TemplateInitException;
+import org.apache.velocity.runtime.RuntimeServices;
 import org.apache.velocity.runtime.parser.Parser;
 import org.apache.velocity.runtime.parser.Token;
+import org.apache.velocity.runtime.resource.TextArena;
 
 import java.io.IOException;
 import java.io.Writer;
@@ -34,6 +36,16 @@ public class ASTText extends SimpleNode
 {
     private String ctext;
 
+    /**
+     * Off-heap storage of the text, if any
+     */
+    private TextArena arena = null;
+
+    /**
+     * Address of the text in the arena
+     */
+    private long address = -1;
+
     /**
      * @param id
      */
@@ -57,7 +69,7 @@ public ASTText(Parser p, int id)
      */
     public String getCtext()
     {
-        return ctext;
+        return arena == null ? ctext : arena.getText(address);
     }
 
     /**
@@ -67,6 +79,7 @@ public String getCtext()
     public void setCtext(String ctext)
     {
         this.ctext = ctext;
+        arena = null;
     }
 
     /**
@@ -76,7 +89,7 @@ public void setCtext(String ctext)
     @Override
     public String literal()
     {
-        return ctext;
+        return getCtext();
     }
     
     /**
@@ -102,7 +115,17 @@ public Object init(InternalContextAdapter context, Object data)
             builder.append(NodeUtils.tokenLiteral(parser, t));
         }
         builder.append(NodeUtils.tokenLiteral(parser, t));
-        ctext = builder.toString();
+        RuntimeServices rs = (RuntimeServices)data;
+        String text = builder.toString();
+        TextArena textArena = rs.getTextArena();
+        if (textArena != null && (address = textArena.store(getTemplate(), text)) != -1)
+        {
+            arena = textArena;
+        }
+        else
+        {
+            ctext = rs.canonicalize(text);
+        }
 
         cleanupParserAndTokens();
 
@@ -116,7 +139,14 @@ public Object init(InternalContextAdapter context, Object data)
     public boolean render(InternalContextAdapter context, Writer writer)
         throws IOException
     {
-        writer.write(ctext);
+        if (arena == null)
+        {
+            writer.write(ctext);
+        }
+        else
+        {
+            arena.writeTo(address, writer);
+        }
         return true;
     }
 }
@@ -22,7 +22,9 @@
 import org.apache.velocity.context.InternalContextAdapter;
 import org.apache.velocity.exception.TemplateInitException;
 import org.apache.velocity.runtime.parser.Parser;
+import org.apache.velocity.runtime.RuntimeServices;
 import org.apache.velocity.runtime.parser.Token;
+import org.apache.velocity.runtime.resource.TextArena;
 
 import java.io.IOException;
 import java.io.Writer;
@@ -39,6 +41,16 @@ public class ASTTextblock extends SimpleNode
     public final String END;
     private char[] ctext;
 
+    /**
+     * Off-heap storage of the text, if any
+     */
+    private TextArena arena = null;
+
+    /**
+     * Address of the text in the arena
+     */
+    private long address = -1;
+
     /**
      * @param p
      * @param id
@@ -74,7 +86,15 @@ public Object init(InternalContextAdapter context, Object data)
         // we must strip away the hash tags
         text = text.substring(START.length(), text.length() - END.length());
 
-        ctext = text.toCharArray();
+        TextArena textArena = ((RuntimeServices)data).getTextArena();
+        if (textArena != null && (address = textArena.store(getTemplate(), text)) != -1)
+        {
+            arena = textArena;
+        }
+        else
+        {
+            ctext = text.toCharArray();
+        }
 
         cleanupParserAndTokens();
 
@@ -88,7 +108,14 @@ public Object init(InternalContextAdapter context, Object data)
     public boolean render(InternalContextAdapter context, Writer writer)
         throws IOException
     {
-        writer.write(ctext);
+        if (arena == null)
+        {
+            writer.write(ctext);
+        }
+        else
+        {
+            arena.writeTo(address, writer);
+        }
         return true;
     }
 }
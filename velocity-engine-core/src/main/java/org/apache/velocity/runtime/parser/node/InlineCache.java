@@ -0,0 +1,145 @@
+package org.apache.velocity.runtime.parser.node;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+
+/**
+ * Small polymorphic cache, stored on a node, of the introspection results obtained
+ * for the receiver and argument classes the node has seen.
+ * <p>Lookups are lock-free: entries are kept in an immutable array which is replaced
+ * when an entry is added. Once more than {@link #MAX_ENTRIES} combinations have been seen,
+ * the node is considered megamorphic and the cache is disabled, so that callers fall
+ * back to the uberspector.</p>
+ *
+ * @param <T> cached accessor type
+ * @version $Id$
+ * @since 2.4
+ */
+final class InlineCache<T>
+{
+    /**
+     * Maximum number of cached combinations
+     */
+    static final int MAX_ENTRIES = 4;
+
+    /**
+     * Arguments of argument-less accesses
+     */
+    static final Object[] NO_ARGUMENTS = {};
+
+    private static final Entry<?>[] EMPTY = {};
+
+    private static final class Entry<T>
+    {
+        final Class<?> receiver;
+        final Class<?>[] arguments;
+        final T target;
+
+        Entry(Class<?> receiver, Class<?>[] arguments, T target)
+        {
+            this.receiver = receiver;
+            this.arguments = arguments;
+            this.target = target;
+        }
+
+        boolean matches(Class<?> receiver, Object[] arguments)
+        {
+            if (this.receiver != receiver || this.arguments.length != arguments.length)
+            {
+                return false;
+            }
+            for (int i = 0; i < arguments.length; ++i)
+            {
+                Object argument = arguments[i];
+                if (this.arguments[i] != (argument == null ? null : argument.getClass()))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * current entries, or null once megamorphic
+     */
+    private volatile Entry<?>[] entries = EMPTY;
+
+    /**
+     * @param receiver receiver class
+     * @param arguments argument values, whose classes are compared without allocation
+     * @return cached accessor, or null
+     */
+    @SuppressWarnings("unchecked")
+    T get(Class<?> receiver, Object[] arguments)
+    {
+        Entry<?>[] current = entries;
+        if (current != null)
+        {
+            for (Entry<?> entry : current)
+            {
+                if (entry.matches(receiver, arguments))
+                {
+                    return (T)entry.target;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds an accessor to the cache, unless the cache is megamorphic.
+     * Concurrent additions may occasionally be lost, which only costs
+     * another lookup.
+     * @param receiver receiver class
+     * @param arguments argument values
+     * @param target accessor
+     */
+    void put(Class<?> receiver, Object[] arguments, T target)
+    {
+        Entry<?>[] current = entries;
+        if (current == null)
+        {
+            return;
+        }
+        if (current.length == MAX_ENTRIES)
+        {
+            entries = null;
+            return;
+        }
+        Class<?>[] argumentClasses = new Class<?>[arguments.length];
+        for (int i = 0; i < arguments.length; ++i)
+        {
+            argumentClasses[i] = arguments[i] == null ? null : arguments[i].getClass();
+        }
+        Entry<?>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = new Entry<>(receiver, argumentClasses, target);
+        entries = updated;
+    }
+
+    /**
+     * @return whether the cache has been disabled
+     */
+    boolean isMegamorphic()
+    {
+        return entries == null;
+    }
+}
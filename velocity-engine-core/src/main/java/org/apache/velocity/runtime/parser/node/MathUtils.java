@@ -22,9 +22,7 @@
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Utility-class for all arithmetic-operations.<br><br>
@@ -42,7 +40,11 @@
  * In addition to that the methods <code>multiply</code>,<code>add</code> and <code>substract</code> implement overflow
  * checks for <code>long</code>-values. That means that if an overflow occurs while working with long values a BigInteger
  * will be returned.<br>
- * For all other operations and types (such as Float and Double) there is no overflow checking.
+ * For all other operations and types (such as Float and Double) there is no overflow checking.<br><br>
+ *
+ * Integer, Long and Double operands, by far the most common ones, are handled by fast paths
+ * which give the same results without looking up the calculation base nor allocating any
+ * BigInteger or BigDecimal, unless a long overflow occurs.
  *
  * @author <a href="mailto:pero@antaramusic.de">Peter Romianowski</a>
  * @since 1.5
@@ -64,19 +66,6 @@
     protected static final int BASE_BIGINTEGER    = 3;
     protected static final int BASE_BIGDECIMAL    = 4;
 
-    /**
-     * The <code>Class</code>-object is key, the maximum-value is the value
-     */
-    private static final Map<Class<? extends Number>, BigDecimal> ints = new HashMap<>();
-    static
-    {
-        ints.put (Byte.class, BigDecimal.valueOf (Byte.MAX_VALUE));
-        ints.put (Short.class, BigDecimal.valueOf (Short.MAX_VALUE));
-        ints.put (Integer.class, BigDecimal.valueOf (Integer.MAX_VALUE));
-        ints.put (Long.class, BigDecimal.valueOf (Long.MAX_VALUE));
-        ints.put (BigInteger.class, BigDecimal.valueOf (-1));
-    }
-
     /**
      * The "size" of the number-types - ascending.
      */
@@ -137,6 +126,15 @@ public static BigInteger toBigInteger (Number n)
      */
     public static boolean isZero (Number n)
     {
+        Class<?> type = n.getClass();
+        if (type == Integer.class)
+        {
+            return n.intValue() == 0;
+        }
+        if (type == Long.class)
+        {
+            return n.longValue() == 0L;
+        }
         if (isInteger( n ) )
         {
             if (n instanceof BigInteger)
@@ -164,7 +162,52 @@ public static boolean isZero (Number n)
      */
     public static boolean isInteger (Number n)
     {
-        return ints.containsKey (n.getClass());
+        Class<?> type = n.getClass();
+        return type == Integer.class || type == Long.class || type == Short.class
+            || type == Byte.class || type == BigInteger.class;
+    }
+
+    /**
+     * Test whether the given class is Integer or Long, the integral types
+     * handled by the fast paths of the arithmetic operations.
+     * @param type
+     * @return True if type is Integer or Long
+     */
+    private static boolean isIntOrLong (Class<?> type)
+    {
+        return type == Integer.class || type == Long.class;
+    }
+
+    /**
+     * Test whether a binary operation on the given operand classes is done
+     * in double precision, without any BigInteger or BigDecimal involved:
+     * at least one of them is a Double, the other one is a Double, an Integer or a Long.
+     * @param type1
+     * @param type2
+     * @return True if the operation can be done on doubles
+     */
+    private static boolean isDoubleBase (Class<?> type1, Class<?> type2)
+    {
+        return type1 == Double.class
+            ? type2 == Double.class || isIntOrLong(type2)
+            : type2 == Double.class && isIntOrLong(type1);
+    }
+
+    /**
+     * Test whether the given object is an operand of the arithmetic fast paths
+     * (Integer, Long or Double), which cannot be converted to anything else
+     * than a Number.
+     * @param o
+     * @return True if o is an Integer, a Long or a Double
+     */
+    static boolean isFastOperand (Object o)
+    {
+        if (o == null)
+        {
+            return false;
+        }
+        Class<?> type = o.getClass();
+        return type == Integer.class || type == Long.class || type == Double.class;
     }
 
     /**
@@ -302,6 +345,36 @@ public static int findCalculationBase(Number op)
     public static Number add (Number op1, Number op2)
     {
 
+        Class<?> type1 = op1.getClass();
+        Class<?> type2 = op2.getClass();
+        if (type1 == Integer.class && type2 == Integer.class)
+        {
+            int i1 = op1.intValue();
+            int i2 = op2.intValue();
+            int result = i1 + i2;
+            // same overflow check as Math.addExact
+            if (((i1 ^ result) & (i2 ^ result)) < 0)
+            {
+                return (long)i1 + (long)i2;
+            }
+            return result;
+        }
+        if (isIntOrLong(type1) && isIntOrLong(type2))
+        {
+            long l1 = op1.longValue();
+            long l2 = op2.longValue();
+            long result = l1 + l2;
+            if (((l1 ^ result) & (l2 ^ result)) < 0)
+            {
+                return BigInteger.valueOf(l1).add(BigInteger.valueOf(l2));
+            }
+            return result;
+        }
+        if (isDoubleBase(type1, type2))
+        {
+            return op1.doubleValue() + op2.doubleValue();
+        }
+
         int calcBase = findCalculationBase( op1, op2);
         switch (calcBase)
         {
@@ -338,6 +411,36 @@ public static Number add (Number op1, Number op2)
      */
     public static Number subtract (Number op1, Number op2) {
 
+        Class<?> type1 = op1.getClass();
+        Class<?> type2 = op2.getClass();
+        if (type1 == Integer.class && type2 == Integer.class)
+        {
+            int i1 = op1.intValue();
+            int i2 = op2.intValue();
+            int result = i1 - i2;
+            // same overflow check as Math.subtractExact
+            if (((i1 ^ i2) & (i1 ^ result)) < 0)
+            {
+                return (long)i1 - (long)i2;
+            }
+            return result;
+        }
+        if (isIntOrLong(type1) && isIntOrLong(type2))
+        {
+            long l1 = op1.longValue();
+            long l2 = op2.longValue();
+            long result = l1 - l2;
+            if (((l1 ^ l2) & (l1 ^ result)) < 0)
+            {
+                return BigInteger.valueOf(l1).subtract(BigInteger.valueOf(l2));
+            }
+            return result;
+        }
+        if (isDoubleBase(type1, type2))
+        {
+            return op1.doubleValue() - op2.doubleValue();
+        }
+
         int calcBase = findCalculationBase( op1, op2);
         switch (calcBase) {
             case BASE_BIGINTEGER:
@@ -372,6 +475,35 @@ public static Number subtract (Number op1, Number op2) {
      */
     public static Number multiply (Number op1, Number op2) {
 
+        Class<?> type1 = op1.getClass();
+        Class<?> type2 = op2.getClass();
+        if (type1 == Integer.class && type2 == Integer.class)
+        {
+            long result = (long)op1.intValue() * (long)op2.intValue();
+            if ((int)result != result)
+            {
+                return result;
+            }
+            return (int)result;
+        }
+        if (isIntOrLong(type1) && isIntOrLong(type2))
+        {
+            long l1 = op1.longValue();
+            long l2 = op2.longValue();
+            long result = l1 * l2;
+            // same overflow check as Math.multiplyExact
+            if (((Math.abs(l1) | Math.abs(l2)) >>> 31 != 0)
+                && ((l2 != 0 && result / l2 != l1) || (l1 == Long.MIN_VALUE && l2 == -1)))
+            {
+                return BigInteger.valueOf(l1).multiply(BigInteger.valueOf(l2));
+            }
+            return result;
+        }
+        if (isDoubleBase(type1, type2))
+        {
+            return op1.doubleValue() * op2.doubleValue();
+        }
+
         int calcBase = findCalculationBase( op1, op2);
         switch (calcBase) {
             case BASE_BIGINTEGER:
@@ -407,6 +539,27 @@ public static Number multiply (Number op1, Number op2) {
      */
     public static Number divide (Number op1, Number op2) {
 
+        Class<?> type1 = op1.getClass();
+        Class<?> type2 = op2.getClass();
+        if (type1 == Integer.class && type2 == Integer.class)
+        {
+            // in long precision, since MIN_VALUE / -1 overflows
+            long result = (long)op1.intValue() / (long)op2.intValue();
+            if ((int)result != result)
+            {
+                return result;
+            }
+            return (int)result;
+        }
+        if (isIntOrLong(type1) && isIntOrLong(type2))
+        {
+            return op1.longValue() / op2.longValue();
+        }
+        if (isDoubleBase(type1, type2))
+        {
+            return op1.doubleValue() / op2.doubleValue();
+        }
+
         int calcBase = findCalculationBase( op1, op2);
         switch (calcBase) {
             case BASE_BIGINTEGER:
@@ -440,6 +593,17 @@ public static Number divide (Number op1, Number op2) {
      */
     public static Number modulo (Number op1, Number op2) throws ArithmeticException {
 
+        Class<?> type1 = op1.getClass();
+        Class<?> type2 = op2.getClass();
+        if (type1 == Integer.class && type2 == Integer.class)
+        {
+            return op1.intValue() % op2.intValue();
+        }
+        if (isIntOrLong(type1) && isIntOrLong(type2))
+        {
+            return op1.longValue() % op2.longValue();
+        }
+
         int calcBase = findCalculationBase( op1, op2);
         switch (calcBase) {
             case BASE_BIGINTEGER:
@@ -465,6 +629,13 @@ public static Number modulo (Number op1, Number op2) throws ArithmeticException
      */
     public static int compare (Number op1, Number op2) {
 
+        Class<?> type1 = op1.getClass();
+        Class<?> type2 = op2.getClass();
+        if (isIntOrLong(type1) && isIntOrLong(type2))
+        {
+            return Long.compare(op1.longValue(), op2.longValue());
+        }
+
         int calcBase = findCalculationBase( op1, op2);
         switch (calcBase) {
             case BASE_BIGINTEGER:
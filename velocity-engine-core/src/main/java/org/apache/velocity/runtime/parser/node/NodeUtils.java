@@ -19,10 +19,18 @@
  * under the License.
  */
 
+import org.apache.velocity.runtime.directive.Directive;
 import org.apache.velocity.runtime.parser.Parser;
 import org.apache.velocity.runtime.parser.StandardParserConstants;
 import org.apache.velocity.runtime.parser.Token;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Utilities for dealing with the AST node structure.
  *
@@ -32,6 +40,8 @@
  */
 public class NodeUtils
 {
+    private static final char END_OF_FILE = '\u001C';
+
     /**
      * Collect all the &lt;SPECIAL_TOKEN&gt;s that
      * are carried along with a token. Special
@@ -159,4 +169,299 @@ public static void fixIndentation(SimpleNode parent, String parentIndentation)
         IndentationFixer fixer = new IndentationFixer(parentIndentation);
         parent.childrenAccept(fixer, null);
     }
+
+    /**
+     * Collect the root names of all references which can be evaluated
+     * when rendering the given node, including those found in interpolated
+     * string literals and in nested directives.
+     * <p>The collection is only complete if the subtree does not contain
+     * code that cannot be known at init time: macro calls, directives
+     * which render other templates or dynamic content (like #parse or #evaluate),
+     * custom directives, or constant strings that look like template code
+     * and could be evaluated by a tool.</p>
+     * @param node the root node of the subtree to analyze
+     * @param names set receiving the reference names
+     * @return true if the collected names are complete, false otherwise
+     * @since 2.4
+     */
+    public static boolean collectReferences(Node node, Set<String> names)
+    {
+        if (node instanceof ASTReference)
+        {
+            String root = ((ASTReference)node).getRootString();
+            if (root == null)
+            {
+                return false;
+            }
+            names.add(root);
+        }
+        else if (node instanceof ASTStringLiteral)
+        {
+            ASTStringLiteral literal = (ASTStringLiteral)node;
+            if (literal.getNodeTree() != null)
+            {
+                return collectReferences(literal.getNodeTree(), names);
+            }
+            return !literal.hasReferenceChar();
+        }
+        else if (node instanceof ASTDirective)
+        {
+            Directive directive = ((ASTDirective)node).getDirective();
+            if (directive != null && !directive.rendersKnownCode())
+            {
+                return false;
+            }
+        }
+        boolean complete = true;
+        int count = node.jjtGetNumChildren();
+        for (int i = 0; i < count && complete; ++i)
+        {
+            complete = collectReferences(node.jjtGetChild(i), names);
+        }
+        return complete;
+    }
+
+    /**
+     * Check whether rendering the given node may evaluate a reference
+     * whose root is the given name.
+     * @param node the root node of the subtree to analyze
+     * @param name reference name, without the dollar char
+     * @return false only if the reference cannot be evaluated
+     * @see #collectReferences(Node, Set)
+     * @since 2.4
+     */
+    public static boolean mayReference(Node node, String name)
+    {
+        Set<String> names = new HashSet<>();
+        return !collectReferences(node, names) || names.contains(name);
+    }
+
+    /**
+     * Builds the source map of a freshly parsed tree, so that node literals
+     * can still be computed once tokens are dropped.
+     * @param root root node of the tree
+     * @param parser parser which produced the tree
+     * @since 2.4
+     */
+    public static void indexTokens(SimpleNode root, Parser parser)
+    {
+        Map<Token, Integer> indices = new IdentityHashMap<>();
+        StringBuilder text = new StringBuilder();
+        int[] tokenStarts = new int[64];
+        int[] lineStarts = new int[16];
+        int tokens = 0;
+        int lines = 0;
+        for (Token t = root.getFirstToken(); t != null; t = t.next)
+        {
+            indices.put(t, tokens);
+            if (tokens + 1 == tokenStarts.length)
+            {
+                tokenStarts = Arrays.copyOf(tokenStarts, tokens * 2);
+            }
+            tokenStarts[tokens++] = text.length();
+            String literal = tokenLiteral(parser, t);
+            if (literal.indexOf(END_OF_FILE) != -1)
+            {
+                /* the end of file char sent by the char streams is not part of the template */
+                literal = literal.replace(String.valueOf(END_OF_FILE), "");
+            }
+            text.append(literal);
+            if (t.kind == StandardParserConstants.MULTI_LINE_COMMENT || !literal.endsWith(t.image))
+            {
+                continue;
+            }
+
+            /* lines starting before this token, then inside it */
+            int imageStart = text.length() - t.image.length();
+            int line = t.beginLine;
+            int newline = -1;
+            do
+            {
+                if (line > lines)
+                {
+                    if (line >= lineStarts.length)
+                    {
+                        lineStarts = Arrays.copyOf(lineStarts, Math.max(line + 1, lines * 2));
+                    }
+                    int start = newline == -1 ? imageStart : imageStart + newline + 1;
+                    while (lines < line)
+                    {
+                        lineStarts[lines++] = start;
+                    }
+                }
+                newline = t.image.indexOf('\n', newline + 1);
+                ++line;
+            }
+            while (newline != -1);
+        }
+        if (tokens > 0)
+        {
+            tokenStarts[tokens] = text.length();
+            lineStarts = Arrays.copyOf(lineStarts, lines + 1);
+            lineStarts[lines] = text.length();
+            SourceMap sourceMap = new SourceMap(text.toString(), Arrays.copyOf(tokenStarts, tokens + 1), lineStarts);
+            indexTokens(root, sourceMap, indices);
+        }
+    }
+
+    private static void indexTokens(Node node, SourceMap sourceMap, Map<Token, Integer> indices)
+    {
+        if (node instanceof SimpleNode)
+        {
+            SimpleNode simpleNode = (SimpleNode)node;
+            Integer first = indices.get(simpleNode.first);
+            Integer last = indices.get(simpleNode.last);
+            if (first != null && last != null && first <= last)
+            {
+                simpleNode.sourceMap = sourceMap;
+                simpleNode.firstTokenIndex = first;
+                simpleNode.lastTokenIndex = last;
+            }
+        }
+        int count = node.jjtGetNumChildren();
+        for (int i = 0; i < count; ++i)
+        {
+            indexTokens(node.jjtGetChild(i), sourceMap, indices);
+        }
+    }
+
+    /**
+     * Get the distinct source maps used by the nodes of a tree: the one of the whole
+     * template, plus the ones of incrementally re-parsed blocks.
+     * @param root root node of the tree
+     * @return source maps of the tree
+     * @since 2.4
+     */
+    public static Set<SourceMap> getSourceMaps(Node root)
+    {
+        Set<SourceMap> maps = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectSourceMaps(root, maps);
+        return maps;
+    }
+
+    private static void collectSourceMaps(Node node, Set<SourceMap> maps)
+    {
+        if (node instanceof SimpleNode && ((SimpleNode)node).sourceMap != null)
+        {
+            maps.add(((SimpleNode)node).sourceMap);
+        }
+        int count = node.jjtGetNumChildren();
+        for (int i = 0; i < count; ++i)
+        {
+            collectSourceMaps(node.jjtGetChild(i), maps);
+        }
+    }
+
+    /**
+     * Drops the parser and tokens references still held by the nodes of an initialized tree.
+     * @param root root node of the tree
+     * @return number of nodes in the tree
+     * @since 2.4
+     */
+    public static int compact(Node root)
+    {
+        if (root instanceof SimpleNode)
+        {
+            ((SimpleNode)root).cleanupParserAndTokens();
+        }
+        int nodes = 1;
+        int count = root.jjtGetNumChildren();
+        for (int i = 0; i < count; ++i)
+        {
+            nodes += compact(root.jjtGetChild(i));
+        }
+        return nodes;
+    }
+
+    /**
+     * Shifts the line numbers of all the tokens of a freshly parsed tree.
+     * @param root root node of the tree
+     * @param lines number of lines to add
+     * @since 2.4
+     */
+    public static void shiftLines(SimpleNode root, int lines)
+    {
+        Token last = root.getLastToken();
+        for (Token t = root.getFirstToken(); t != null; t = t.next)
+        {
+            for (Token s = t; s != null; s = s.specialToken)
+            {
+                s.beginLine += lines;
+                s.endLine += lines;
+            }
+            if (t == last)
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Replaces the children of a node. The children keep their own parent, so that
+     * nodes shared with another tree are left untouched.
+     * @param parent parent node
+     * @param children new children
+     * @since 2.4
+     */
+    public static void setChildren(SimpleNode parent, Node[] children)
+    {
+        parent.children = children;
+    }
+
+    /**
+     * Checks whether a subtree contains a macro definition.
+     * @param node root of the subtree
+     * @return true if the subtree contains a #macro directive
+     * @since 2.4
+     */
+    public static boolean definesMacro(Node node)
+    {
+        if (node instanceof ASTDirective && "macro".equals(((ASTDirective)node).getDirectiveName()))
+        {
+            return true;
+        }
+        int count = node.jjtGetNumChildren();
+        for (int i = 0; i < count; ++i)
+        {
+            if (definesMacro(node.jjtGetChild(i)))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a node always evaluates to the same immutable value: number,
+     * boolean and non-interpolated string literals, or ranges of constant bounds.
+     * @param node initialized node
+     * @return true if the node value is constant
+     * @since 2.4
+     */
+    public static boolean isConstant(Node node)
+    {
+        return node instanceof ASTIntegerLiteral || node instanceof ASTFloatingPointLiteral
+            || node instanceof ASTTrue || node instanceof ASTFalse
+            || node instanceof ASTStringLiteral && ((ASTStringLiteral)node).isConstant()
+            || node instanceof ASTIntegerRange && ((ASTIntegerRange)node).isConstant();
+    }
+
+    /**
+     * Checks whether all children of a node are constant.
+     * @param node initialized node
+     * @return true if all children values are constant
+     * @since 2.4
+     */
+    public static boolean hasConstantChildren(Node node)
+    {
+        int count = node.jjtGetNumChildren();
+        for (int i = 0; i < count; ++i)
+        {
+            if (!isConstant(node.jjtGetChild(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
 }
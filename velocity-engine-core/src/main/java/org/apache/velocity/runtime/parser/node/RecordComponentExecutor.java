@@ -0,0 +1,126 @@
+package org.apache.velocity.runtime.parser.node;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.exception.VelocityException;
+import org.apache.velocity.util.introspection.Introspector;
+import org.slf4j.Logger;
+
+import java.lang.reflect.Method;
+
+/**
+ * Executor for the components of Java records, which are read using
+ * their accessor method, like <code>$point.x</code> for <code>point.x()</code>.
+ * Records are detected reflectively, so that this executor is simply never
+ * alive on Java versions without records.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class RecordComponentExecutor extends PropertyExecutor
+{
+    private static final Method IS_RECORD = getMethod("java.lang.Class", "isRecord");
+    private static final Method GET_RECORD_COMPONENTS = getMethod("java.lang.Class", "getRecordComponents");
+    private static final Method GET_COMPONENT_NAME = getMethod("java.lang.reflect.RecordComponent", "getName");
+
+    /**
+     * @param log
+     * @param introspector
+     * @param clazz
+     * @param property
+     */
+    public RecordComponentExecutor(final Logger log, final Introspector introspector,
+                                   final Class<?> clazz, final String property)
+    {
+        super(log, introspector, clazz, property);
+    }
+
+    @Override
+    protected void discover(final Class<?> clazz, final String property)
+    {
+        try
+        {
+            if (isRecordComponent(clazz, property))
+            {
+                setMethod(getIntrospector().getMethod(clazz, property, new Object[0]));
+            }
+        }
+        /*
+         * pass through application level runtime exceptions
+         */
+        catch( RuntimeException e )
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            String msg = "Exception while looking for record component accessor for '" + property;
+            log.error(msg, e);
+            throw new VelocityException(msg, e);
+        }
+    }
+
+    /**
+     * @param clazz
+     * @return names of the components of the given class if it is a record, or an empty array
+     * @throws ReflectiveOperationException
+     */
+    public static String[] getRecordComponentNames(final Class<?> clazz)
+        throws ReflectiveOperationException
+    {
+        if (GET_COMPONENT_NAME == null || !(Boolean)IS_RECORD.invoke(clazz))
+        {
+            return new String[0];
+        }
+        Object[] components = (Object[])GET_RECORD_COMPONENTS.invoke(clazz);
+        String[] names = new String[components.length];
+        for (int i = 0; i < components.length; ++i)
+        {
+            names[i] = (String)GET_COMPONENT_NAME.invoke(components[i]);
+        }
+        return names;
+    }
+
+    private static boolean isRecordComponent(final Class<?> clazz, final String property)
+        throws ReflectiveOperationException
+    {
+        for (String name : getRecordComponentNames(clazz))
+        {
+            if (name.equals(property))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Method getMethod(final String className, final String name)
+    {
+        try
+        {
+            return Class.forName(className).getMethod(name);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            // no records before Java 16
+            return null;
+        }
+    }
+}
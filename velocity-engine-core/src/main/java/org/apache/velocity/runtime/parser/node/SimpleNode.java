@@ -107,6 +107,24 @@ public class SimpleNode implements Node
      */
     protected String lastImage;
 
+    /**
+     * Source map of the template
+     * @since 2.4
+     */
+    protected SourceMap sourceMap;
+
+    /**
+     * Index of the first token of this node in the source map
+     * @since 2.4
+     */
+    protected int firstTokenIndex;
+
+    /**
+     * Index of the last token of this node in the source map
+     * @since 2.4
+     */
+    protected int lastTokenIndex;
+
     public RuntimeServices getRuntimeServices()
     {
       return rsvc;
@@ -360,6 +378,13 @@ public String literal()
             return literal;
         }
 
+        // use the source map, if any, rather than walking the tokens
+        if (sourceMap != null)
+        {
+            literal = sourceMap.literal(firstTokenIndex, lastTokenIndex);
+            return literal;
+        }
+
         // if we have only one string, just return it and avoid
         // buffer allocation. VELOCITY-606
         if (first == last)
@@ -578,6 +603,15 @@ public void cleanupParserAndTokens()
         this.last = null;
     }
 
+    /**
+     * @return source map of the template, or null if none was built for the template of this node
+     * @since 2.4
+     */
+    public SourceMap getSourceMap()
+    {
+        return sourceMap;
+    }
+
     /**
      * @return String image variable of the first Token element that was parsed and connected to this Node.
      */
@@ -0,0 +1,240 @@
+package org.apache.velocity.runtime.parser.node;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.runtime.parser.Token;
+
+import java.util.Arrays;
+
+/**
+ * <p>Source of a template, along with the offsets of its top-level blocks, as needed
+ * to re-parse only the blocks affected by an edition of the template.</p>
+ * <p>Blocks are contiguous: each one extends up to the start of the next one, and the
+ * first one starts at offset 0.</p>
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public final class SourceBlocks
+{
+    private final String source;
+    private final int[] starts;
+
+    private SourceBlocks(String source, int[] starts)
+    {
+        this.source = source;
+        this.starts = starts;
+    }
+
+    /**
+     * Computes the offsets of the top-level blocks of a freshly parsed tree,
+     * before it is initialized.
+     * @param root root node of the tree
+     * @param source parsed source
+     * @return source blocks, or null if the tree tokens are not available
+     */
+    public static SourceBlocks index(SimpleNode root, String source)
+    {
+        int count = root.jjtGetNumChildren();
+        int[] starts = new int[count];
+        int[] lineStarts = null;
+        for (int i = 1; i < count; ++i)
+        {
+            Token t = root.jjtGetChild(i).getFirstToken();
+            if (t == null)
+            {
+                return null;
+            }
+            while (t.specialToken != null)
+            {
+                t = t.specialToken;
+            }
+            if (lineStarts == null)
+            {
+                lineStarts = indexLines(source);
+            }
+            starts[i] = getOffset(source, lineStarts, t.beginLine, t.beginColumn);
+            if (starts[i] < starts[i - 1])
+            {
+                return null;
+            }
+        }
+        return new SourceBlocks(source, starts);
+    }
+
+    /**
+     * Builds the blocks of an edited source, by replacing a range of blocks.
+     * @param from index of the first replaced block
+     * @param to index of the last replaced block, inclusive
+     * @param segment blocks replacing them, with offsets relative to the replaced range start
+     * @param newSource edited source
+     * @return source blocks of the edited source
+     */
+    public SourceBlocks splice(int from, int to, SourceBlocks segment, String newSource)
+    {
+        int delta = newSource.length() - source.length();
+        int base = starts[from];
+        int[] spliced = new int[from + segment.size() + starts.length - to - 1];
+        System.arraycopy(starts, 0, spliced, 0, from);
+        for (int i = 0; i < segment.size(); ++i)
+        {
+            spliced[from + i] = base + segment.starts[i];
+        }
+        for (int i = to + 1, j = from + segment.size(); i < starts.length; ++i, ++j)
+        {
+            spliced[j] = starts[i] + delta;
+        }
+        return new SourceBlocks(newSource, spliced);
+    }
+
+    /**
+     * @return template source
+     */
+    public String getSource()
+    {
+        return source;
+    }
+
+    /**
+     * @return number of top-level blocks
+     */
+    public int size()
+    {
+        return starts.length;
+    }
+
+    /**
+     * @param block block index
+     * @return start offset of the block
+     */
+    public int getStart(int block)
+    {
+        return block < starts.length ? starts[block] : source.length();
+    }
+
+    /**
+     * @param offset source offset
+     * @return index of the block containing the given offset
+     */
+    public int getBlock(int offset)
+    {
+        int pos = Arrays.binarySearch(starts, offset);
+        if (pos < 0)
+        {
+            return Math.max(0, -pos - 2);
+        }
+        /* skip empty blocks */
+        while (pos + 1 < starts.length && starts[pos + 1] == offset)
+        {
+            ++pos;
+        }
+        return pos;
+    }
+
+    /**
+     * @param block block index
+     * @return whether the block starts at the beginning of a line
+     */
+    public boolean startsLine(int block)
+    {
+        int offset = getStart(block);
+        if (offset == 0)
+        {
+            return true;
+        }
+        char c = source.charAt(offset - 1);
+        return c == '\n' || c == '\r' && (offset == source.length() || source.charAt(offset) != '\n');
+    }
+
+    /**
+     * Counts line starts the way the char streams do: a line starts after a LF,
+     * or after a CR which is not followed by a LF.
+     * @param str
+     * @param from
+     * @param to
+     * @return number of line terminators in the given range
+     */
+    public static int countLines(String str, int from, int to)
+    {
+        int lines = 0;
+        for (int i = from; i < to; ++i)
+        {
+            char c = str.charAt(i);
+            if (c == '\n' || c == '\r' && (i + 1 == str.length() || str.charAt(i + 1) != '\n'))
+            {
+                ++lines;
+            }
+        }
+        return lines;
+    }
+
+    private static int[] indexLines(String source)
+    {
+        int[] lineStarts = new int[16];
+        int count = 0;
+        lineStarts[count++] = 0;
+        for (int i = 0; i < source.length(); ++i)
+        {
+            char c = source.charAt(i);
+            if (c == '\n' || c == '\r' && (i + 1 == source.length() || source.charAt(i + 1) != '\n'))
+            {
+                if (count == lineStarts.length)
+                {
+                    lineStarts = Arrays.copyOf(lineStarts, 2 * count);
+                }
+                lineStarts[count++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(lineStarts, count);
+    }
+
+    /**
+     * Converts a line and a (tab expanded) column, as reported by the char streams,
+     * to a source offset.
+     */
+    private static int getOffset(String source, int[] lineStarts, int line, int column)
+    {
+        if (line < 1)
+        {
+            return 0;
+        }
+        if (line > lineStarts.length)
+        {
+            return source.length();
+        }
+        int offset = lineStarts[line - 1];
+        int col = 0;
+        while (offset < source.length())
+        {
+            col++;
+            if (source.charAt(offset) == '\t')
+            {
+                col--;
+                col += (8 - (col & 07));
+            }
+            if (col >= column)
+            {
+                break;
+            }
+            ++offset;
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,141 @@
+package org.apache.velocity.runtime.parser.node;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * <p>Compact source map of a parsed template: the literal images of all its tokens are
+ * kept in a single string, along with the offsets of each token and of each template
+ * line. Nodes only hold the indices of their first and last tokens, which allows computing
+ * node literals and error snippets without keeping the parser tokens alive.</p>
+ * <p>The literal text is the one returned by {@link Node#literal()}: comments are left out,
+ * so template lines starting or ending within a comment are only partially available.</p>
+ *
+ * @see org.apache.velocity.Template#getSourceMap()
+ * @version $Id$
+ * @since 2.4
+ */
+public final class SourceMap
+{
+    /**
+     * Concatenated token literals
+     */
+    private final String text;
+
+    /**
+     * Offset of each token in the text, followed by the text length
+     */
+    private final int[] tokenStarts;
+
+    /**
+     * Offset of each template line in the text, followed by the text length
+     */
+    private final int[] lineStarts;
+
+    SourceMap(String text, int[] tokenStarts, int[] lineStarts)
+    {
+        this.text = text;
+        this.tokenStarts = tokenStarts;
+        this.lineStarts = lineStarts;
+    }
+
+    /**
+     * @param first index of the first token
+     * @param last index of the last token
+     * @return concatenated literals of the tokens of the given range
+     */
+    String literal(int first, int last)
+    {
+        return text.substring(tokenStarts[first], tokenStarts[last + 1]);
+    }
+
+    /**
+     * @return number of tokens
+     */
+    public int size()
+    {
+        return tokenStarts.length - 1;
+    }
+
+    /**
+     * @return total length of the token literals
+     */
+    public long getLength()
+    {
+        return text.length();
+    }
+
+    /**
+     * @return approximate heap size of this source map, in bytes, counting two bytes per char
+     */
+    public long getRetainedSize()
+    {
+        return 2L * text.length() + 4L * (tokenStarts.length + lineStarts.length);
+    }
+
+    /**
+     * @return number of template lines
+     */
+    public int getLineCount()
+    {
+        return lineStarts.length - 1;
+    }
+
+    /**
+     * @param line line number, starting at 1
+     * @return literal text of the given template line, without line terminator, or null
+     * if there is no such line
+     */
+    public String getLine(int line)
+    {
+        if (line < 1 || line >= lineStarts.length)
+        {
+            return null;
+        }
+        int start = lineStarts[line - 1];
+        int end = lineStarts[line];
+        while (end > start && (text.charAt(end - 1) == '\n' || text.charAt(end - 1) == '\r'))
+        {
+            --end;
+        }
+        return text.substring(start, end);
+    }
+
+    /**
+     * Formats an error snippet: the given template line, followed by a caret under the given column.
+     * @param line line number, starting at 1
+     * @param column column number, starting at 1
+     * @return error snippet, or null if there is no such line
+     */
+    public String getSnippet(int line, int column)
+    {
+        String content = getLine(line);
+        if (content == null)
+        {
+            return null;
+        }
+        StringBuilder snippet = new StringBuilder(content.length() * 2 + 2);
+        snippet.append(content).append('\n');
+        for (int i = 1; i < column && i <= content.length(); ++i)
+        {
+            snippet.append(content.charAt(i - 1) == '\t' ? '\t' : ' ');
+        }
+        return snippet.append('^').toString();
+    }
+}
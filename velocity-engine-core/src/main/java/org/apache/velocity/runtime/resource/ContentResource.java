@@ -21,10 +21,21 @@
 
 import org.apache.velocity.exception.ResourceNotFoundException;
 import org.apache.velocity.exception.VelocityException;
+import org.apache.velocity.io.RawOutput;
+import org.apache.velocity.runtime.RuntimeConstants;
 import org.apache.velocity.util.StringBuilderWriter;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 
 /**
  * This class represent a general text resource that may have been
@@ -33,6 +44,12 @@
  * Also of interest is Velocity's {@link org.apache.velocity.Template}
  * <code>Resource</code>.
  *
+ * When the <code>resource.content.keep_encoded</code> flag is on, and if the
+ * resource loader is able to provide the resource raw bytes, the content is
+ * kept encoded (memory-mapped for big files) and only decoded when needed.
+ * Writers implementing {@link RawOutput} with a matching charset then receive
+ * the raw bytes without any decoding.
+ *
  * @author <a href="mailto:jvanzyl@apache.org">Jason van Zyl</a>
  * @author <a href="mailto:geirm@optonline.net">Geir Magnusson Jr.</a>
  * @version $Id$
@@ -47,6 +64,19 @@ public ContentResource()
         setType(ResourceManager.RESOURCE_CONTENT);
     }
 
+    /** size of the chunks used to decode encoded content */
+    private static final int DECODING_CHUNK_SIZE = 8192;
+
+    /**
+     * raw content, when kept encoded
+     */
+    private ByteBuffer encodedData = null;
+
+    /**
+     * charset of the raw content
+     */
+    private Charset charset = null;
+
     /**
      * Pull in static content and store it.
      * @return True if everything went ok.
@@ -58,6 +88,11 @@ public ContentResource()
     public boolean process()
         throws ResourceNotFoundException
     {
+        if (rsvc.getBoolean(RuntimeConstants.RESOURCE_CONTENT_KEEP_ENCODED, false) && processEncoded())
+        {
+            return true;
+        }
+
         BufferedReader reader = null;
 
         try
@@ -102,4 +137,118 @@ public boolean process()
             }
         }
     }
+
+    /**
+     * Try to keep the content encoded, if the resource loader supports it
+     * and if the content does not carry a non UTF-8 BOM.
+     * @return whether the content has been loaded
+     */
+    private boolean processEncoded()
+        throws ResourceNotFoundException
+    {
+        ByteBuffer bytes = resourceLoader.getResourceBytes(name);
+        if (bytes == null)
+        {
+            return false;
+        }
+        Charset bytesCharset = Charset.forName(encoding == null ? rsvc.getString(RuntimeConstants.INPUT_ENCODING) : encoding);
+        int bom = bytes.remaining() >= 2 ? bytes.getShort(bytes.position()) & 0xFFFF : 0;
+        if (bom == 0xEFBB && bytes.remaining() >= 3 && bytes.get(bytes.position() + 2) == (byte)0xBF)
+        {
+            bytes.position(bytes.position() + 3);
+            bytesCharset = StandardCharsets.UTF_8;
+        }
+        else if (bom == 0xFEFF || bom == 0xFFFE
+                 || (bom == 0x0000 && bytes.remaining() >= 4 && (bytes.getShort(bytes.position() + 2) & 0xFFFF) == 0xFEFF))
+        {
+            /* UTF-16 and UTF-32 BOMs are left to the reader */
+            return false;
+        }
+        encodedData = bytes.slice().asReadOnlyBuffer();
+        charset = bytesCharset;
+        return true;
+    }
+
+    /**
+     * Get the content as a string. When the content is kept encoded,
+     * it is decoded at each call.
+     * @return content string
+     */
+    @Override
+    public Object getData()
+    {
+        if (data == null && encodedData != null)
+        {
+            try
+            {
+                return newDecoder().decode(encodedData.duplicate()).toString();
+            }
+            catch (CharacterCodingException cce)
+            {
+                /* cannot happen with the replace action */
+                throw new VelocityException("Cannot decode content resource", cce);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * @see Resource#hasData()
+     * @since 2.4
+     */
+    @Override
+    public boolean hasData()
+    {
+        return data != null || encodedData != null;
+    }
+
+    /**
+     * Write the content to a writer. Encoded content is written as is towards
+     * {@link RawOutput} writers using the same charset, and decoded by chunks
+     * otherwise, so that the content is never materialized as a string.
+     * @param writer
+     * @throws IOException
+     * @since 2.4
+     */
+    public void writeTo(Writer writer) throws IOException
+    {
+        if (encodedData == null)
+        {
+            writer.write((String)data);
+        }
+        else if (writer instanceof RawOutput && charset.equals(((RawOutput)writer).getOutputCharset()))
+        {
+            ((RawOutput)writer).writeRaw(encodedData.duplicate());
+        }
+        else
+        {
+            CharsetDecoder decoder = newDecoder();
+            ByteBuffer in = encodedData.duplicate();
+            CharBuffer out = CharBuffer.allocate(DECODING_CHUNK_SIZE);
+            CoderResult result;
+            do
+            {
+                result = decoder.decode(in, out, true);
+                out.flip();
+                writer.write(out.array(), 0, out.limit());
+                out.clear();
+            }
+            while (result.isOverflow());
+            do
+            {
+                result = decoder.flush(out);
+                out.flip();
+                writer.write(out.array(), 0, out.limit());
+                out.clear();
+            }
+            while (result.isOverflow());
+        }
+    }
+
+    private CharsetDecoder newDecoder()
+    {
+        return charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
 }
@@ -273,6 +273,16 @@ public Object getData()
         return data;
     }
 
+    /**
+     * Tells whether this resource did load its data.
+     * @return true if the resource data is available
+     * @since 2.4
+     */
+    public boolean hasData()
+    {
+        return data != null;
+    }
+
     /**
      * Sets the type of this Resource (RESOURCE_TEMPLATE or RESOURCE_CONTENT)
      * @param type RESOURCE_TEMPLATE or RESOURCE_CONTENT
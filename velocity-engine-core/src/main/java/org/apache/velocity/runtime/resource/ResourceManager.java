@@ -78,4 +78,14 @@ Resource getResource(String resourceName, int resourceType, String encoding)
      */
     String getLoaderNameForResource(String resourceName);
 
+    /**
+     * Get the off-heap storage of the static texts of templates, if any
+     * @return text arena, or null if static texts are kept on the heap
+     * @since 2.4
+     */
+    default TextArena getTextArena()
+    {
+        return null;
+    }
+
 }
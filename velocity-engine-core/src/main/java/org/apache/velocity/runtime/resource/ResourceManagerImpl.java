@@ -19,6 +19,7 @@
  * under the License.
  */
 
+import org.apache.velocity.Template;
 import org.apache.velocity.exception.ParseErrorException;
 import org.apache.velocity.exception.ResourceNotFoundException;
 import org.apache.velocity.exception.VelocityException;
@@ -81,6 +82,9 @@
     /** switch to turn off log notice when a resource is found for the first time. */
     private boolean logWhenFound = true;
 
+    /** off-heap storage of the static texts of templates, if enabled. */
+    private TextArena textArena = null;
+
     /** The internal RuntimeServices object. */
     protected RuntimeServices rsvc = null;
 
@@ -200,6 +204,18 @@ public synchronized void initialize(final RuntimeServices rs)
 
         globalCache.initialize(rsvc);
 
+        /*
+         *  off-heap storage of static texts: default is off
+         */
+        if (rsvc.getBoolean(RuntimeConstants.RESOURCE_MANAGER_TEXT_ARENA, false))
+        {
+            int chunkSize = rsvc.getInt(RuntimeConstants.RESOURCE_MANAGER_TEXT_ARENA_CHUNK_SIZE, 16 * 1024 * 1024);
+            int minLength = rsvc.getInt(RuntimeConstants.RESOURCE_MANAGER_TEXT_ARENA_MIN_LENGTH, 256);
+            textArena = new TextArena(chunkSize, minLength);
+            log.debug("static texts of at least {} characters will be stored off-heap, in chunks of {} bytes",
+                      minLength, chunkSize);
+        }
+
         isInit = true;
 
         log.trace("Default ResourceManager initialization complete.");
@@ -460,7 +476,7 @@ protected Resource loadResource(String resourceName, int resourceType, String en
         /*
          * Return null if we can't find a resource.
          */
-        if (resource.getData() == null)
+        if (!resource.hasData())
         {
             throw new ResourceNotFoundException("Unable to find resource '" + resourceName + "'", null, rsvc.getLogContext().getStackTrace());
         }
@@ -557,6 +573,11 @@ protected Resource refreshResource(Resource resource, final String encoding)
             newResource.setEncoding(resource.getEncoding());
             newResource.setResourceLoader(loader);
             newResource.setModificationCheckInterval(loader.getModificationCheckInterval());
+            if (newResource instanceof Template && resource instanceof Template)
+            {
+                /* allow the reuse of unmodified blocks */
+                ((Template)newResource).setPreviousVersion((Template)resource);
+            }
 
             newResource.process();
             newResource.setLastModified(howOldItWas);
@@ -567,6 +588,16 @@ protected Resource refreshResource(Resource resource, final String encoding)
         return resource;
     }
 
+    /**
+     * @see ResourceManager#getTextArena()
+     * @since 2.4
+     */
+    @Override
+    public TextArena getTextArena()
+    {
+        return textArena;
+    }
+
     /**
      * Determines if a template exists, and returns name of the loader that provides it. This is a slightly less hokey way to
      * support the Velocity.templateExists() utility method, which was broken when per-template encoding was introduced. We can
@@ -0,0 +1,385 @@
+package org.apache.velocity.runtime.resource;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.Template;
+import org.apache.velocity.exception.VelocityException;
+import org.apache.velocity.io.RawOutput;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * <p>Off-heap storage for the static text of templates, owned by the resource manager.
+ * Texts are stored UTF-8 encoded in chunks of memory-mapped temporary files, and are
+ * referenced by their address. They are written as is towards {@link RawOutput} writers
+ * using UTF-8, and decoded by chunks towards other writers.</p>
+ * <p>The space used by the texts of a template is reclaimed once the template has been
+ * garbage collected, after it was evicted from the resource cache or replaced by a newer
+ * version: since nodes reference their template, no rendering can still be reading it.
+ * Chunks are reused, but never unmapped. Only tests bypass the garbage collector,
+ * through the package-private {@link #discard(Template)} hook.</p>
+ *
+ * @see org.apache.velocity.runtime.RuntimeConstants#RESOURCE_MANAGER_TEXT_ARENA
+ * @version $Id$
+ * @since 2.4
+ */
+public class TextArena
+{
+    /**
+     * Size of the length header of each block
+     */
+    private static final int HEADER_SIZE = 4;
+
+    /**
+     * Size of the chunks used to decode texts towards character writers
+     */
+    private static final int DECODING_CHUNK_SIZE = 8192;
+
+    private static final ThreadLocal<Decoding> decoding = ThreadLocal.withInitial(Decoding::new);
+
+    private final int chunkSize;
+
+    private final int minLength;
+
+    /**
+     * Memory-mapped chunks, only appended to, and read without locking
+     */
+    private volatile Chunk[] chunks = new Chunk[0];
+
+    /**
+     * Blocks allocated for each live template
+     */
+    private final Map<Template, Owner> owners = new WeakHashMap<>();
+
+    /**
+     * Keeps the phantom references alive until they are processed
+     */
+    private final Set<Owner> pending = new HashSet<>();
+
+    private final ReferenceQueue<Template> collected = new ReferenceQueue<>();
+
+    private long allocatedBytes = 0;
+
+    /**
+     * @param chunkSize size of each memory-mapped chunk, which bounds the size of the stored texts
+     * @param minLength minimum length of the stored texts, shorter ones should be kept on the heap
+     */
+    public TextArena(int chunkSize, int minLength)
+    {
+        this.chunkSize = chunkSize;
+        this.minLength = minLength;
+    }
+
+    /**
+     * Stores a static text of a template.
+     * @param template template owning the text
+     * @param text static text
+     * @return address of the stored text, or -1 if the text should be kept on the heap
+     */
+    public synchronized long store(Template template, String text)
+    {
+        if (template == null || text.length() < minLength)
+        {
+            return -1;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int size = (HEADER_SIZE + bytes.length + 7) & ~7;
+        if (size > chunkSize)
+        {
+            return -1;
+        }
+        release();
+
+        int index = 0;
+        int offset = -1;
+        for (; index < chunks.length; ++index)
+        {
+            offset = chunks[index].allocate(size);
+            if (offset != -1)
+            {
+                break;
+            }
+        }
+        if (offset == -1)
+        {
+            Chunk chunk = new Chunk(chunkSize);
+            offset = chunk.allocate(size);
+            Chunk[] extended = Arrays.copyOf(chunks, index + 1);
+            extended[index] = chunk;
+            chunks = extended;
+        }
+
+        ByteBuffer buffer = chunks[index].buffer.duplicate();
+        buffer.position(offset);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        allocatedBytes += size;
+
+        long address = (long)index << 32 | offset;
+        Owner owner = owners.get(template);
+        if (owner == null)
+        {
+            owner = new Owner(template, collected);
+            owners.put(template, owner);
+            pending.add(owner);
+        }
+        owner.add(address, size);
+        return address;
+    }
+
+    /**
+     * Test hook, not called by the engine: queues the blocks of a template for release,
+     * as if the template had been collected, so that tests don't depend on the garbage
+     * collector. The texts of the template must not be read anymore.
+     * @param template template owning the blocks
+     */
+    synchronized void discard(Template template)
+    {
+        Owner owner = owners.remove(template);
+        if (owner != null)
+        {
+            owner.enqueue();
+        }
+    }
+
+    /**
+     * Frees the blocks of the collected templates.
+     */
+    private void release()
+    {
+        Reference<? extends Template> ref;
+        while ((ref = collected.poll()) != null)
+        {
+            Owner owner = (Owner)ref;
+            pending.remove(owner);
+            for (int i = 0; i < owner.count; ++i)
+            {
+                long address = owner.addresses[i];
+                chunks[(int)(address >>> 32)].free((int)address, owner.sizes[i]);
+                allocatedBytes -= owner.sizes[i];
+            }
+        }
+    }
+
+    /**
+     * @param address text address
+     * @return encoded text, from its position up to its limit
+     */
+    private ByteBuffer getBytes(long address)
+    {
+        ByteBuffer buffer = chunks[(int)(address >>> 32)].buffer.duplicate();
+        int offset = (int)address;
+        int length = buffer.getInt(offset);
+        buffer.limit(offset + HEADER_SIZE + length).position(offset + HEADER_SIZE);
+        return buffer;
+    }
+
+    /**
+     * @param address text address
+     * @return stored text
+     */
+    public String getText(long address)
+    {
+        ByteBuffer bytes = getBytes(address);
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+
+    /**
+     * Writes a stored text.
+     * @param address text address
+     * @param writer output writer
+     * @throws IOException
+     */
+    public void writeTo(long address, Writer writer) throws IOException
+    {
+        ByteBuffer bytes = getBytes(address);
+        if (writer instanceof RawOutput && StandardCharsets.UTF_8.equals(((RawOutput)writer).getOutputCharset()))
+        {
+            ((RawOutput)writer).writeRaw(bytes);
+            return;
+        }
+        Decoding state = decoding.get();
+        CharsetDecoder decoder = state.decoder.reset();
+        CharBuffer out = state.chars;
+        CoderResult result;
+        do
+        {
+            result = decoder.decode(bytes, out, true);
+            out.flip();
+            writer.write(out.array(), 0, out.limit());
+            out.clear();
+        }
+        while (result.isOverflow());
+    }
+
+    /**
+     * @return number of bytes used by the stored texts, including their headers
+     */
+    public synchronized long getAllocatedBytes()
+    {
+        release();
+        return allocatedBytes;
+    }
+
+    /**
+     * @return total size of the memory-mapped chunks
+     */
+    public synchronized long getCapacity()
+    {
+        return (long)chunks.length * chunkSize;
+    }
+
+    /**
+     * Memory-mapped chunk, with its free blocks
+     */
+    private static class Chunk
+    {
+        private final MappedByteBuffer buffer;
+
+        /**
+         * Free blocks, by offset
+         */
+        private final TreeMap<Integer, Integer> free = new TreeMap<>();
+
+        private Chunk(int size)
+        {
+            File file = null;
+            try
+            {
+                file = File.createTempFile("velocity-text-", ".arena");
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+                {
+                    buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+                }
+            }
+            catch (IOException ioe)
+            {
+                throw new VelocityException("Could not map a text arena chunk of " + size + " bytes", ioe);
+            }
+            finally
+            {
+                /* the mapping remains valid */
+                if (file != null && !file.delete())
+                {
+                    file.deleteOnExit();
+                }
+            }
+            free.put(0, size);
+        }
+
+        /**
+         * @param size block size
+         * @return offset of the allocated block, or -1
+         */
+        private int allocate(int size)
+        {
+            for (Map.Entry<Integer, Integer> block : free.entrySet())
+            {
+                int length = block.getValue();
+                if (length >= size)
+                {
+                    int offset = block.getKey();
+                    free.remove(offset);
+                    if (length > size)
+                    {
+                        free.put(offset + size, length - size);
+                    }
+                    return offset;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Frees a block, merging it with the adjacent free blocks.
+         * @param offset block offset
+         * @param size block size
+         */
+        private void free(int offset, int size)
+        {
+            Map.Entry<Integer, Integer> previous = free.lowerEntry(offset);
+            if (previous != null && previous.getKey() + previous.getValue() == offset)
+            {
+                offset = previous.getKey();
+                size += previous.getValue();
+            }
+            Integer next = free.remove(offset + size);
+            if (next != null)
+            {
+                size += next;
+            }
+            free.put(offset, size);
+        }
+    }
+
+    /**
+     * Blocks of a template, freed once the template has been collected
+     */
+    private static class Owner extends PhantomReference<Template>
+    {
+        private long[] addresses = new long[4];
+        private int[] sizes = new int[4];
+        private int count = 0;
+
+        private Owner(Template template, ReferenceQueue<Template> queue)
+        {
+            super(template, queue);
+        }
+
+        private void add(long address, int size)
+        {
+            if (count == addresses.length)
+            {
+                addresses = Arrays.copyOf(addresses, count * 2);
+                sizes = Arrays.copyOf(sizes, count * 2);
+            }
+            addresses[count] = address;
+            sizes[count++] = size;
+        }
+    }
+
+    /**
+     * Per thread decoding state
+     */
+    private static class Decoding
+    {
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        private final CharBuffer chars = CharBuffer.allocate(DECODING_CHUNK_SIZE);
+    }
+}
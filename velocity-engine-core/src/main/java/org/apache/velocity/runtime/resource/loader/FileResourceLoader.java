@@ -34,6 +34,9 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -53,6 +56,12 @@
  */
 public class FileResourceLoader extends ResourceLoader
 {
+    /**
+     * Size above which raw resources are memory-mapped rather than read in memory.
+     * @since 2.4
+     */
+    public static final int MAPPING_THRESHOLD = 64 * 1024;
+
     /**
      * The paths to search for templates.
      */
@@ -100,31 +109,7 @@ public void init(ExtProperties configuration)
     public Reader getResourceReader(String templateName, String encoding)
             throws ResourceNotFoundException
     {
-        /*
-         * Make sure we have a valid templateName.
-         */
-        if (org.apache.commons.lang3.StringUtils.isEmpty(templateName))
-        {
-            /*
-             * If we don't get a properly formed templateName then
-             * there's not much we can do. So we'll forget about
-             * trying to search any more paths for the template.
-             */
-            throw new ResourceNotFoundException(
-                    "Need to specify a file name or file path!");
-        }
-
-        String template = FilenameUtils.normalize( templateName, true );
-        if ( template == null || template.length() == 0 )
-        {
-            String msg = "File resource error: argument " + template +
-                    " contains .. and may be trying to access " +
-                    "content outside of template root.  Rejected.";
-
-            log.error("FileResourceLoader: {}", msg);
-
-            throw new ResourceNotFoundException ( msg );
-        }
+        String template = normalizeTemplateName(templateName);
 
         int size = paths.size();
         for (String path : paths)
@@ -167,6 +152,94 @@ public Reader getResourceReader(String templateName, String encoding)
         throw new ResourceNotFoundException("FileResourceLoader: cannot find " + template);
     }
 
+    /**
+     * Get the raw bytes of a file resource. Files bigger than {@link #MAPPING_THRESHOLD}
+     * are memory-mapped, smaller ones are read in a heap buffer.
+     *
+     * @param templateName name of the resource to get
+     * @return read-only buffer on the resource bytes
+     * @throws ResourceNotFoundException if the resource is not found
+     *         in the file template path.
+     * @since 2.4
+     */
+    @Override
+    public ByteBuffer getResourceBytes(String templateName)
+            throws ResourceNotFoundException
+    {
+        String template = normalizeTemplateName(templateName);
+
+        for (String path : paths)
+        {
+            File file = getFile(path, template);
+            if (file.canRead())
+            {
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+                {
+                    long size = channel.size();
+                    ByteBuffer bytes;
+                    if (size >= MAPPING_THRESHOLD)
+                    {
+                        /* the mapping stays valid once the channel is closed */
+                        bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    }
+                    else
+                    {
+                        bytes = ByteBuffer.allocate((int)size);
+                        while (bytes.hasRemaining())
+                        {
+                            if (channel.read(bytes) == -1)
+                            {
+                                break;
+                            }
+                        }
+                        bytes.flip();
+                    }
+                    templatePaths.put(templateName, path);
+                    return bytes.asReadOnlyBuffer();
+                }
+                catch (IOException ioe)
+                {
+                    String msg = "Exception while loading resource " + template;
+                    log.error(msg, ioe);
+                    throw new VelocityException(msg, ioe, rsvc.getLogContext().getStackTrace());
+                }
+            }
+        }
+
+        throw new ResourceNotFoundException("FileResourceLoader: cannot find " + template);
+    }
+
+    /**
+     * Make sure we have a valid template name, and normalize it.
+     */
+    private String normalizeTemplateName(String templateName)
+            throws ResourceNotFoundException
+    {
+        if (org.apache.commons.lang3.StringUtils.isEmpty(templateName))
+        {
+            /*
+             * If we don't get a properly formed templateName then
+             * there's not much we can do. So we'll forget about
+             * trying to search any more paths for the template.
+             */
+            throw new ResourceNotFoundException(
+                    "Need to specify a file name or file path!");
+        }
+
+        String template = FilenameUtils.normalize( templateName, true );
+        if ( template == null || template.length() == 0 )
+        {
+            String msg = "File resource error: argument " + template +
+                    " contains .. and may be trying to access " +
+                    "content outside of template root.  Rejected.";
+
+            log.error("FileResourceLoader: {}", msg);
+
+            throw new ResourceNotFoundException ( msg );
+        }
+        return template;
+    }
+
     /**
      * Overrides superclass for better performance.
      * @since 1.6
@@ -26,11 +26,13 @@
 import org.apache.velocity.util.ExtProperties;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
@@ -179,8 +181,58 @@ private void addEntries( Map<String, String> entries )
     public Reader getResourceReader(String source, String encoding )
             throws ResourceNotFoundException
     {
-        Reader result = null;
+        InputStream rawStream = getResourceStream(source);
+        try
+        {
+            return buildReader(rawStream, encoding);
+        }
+        catch (Exception e)
+        {
+            if (rawStream != null)
+            {
+                try
+                {
+                    rawStream.close();
+                }
+                catch (IOException ioe) {}
+            }
+            String msg = "JAR resource error: Exception while loading " + source;
+            log.error(msg, e);
+            throw new VelocityException(msg, e, rsvc.getLogContext().getStackTrace());
+        }
+    }
 
+    /**
+     * Get the raw bytes of a JAR entry. Since entries are compressed, they
+     * cannot be mapped, and are instead read once in memory.
+     *
+     * @param source name of the resource to get
+     * @return read-only buffer on the resource bytes
+     * @throws ResourceNotFoundException if the resource is not found
+     * @since 2.4
+     */
+    @Override
+    public ByteBuffer getResourceBytes(String source)
+            throws ResourceNotFoundException
+    {
+        try (InputStream rawStream = getResourceStream(source))
+        {
+            return ByteBuffer.wrap(IOUtils.toByteArray(rawStream)).asReadOnlyBuffer();
+        }
+        catch (IOException ioe)
+        {
+            String msg = "JAR resource error: Exception while loading " + source;
+            log.error(msg, ioe);
+            throw new VelocityException(msg, ioe, rsvc.getLogContext().getStackTrace());
+        }
+    }
+
+    /**
+     * Find the JAR entry for the given resource name and open it.
+     */
+    private InputStream getResourceStream(String source)
+            throws ResourceNotFoundException
+    {
         if (org.apache.commons.lang3.StringUtils.isEmpty(source))
         {
             throw new ResourceNotFoundException("Need to have a resource!");
@@ -215,23 +267,9 @@ public Reader getResourceReader(String source, String encoding )
             {
                 JarHolder holder = (JarHolder)jarfiles.get( jarurl );
                 InputStream rawStream = holder.getResource( normalizedPath );
-                try
-                {
-                    return buildReader(rawStream, encoding);
-                }
-                catch (Exception e)
+                if (rawStream != null)
                 {
-                    if (rawStream != null)
-                    {
-                        try
-                        {
-                            rawStream.close();
-                        }
-                        catch (IOException ioe) {}
-                    }
-                    String msg = "JAR resource error: Exception while loading " + source;
-                    log.error(msg, e);
-                    throw new VelocityException(msg, e, rsvc.getLogContext().getStackTrace());
+                    return rawStream;
                 }
             }
         }
@@ -35,6 +35,7 @@
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 
 /**
  * This is abstract class the all text resource loaders should
@@ -150,6 +151,23 @@ public void commonInit(RuntimeServices rs, ExtProperties configuration)
     public abstract Reader getResourceReader(String source, String encoding)
             throws ResourceNotFoundException;
 
+    /**
+     * Get the raw, still encoded bytes of a resource, for loaders which are able
+     * to provide them without going through a Reader. The default implementation
+     * returns null, meaning that the resource has to be read through
+     * {@link #getResourceReader(String, String)}.
+     *
+     * @param source
+     * @return a read-only buffer on the resource bytes, or null if not supported
+     * @throws ResourceNotFoundException
+     * @since 2.4
+     */
+    public ByteBuffer getResourceBytes(String source)
+            throws ResourceNotFoundException
+    {
+        return null;
+    }
+
     /**
      * Given a template, check to see if the source of InputStream
      * has been modified.
@@ -172,6 +172,27 @@ public static InputStream getResourceAsStream(Class<?> claz, String name)
     public static VelMethod getMethod(String methodName, Object[] params,
                                     Class<?>[] paramClasses, Object o, InternalContextAdapter context,
                                     SimpleNode node, boolean strictRef)
+    {
+        return getMethod(methodName, params, paramClasses, o, context, node, null, strictRef);
+    }
+
+    /**
+    * Lookup a VelMethod object given the method signature that is specified in
+    * the passed in parameters, using the introspection info precomputed by the node.
+    * @param methodName Name of method
+    * @param params Array of objects that are parameters to the method
+    * @param paramClasses Array of Classes corresponding to the types in params.
+    * @param o Object to introspect for the given method.
+    * @param context Context from which the method cache is acquired
+    * @param node ASTNode, used for error reporting.
+    * @param info introspection info of the node, or null to build it when needed
+    * @param strictRef If no method is found, throw an exception, never return null in this case
+    * @return VelMethod object if the object is found, null if not matching method is found
+    * @since 2.4
+    */
+    public static VelMethod getMethod(String methodName, Object[] params,
+                                    Class<?>[] paramClasses, Object o, InternalContextAdapter context,
+                                    SimpleNode node, Info info, boolean strictRef)
     {
         VelMethod method = null;
         try
@@ -200,8 +221,11 @@ public static VelMethod getMethod(String methodName, Object[] params,
                 /*
                 * otherwise, do the introspection, and then cache it
                 */
-                method = node.getRuntimeServices().getUberspect().getMethod(o, methodName, params,
-                    new Info(node.getTemplateName(), node.getLine(), node.getColumn()));
+                if (info == null)
+                {
+                    info = new Info(node.getTemplateName(), node.getLine(), node.getColumn());
+                }
+                method = node.getRuntimeServices().getUberspect().getMethod(o, methodName, params, info);
 
                 if (method != null)
                 {
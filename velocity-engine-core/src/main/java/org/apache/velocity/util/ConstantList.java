@@ -0,0 +1,126 @@
+package org.apache.velocity.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <p>List value of a constant list literal, like <code>["draft", "live"]</code>. The elements
+ * are materialized once, and each evaluation of the literal gets its own ConstantList
+ * sharing them.</p>
+ * <p>Modifications are supported: the first one copies the elements into a private
+ * <code>ArrayList</code>, so that they never affect other evaluations.</p>
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class ConstantList extends AbstractList<Object> implements RandomAccess
+{
+    /**
+     * Shared elements
+     */
+    private final Object[] elements;
+
+    /**
+     * Private copy of the elements, once modified
+     */
+    private List<Object> copy = null;
+
+    /**
+     * Creates a list of the given elements, which must not be modified afterwards.
+     * @param elements
+     */
+    public ConstantList(Object[] elements)
+    {
+        this.elements = elements;
+    }
+
+    /**
+     * Creates a list with the same elements as the given one, sharing them if it was not modified.
+     * @param list
+     */
+    public ConstantList(ConstantList list)
+    {
+        elements = list.copy == null ? list.elements : list.copy.toArray();
+    }
+
+    /**
+     * @return private copy of the elements, to be modified
+     */
+    private List<Object> modified()
+    {
+        if (copy == null)
+        {
+            copy = new ArrayList<>(Arrays.asList(elements));
+        }
+        return copy;
+    }
+
+    @Override
+    public Object get(int index)
+    {
+        return copy == null ? elements[index] : copy.get(index);
+    }
+
+    @Override
+    public int size()
+    {
+        return copy == null ? elements.length : copy.size();
+    }
+
+    @Override
+    public Object set(int index, Object element)
+    {
+        return modified().set(index, element);
+    }
+
+    @Override
+    public void add(int index, Object element)
+    {
+        modified().add(index, element);
+        ++modCount;
+    }
+
+    @Override
+    public boolean addAll(Collection<?> c)
+    {
+        ++modCount;
+        return modified().addAll(c);
+    }
+
+    @Override
+    public Object remove(int index)
+    {
+        ++modCount;
+        return modified().remove(index);
+    }
+
+    @Override
+    public void clear()
+    {
+        ++modCount;
+        copy = new ArrayList<>();
+    }
+}
@@ -0,0 +1,306 @@
+package org.apache.velocity.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>Map value of a constant map literal, like <code>{"draft":"gray", "live":"green"}</code>.
+ * The entries are materialized once, and each evaluation of the literal gets its own
+ * ConstantMap sharing them. Keys are looked up by a linear scan for small maps, and through
+ * a shared hash index for bigger ones.</p>
+ * <p>Modifications are supported, including through the entry set and its iterators: the
+ * first one copies the entries into a private <code>LinkedHashMap</code>, so that they never
+ * affect other evaluations.</p>
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class ConstantMap extends AbstractMap<Object, Object>
+{
+    /**
+     * Maximum number of entries looked up by a linear scan
+     */
+    private static final int MAX_SCANNED_SIZE = 8;
+
+    /**
+     * Shared keys, in insertion order
+     */
+    private final Object[] keys;
+
+    /**
+     * Shared values
+     */
+    private final Object[] values;
+
+    /**
+     * Shared index of the keys positions, for big maps
+     */
+    private final Map<Object, Integer> index;
+
+    /**
+     * Private copy of the entries, once modified
+     */
+    private Map<Object, Object> copy = null;
+
+    /**
+     * Creates a map with the given entries, which can be modified afterwards.
+     * @param map
+     */
+    public ConstantMap(Map<?, ?> map)
+    {
+        if (map instanceof ConstantMap && ((ConstantMap)map).copy == null)
+        {
+            ConstantMap other = (ConstantMap)map;
+            keys = other.keys;
+            values = other.values;
+            index = other.index;
+        }
+        else
+        {
+            int size = map.size();
+            keys = new Object[size];
+            values = new Object[size];
+            int i = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet())
+            {
+                keys[i] = entry.getKey();
+                values[i] = entry.getValue();
+                ++i;
+            }
+            if (size > MAX_SCANNED_SIZE)
+            {
+                index = new HashMap<>(size * 2);
+                for (i = 0; i < size; ++i)
+                {
+                    index.put(keys[i], i);
+                }
+            }
+            else
+            {
+                index = null;
+            }
+        }
+    }
+
+    /**
+     * @return private copy of the entries, to be modified
+     */
+    private Map<Object, Object> modified()
+    {
+        if (copy == null)
+        {
+            copy = new LinkedHashMap<>(keys.length * 2);
+            for (int i = 0; i < keys.length; ++i)
+            {
+                copy.put(keys[i], values[i]);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * @param key
+     * @return position of the given key, or -1
+     */
+    private int indexOf(Object key)
+    {
+        if (index != null)
+        {
+            Integer i = index.get(key);
+            return i == null ? -1 : i;
+        }
+        for (int i = 0; i < keys.length; ++i)
+        {
+            if (Objects.equals(keys[i], key))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size()
+    {
+        return copy == null ? keys.length : copy.size();
+    }
+
+    @Override
+    public Object get(Object key)
+    {
+        if (copy != null)
+        {
+            return copy.get(key);
+        }
+        int i = indexOf(key);
+        return i == -1 ? null : values[i];
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return copy == null ? indexOf(key) != -1 : copy.containsKey(key);
+    }
+
+    @Override
+    public Object put(Object key, Object value)
+    {
+        return modified().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key)
+    {
+        return modified().remove(key);
+    }
+
+    @Override
+    public void putAll(Map<?, ?> m)
+    {
+        modified().putAll(m);
+    }
+
+    @Override
+    public void clear()
+    {
+        copy = new LinkedHashMap<>();
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet()
+    {
+        return copy == null ? new EntrySet() : copy.entrySet();
+    }
+
+    /**
+     * Entry set of a map which has not been modified yet
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<Object, Object>>
+    {
+        @Override
+        public Iterator<Map.Entry<Object, Object>> iterator()
+        {
+            return copy == null ? new EntryIterator() : copy.entrySet().iterator();
+        }
+
+        @Override
+        public int size()
+        {
+            return ConstantMap.this.size();
+        }
+    }
+
+    /**
+     * Iterator over the shared entries. Removals are applied to the private copy.
+     */
+    private class EntryIterator implements Iterator<Map.Entry<Object, Object>>
+    {
+        private int next = 0;
+
+        @Override
+        public boolean hasNext()
+        {
+            return next < keys.length;
+        }
+
+        @Override
+        public Map.Entry<Object, Object> next()
+        {
+            if (next >= keys.length)
+            {
+                throw new NoSuchElementException();
+            }
+            return new Entry(next++);
+        }
+
+        @Override
+        public void remove()
+        {
+            if (next == 0)
+            {
+                throw new IllegalStateException();
+            }
+            modified().remove(keys[next - 1]);
+        }
+    }
+
+    /**
+     * Entry of the shared entries. Value changes are applied to the private copy.
+     */
+    private class Entry implements Map.Entry<Object, Object>
+    {
+        private final int position;
+
+        private Entry(int position)
+        {
+            this.position = position;
+        }
+
+        @Override
+        public Object getKey()
+        {
+            return keys[position];
+        }
+
+        @Override
+        public Object getValue()
+        {
+            return copy == null ? values[position] : copy.get(keys[position]);
+        }
+
+        @Override
+        public Object setValue(Object value)
+        {
+            return modified().put(keys[position], value);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Map.Entry))
+            {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>)o;
+            return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString()
+        {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
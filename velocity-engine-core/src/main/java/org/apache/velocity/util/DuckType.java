@@ -23,8 +23,6 @@
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
 
 import static org.apache.velocity.runtime.parser.node.MathUtils.isZero;
 
@@ -47,35 +45,62 @@
         SIZE("size");
 
         final String name;
-        final Map<Class<?>, Object> cache = new HashMap<>();
 
         Types(String name)
         {
             this.name = name;
         }
+    }
 
-        void set(Class<?> c, Object o)
-        {
-            cache.put(c, o);
-        }
+    protected static final Object NO_METHOD = new Object();
 
-        Object get(Class<?> c)
+    /**
+     * Duck typing methods and properties of a class, looked up once per class.
+     * @since 2.4
+     */
+    private static final class ClassMethods
+    {
+        final boolean isArray;
+        final boolean isNumber;
+        final Method[] methods;
+
+        ClassMethods(Class<?> c)
         {
-            return cache.get(c);
+            isArray = c.isArray();
+            isNumber = Number.class.isAssignableFrom(c);
+            Types[] types = Types.values();
+            methods = new Method[types.length];
+            for (Types type : types)
+            {
+                methods[type.ordinal()] = findMethod(c, type);
+            }
         }
     }
 
-    protected static final Object NO_METHOD = new Object();
+    /**
+     * Cache of the duck typing methods of each class. A {@link ClassValue} does not
+     * prevent classes from being unloaded, and can be read concurrently without locking.
+     */
+    private static volatile ClassValue<ClassMethods> classMethods = newCache();
+
+    private static ClassValue<ClassMethods> newCache()
+    {
+        return new ClassValue<ClassMethods>()
+        {
+            @Override
+            protected ClassMethods computeValue(Class<?> c)
+            {
+                return new ClassMethods(c);
+            }
+        };
+    }
 
     /**
      * Clears the internal cache of all the underlying Types.
      */
     public static void clearCache()
     {
-        for(Types type : Types.values())
-        {
-            type.cache.clear();
-        }
+        classMethods = newCache();
     }
         
     public static String asString(Object value)
@@ -132,14 +157,15 @@ public static boolean asBoolean(Object value, boolean coerceType)
         {
             return (Boolean) value;
         }
-        Object got = get(value, Types.BOOLEAN);
+        ClassMethods methods = classMethods.get(value.getClass());
+        Object got = invoke(value, methods, Types.BOOLEAN);
         if (got != NO_METHOD)
         {
             return (Boolean) got;
         }
         if (coerceType)
         {
-            return !asEmpty(value);
+            return !asEmpty(value, methods);
         }
         return true;
     }
@@ -153,41 +179,46 @@ public static boolean asEmpty(Object value)
             return true;
         }
 
+        return asEmpty(value, classMethods.get(value.getClass()));
+    }
+
+    private static boolean asEmpty(Object value, ClassMethods methods)
+    {
         // empty array
-        if (value.getClass().isArray())
+        if (methods.isArray)
         {
             return Array.getLength(value) == 0;// [] is false
         }
 
         // isEmpty() for object / string
-        Object isEmpty = get(value, Types.EMPTY);
+        Object isEmpty = invoke(value, methods, Types.EMPTY);
         if (isEmpty != NO_METHOD)
         {
             return (Boolean)isEmpty;
         }
 
         // isEmpty() for object / other char sequences
-        Object length = get(value, Types.LENGTH);
+        Object length = invoke(value, methods, Types.LENGTH);
         if (length != NO_METHOD && length instanceof Number)
         {
             return isZero((Number)length);
         }
 
         // size() object / collection
-        Object size = get(value, Types.SIZE);
+        Object size = invoke(value, methods, Types.SIZE);
         if (size != NO_METHOD && size instanceof Number)
         {
             return isZero((Number)size);
         }
 
         // zero numbers are false
-        if (value instanceof Number)
+        if (methods.isNumber)
         {
             return isZero((Number)value);
         }
 
         // null getAsString()
-        Object asString = get(value, Types.STRING);
+        Object asString = invoke(value, methods, Types.STRING);
         if (asString == null)
         {
             return true;// duck null
@@ -199,7 +230,7 @@ else if (asString != NO_METHOD)
         }
 
         // null getAsNumber()
-        Object asNumber = get(value, Types.NUMBER);
+        Object asNumber = invoke(value, methods, Types.NUMBER);
         if (asNumber == null)
         {
             return true;
@@ -246,27 +277,18 @@ public static Number asNumber(Object value, boolean coerceType)
 
     protected static Object get(Object value, Types type)
     {
+        return invoke(value, classMethods.get(value.getClass()), type);
+    }
+
+    private static Object invoke(Object value, ClassMethods methods, Types type)
+    {
+        Method method = methods.methods[type.ordinal()];
+        if (method == null)
+        {
+            return NO_METHOD;
+        }
         try
         {
-            // check cache
-            Class<?> c = value.getClass();
-            Object cached = type.get(c);
-            if (cached == NO_METHOD)
-            {
-                return cached;
-            }
-            if (cached != null)
-            {
-                return ((Method)cached).invoke(value);
-            }
-            // ok, search the class
-            Method method = findMethod(c, type);
-            if (method == null)
-            {
-                type.set(c, NO_METHOD);
-                return NO_METHOD;
-            }
-            type.set(c, method);
             return method.invoke(value);
         }
         catch (RuntimeException re)
@@ -0,0 +1,99 @@
+package org.apache.velocity.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Canonicalization table for the strings held by template nodes (static text,
+ * identifiers, method names and constant string literals), so that identical
+ * content found in several templates is only kept once in memory.</p>
+ * <p>Both keys and values are weakly referenced: an entry disappears as soon as no
+ * template uses its string anymore.</p>
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public final class StringTable
+{
+    /**
+     * Canonical strings, each one mapped to a weak reference to itself
+     */
+    private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+    /**
+     * Approximate number of bytes of the duplicates replaced by a canonical string
+     */
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Returns the canonical instance of the given string.
+     * @param str
+     * @return canonical string equal to <code>str</code>, or <code>str</code> itself
+     * if it is the first occurrence
+     */
+    public String canonicalize(String str)
+    {
+        if (str == null || str.isEmpty())
+        {
+            return str;
+        }
+        String canonical;
+        synchronized (strings)
+        {
+            WeakReference<String> ref = strings.get(str);
+            canonical = ref == null ? null : ref.get();
+            if (canonical == null)
+            {
+                strings.put(str, new WeakReference<>(str));
+                return str;
+            }
+        }
+        if (canonical != str)
+        {
+            // count two bytes per character, as for UTF-16 string storage
+            bytesSaved.add(2L * str.length());
+        }
+        return canonical;
+    }
+
+    /**
+     * @return approximate number of bytes saved by returning canonical strings
+     * instead of duplicates
+     */
+    public long getBytesSaved()
+    {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * @return number of canonical strings currently held
+     */
+    public int size()
+    {
+        synchronized (strings)
+        {
+            return strings.size();
+        }
+    }
+}
@@ -21,16 +21,22 @@
 
 import org.slf4j.Logger;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A cache of introspection information for a specific class instance.
- * Keys {@link java.lang.reflect.Method} objects by a concatenation of the
- * method name and the names of classes that make up the parameters.
+ * Keys {@link java.lang.reflect.Method} objects by the method name and
+ * the classes that make up the parameters, and memoizes overload resolutions
+ * for each tuple of arguments classes. The memo only holds weak references
+ * to the arguments classes, so that it doesn't pin their class loaders.
  *
  * @author <a href="mailto:jvanzyl@apache.org">Jason van Zyl</a>
  * @author <a href="mailto:bob@werken.com">Bob McWhirter</a>
@@ -113,6 +119,24 @@ public Class<?> getCachedClass()
      */
     public Method findMethod(final String name, final Object[] params)
             throws MethodMap.AmbiguousException
+    {
+        ResolvedMethod resolved = methodCache.get(name, params);
+        return resolved == null ? null : resolved.getMethod();
+    }
+
+    /**
+     * Find a Method using the method name and parameter objects, along with
+     * the converters needed for those parameters. Resolutions are memoized
+     * for each tuple of parameters classes.
+     *
+     * @param name The method name to look up.
+     * @param params An array of parameters for the method.
+     * @return the resolved method, or null.
+     * @throws MethodMap.AmbiguousException When more than one method is a match for the parameters.
+     * @since 2.4
+     */
+    public ResolvedMethod findResolvedMethod(final String name, final Object[] params)
+            throws MethodMap.AmbiguousException
     {
         return methodCache.get(name, params);
     }
@@ -204,103 +228,163 @@ private void populateMethodCacheWith(MethodCache methodCache, Class<?> classToRe
     {
         private static final Object CACHE_MISS = new Object();
 
-        private static final String NULL_ARG = Object.class.getName();
-
-        private static final Map<Class<?>, String> convertPrimitives = new HashMap();
-
-        static
-        {
-            convertPrimitives.put(Boolean.TYPE,   Boolean.class.getName());
-            convertPrimitives.put(Byte.TYPE,      Byte.class.getName());
-            convertPrimitives.put(Character.TYPE, Character.class.getName());
-            convertPrimitives.put(Double.TYPE,    Double.class.getName());
-            convertPrimitives.put(Float.TYPE,     Float.class.getName());
-            convertPrimitives.put(Integer.TYPE,   Integer.class.getName());
-            convertPrimitives.put(Long.TYPE,      Long.class.getName());
-            convertPrimitives.put(Short.TYPE,     Short.class.getName());
-        }
+        private static final Object AMBIGUOUS = new Object();
 
     	/** Class logger */
 	    private final Logger log;
 
         /**
-         * Cache of Methods, or CACHE_MISS, keyed by method
-         * name and actual arguments used to find it.
+         * Public methods, keyed by method name and parameter
+         * types (with primitive types boxed).
+         */
+        private final Map<MethodKey, Method> directHits = new HashMap<>();
+
+        /**
+         * Memo of resolved methods, CACHE_MISS or AMBIGUOUS, keyed by
+         * method name and actual arguments classes (including null positions),
+         * weakly referenced.
          */
-        private final Map<Object, Object> cache = new ConcurrentHashMap<>();
+        private final Map<MethodKey, Object> cache = new ConcurrentHashMap<>();
+
+        /** Collected arguments classes, whose memo entries are to be expunged */
+        private final ReferenceQueue<Class<?>> staleClasses = new ReferenceQueue<>();
 
         /** Map of methods that are searchable according to method parameters to find a match */
         private final MethodMap methodMap;
 
+        /** Conversion handler, used to select the needed argument converters */
+        private final TypeConversionHandler conversionHandler;
+
         private MethodCache(Logger log, TypeConversionHandler conversionHandler)
         {
             this.log = log;
+            this.conversionHandler = conversionHandler;
             methodMap = new MethodMap(conversionHandler);
         }
 
         /**
          * Find a Method using the method name and parameter objects.
          *
-         * Look in the methodMap for an entry.  If found,
+         * Look in the memo for an entry.  If found,
          * it'll either be a CACHE_MISS, in which case we
-         * simply give up, or it'll be a Method, in which
-         * case, we return it.
+         * simply give up, an AMBIGUOUS marker, or a
+         * resolved method, in which case, we return it.
          *
          * If nothing is found, then we must actually go
-         * and introspect the method from the MethodMap.
+         * and look for a direct hit, or introspect the
+         * method from the MethodMap.
          *
          * @param name The method name to look up.
          * @param params An array of parameters for the method.
-         * @return A Method object representing the method to invoke or null.
+         * @return the resolved method, or null.
          * @throws MethodMap.AmbiguousException When more than one method is a match for the parameters.
          */
-        public Method get(final String name, final Object [] params)
+        public ResolvedMethod get(final String name, final Object [] params)
                 throws MethodMap.AmbiguousException
         {
-            String methodKey = makeMethodKey(name, params);
+            MethodKey methodKey = new MethodKey(name, params);
 
             Object cacheEntry = cache.get(methodKey);
+            if (cacheEntry == null)
+            {
+                cacheEntry = resolve(methodKey, params);
+                memoize(methodKey, cacheEntry);
+            }
+
             if (cacheEntry == CACHE_MISS)
             {
                 // We looked this up before and failed.
                 return null;
             }
+            else if (cacheEntry == AMBIGUOUS)
+            {
+                throw new MethodMap.AmbiguousException();
+            }
+            return (ResolvedMethod) cacheEntry;
+        }
 
-            if (cacheEntry == null)
+        /**
+         * Resolve the method and the converters needed for the given arguments.
+         * As they always did, null arguments share the method found for Object
+         * arguments, the converters being selected for the actual arguments.
+         * @param methodKey method key
+         * @param params arguments
+         * @return resolved method, CACHE_MISS or AMBIGUOUS
+         */
+        private Object resolve(MethodKey methodKey, Object[] params)
+        {
+            MethodKey objectsKey = methodKey.withNullsAsObjects();
+            Object shared = objectsKey == methodKey ? null : cache.get(objectsKey);
+            Method method;
+            if (shared == null)
             {
-                try
+                method = directHits.get(objectsKey);
+                if (method == null)
                 {
-                    // That one is expensive...
-                    cacheEntry = methodMap.find(name, params);
+                    try
+                    {
+                        // That one is expensive...
+                        method = methodMap.find(methodKey.name, params);
+                    }
+                    catch(MethodMap.AmbiguousException ae)
+                    {
+                        method = null;
+                        shared = AMBIGUOUS;
+                    }
+                    if (method == null && shared == null)
+                    {
+                        shared = CACHE_MISS;
+                    }
                 }
-                catch(MethodMap.AmbiguousException ae)
+                if (objectsKey != methodKey)
                 {
-                    /*
-                     *  that's a miss :-)
-                     */
-                    cache.put(methodKey, CACHE_MISS);
-                    throw ae;
+                    memoize(objectsKey, shared != null ? shared : resolved(method, objectsKey));
                 }
-
-                cache.put(methodKey,
-                        (cacheEntry != null) ? cacheEntry : CACHE_MISS);
             }
+            else if (shared instanceof ResolvedMethod)
+            {
+                method = ((ResolvedMethod)shared).getMethod();
+            }
+            else
+            {
+                return shared;
+            }
+            return method == null ? shared : resolved(method, methodKey);
+        }
 
-            // Yes, this might just be null.
-            return (Method) cacheEntry;
+        private ResolvedMethod resolved(Method method, MethodKey methodKey)
+        {
+            return new ResolvedMethod(method,
+                ResolvedMethod.getNeededConverters(conversionHandler, method.getGenericParameterTypes(), methodKey.classes));
+        }
+
+        /**
+         * Store a memo entry under a weak copy of the given key, after having
+         * expunged the entries of collected arguments classes.
+         * @param methodKey method key
+         * @param cacheEntry resolved method, CACHE_MISS or AMBIGUOUS
+         */
+        private void memoize(MethodKey methodKey, Object cacheEntry)
+        {
+            Reference<? extends Class<?>> stale;
+            while ((stale = staleClasses.poll()) != null)
+            {
+                cache.remove(((ClassReference)stale).key);
+            }
+            cache.putIfAbsent(methodKey.weakCopy(staleClasses), cacheEntry);
         }
 
         private void put(Method method)
         {
-            String methodKey = makeMethodKey(method);
+            MethodKey methodKey = new MethodKey(method);
 
             // We don't overwrite methods because we fill the
             // cache from defined class towards java.lang.Object
             // and that would cause overridden methods to appear
             // as if they were not overridden.
-            if (cache.get(methodKey) == null)
+            if (directHits.get(methodKey) == null)
             {
-                cache.put(methodKey, method);
+                directHits.put(methodKey, method);
                 methodMap.add(method);
                 if (debugReflection)
                 {
@@ -308,73 +392,201 @@ private void put(Method method)
                 }
             }
         }
+    }
+
+    /**
+     * Method lookup key: method name and classes of the parameters.
+     */
+    private static class MethodKey
+    {
+        private static final Class<?>[] NO_CLASSES = new Class<?>[0];
+
+        protected final String name;
+
+        private final Class<?>[] classes;
+
+        private final int hashCode;
 
         /**
-         * Make a methodKey for the given method using
-         * the concatenation of the name and the
-         * types of the method parameters.
-         *
+         * Make a method key for the given method using
+         * the name and the types of the method parameters.
+         * If an argument type is primitive then we want
+         * to convert our primitive type signature to the
+         * corresponding Object type so introspection for
+         * methods with primitive types will work correctly.
          * @param method to be stored as key
-         * @return key for ClassMap
          */
-        private String makeMethodKey(final Method method)
+        private MethodKey(Method method)
         {
-            Class<?>[] parameterTypes = method.getParameterTypes();
-            int args = parameterTypes.length;
-            if (args == 0)
+            this(method.getName(), method.getParameterTypes());
+            for (int i = 0; i < classes.length; ++i)
             {
-                return method.getName();
+                classes[i] = IntrospectionUtils.getBoxedClass(classes[i]);
             }
+        }
 
-            StringBuilder methodKey = new StringBuilder((args+1)*16).append(method.getName());
+        /**
+         * Make a method key for the given method name and arguments,
+         * with null classes for null arguments.
+         * @param name method name
+         * @param params arguments
+         */
+        private MethodKey(String name, Object[] params)
+        {
+            this(name, classesOf(params));
+        }
 
-            for (Class<?> parameterType : parameterTypes)
-            {
-                /*
-                 * If the argument type is primitive then we want
-                 * to convert our primitive type signature to the
-                 * corresponding Object type so introspection for
-                 * methods with primitive types will work correctly.
-                 *
-                 * The lookup map (convertPrimitives) contains all eight
-                 * primitives (boolean, byte, char, double, float, int, long, short)
-                 * known to Java. So it should never return null for the key passed in.
-                 */
-                if (parameterType.isPrimitive())
-                {
-                    methodKey.append((String) convertPrimitives.get(parameterType));
-                } else
-                {
-                    methodKey.append(parameterType.getName());
-                }
-            }
+        private MethodKey(String name, Class<?>[] classes)
+        {
+            this(name, classes, 31 * name.hashCode() + Arrays.hashCode(classes));
+        }
 
-            return methodKey.toString();
+        protected MethodKey(String name, Class<?>[] classes, int hashCode)
+        {
+            this.name = name;
+            this.classes = classes;
+            this.hashCode = hashCode;
         }
 
-        private String makeMethodKey(String method, Object[] params)
+        private static Class<?>[] classesOf(Object[] params)
         {
             int args = params.length;
             if (args == 0)
             {
-                return method;
+                return NO_CLASSES;
             }
+            Class<?>[] classes = new Class<?>[args];
+            for (int i = 0; i < args; ++i)
+            {
+                Object arg = params[i];
+                classes[i] = arg == null ? null : arg.getClass();
+            }
+            return classes;
+        }
 
-            StringBuilder methodKey = new StringBuilder((args+1)*16).append(method);
-
-            for (Object arg : params)
+        /**
+         * @return same key, with Object instead of the null argument classes
+         */
+        private MethodKey withNullsAsObjects()
+        {
+            Class<?>[] nonNull = null;
+            for (int i = 0; i < classes.length; ++i)
             {
-                if (arg == null)
+                if (classes[i] == null)
                 {
-                    methodKey.append(NULL_ARG);
+                    if (nonNull == null)
+                    {
+                        nonNull = classes.clone();
+                    }
+                    nonNull[i] = Object.class;
                 }
-                else
+            }
+            return nonNull == null ? this : new MethodKey(name, nonNull);
+        }
+
+        /**
+         * @param queue queue to which collected classes are to be enqueued
+         * @return equal key, holding weak references to the classes
+         */
+        private MethodKey weakCopy(ReferenceQueue<Class<?>> queue)
+        {
+            return classes.length == 0 ? this : new WeakMethodKey(this, queue);
+        }
+
+        protected int size()
+        {
+            return classes.length;
+        }
+
+        protected Class<?> classAt(int i)
+        {
+            return classes[i];
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof MethodKey))
+            {
+                return false;
+            }
+            MethodKey other = (MethodKey)o;
+            if (hashCode != other.hashCode || !name.equals(other.name) || size() != other.size())
+            {
+                return false;
+            }
+            for (int i = 0; i < size(); ++i)
+            {
+                if (classAt(i) != other.classAt(i))
                 {
-                    methodKey.append(arg.getClass().getName());
+                    return false;
                 }
             }
+            return true;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Memo key, holding weak references to the arguments classes.
+     */
+    private static final class WeakMethodKey extends MethodKey
+    {
+        /** stands for a collected class, so that it never equals a null argument */
+        private static final class Collected {}
+
+        private final ClassReference[] references;
+
+        private WeakMethodKey(MethodKey key, ReferenceQueue<Class<?>> queue)
+        {
+            super(key.name, null, key.hashCode());
+            references = new ClassReference[key.size()];
+            for (int i = 0; i < references.length; ++i)
+            {
+                Class<?> clazz = key.classAt(i);
+                references[i] = clazz == null ? null : new ClassReference(clazz, queue, this);
+            }
+        }
 
-            return methodKey.toString();
+        @Override
+        protected int size()
+        {
+            return references.length;
+        }
+
+        @Override
+        protected Class<?> classAt(int i)
+        {
+            ClassReference reference = references[i];
+            if (reference == null)
+            {
+                return null;
+            }
+            Class<?> clazz = reference.get();
+            return clazz == null ? Collected.class : clazz;
+        }
+    }
+
+    /**
+     * Weak reference to an argument class, which knows its memo key.
+     */
+    private static final class ClassReference extends WeakReference<Class<?>>
+    {
+        private final MethodKey key;
+
+        private ClassReference(Class<?> clazz, ReferenceQueue<Class<?>> queue, MethodKey key)
+        {
+            super(clazz, queue);
+            this.key = key;
         }
     }
 }
@@ -54,6 +54,12 @@
  */
 public class Introspector extends IntrospectorBase
 {
+    /** Conversion handler, used to select converters for methods found by an overridden getMethod() */
+    private final TypeConversionHandler conversionHandler;
+
+    /** Whether a subclass overrides {@link #getMethod(Class, String, Object[])} */
+    private final boolean customGetMethod;
+
     /**
      * @param log A Logger object to use for the introspector.
      * @since 1.5
@@ -71,6 +77,25 @@ public Introspector(final Logger log)
     public Introspector(final Logger log, TypeConversionHandler conversionHandler)
     {
         super(log, conversionHandler);
+        this.conversionHandler = conversionHandler;
+        customGetMethod = overridesGetMethod(getClass());
+    }
+
+    /**
+     * @param clazz introspector class
+     * @return whether the given class overrides the getMethod() of this class or of SecureIntrospectorImpl
+     */
+    private static boolean overridesGetMethod(Class<?> clazz)
+    {
+        try
+        {
+            Class<?> declaring = clazz.getMethod("getMethod", Class.class, String.class, Object[].class).getDeclaringClass();
+            return declaring != Introspector.class && declaring != SecureIntrospectorImpl.class;
+        }
+        catch (NoSuchMethodException nsme)
+        {
+            return false;
+        }
     }
 
     /**
@@ -95,38 +120,93 @@ public Method getMethod(final Class<?> c, final String name, final Object[] para
         }
         catch(MethodMap.AmbiguousException ae)
         {
-            /*
-             *  whoops.  Ambiguous.  Make a nice log message and return null...
-             */
+            logAmbiguousMethod(c, name, params);
+        }
 
-            StringBuilder msg = new StringBuilder("Introspection Error: Ambiguous method invocation ")
-                    .append(name)
-                    .append("(");
+        return null;
+    }
 
-            for (int i = 0; i < params.length; i++)
+    /**
+     * Gets the method defined by <code>name</code> and
+     * <code>params</code> for the Class <code>c</code>, along with
+     * the converters needed to adapt the parameters.
+     *
+     * If a subclass overrides {@link #getMethod(Class, String, Object[])},
+     * the method is looked up through this override, and only the
+     * converters are selected here, without any memoization. Subclasses
+     * should rather override this method to benefit from the memoized
+     * resolutions.
+     *
+     * @param c Class in which the method search is taking place
+     * @param name Name of the method being searched for
+     * @param params An array of Objects (not Classes) that describe the
+     *               the parameters
+     *
+     * @return The resolved method, or null.
+     * @throws IllegalArgumentException When the parameters passed in can not be used for introspection.
+     * @since 2.4
+     */
+    @Override
+    public ResolvedMethod getResolvedMethod(final Class<?> c, final String name, final Object[] params)
+        throws IllegalArgumentException
+    {
+        if (customGetMethod)
+        {
+            Method method = getMethod(c, name, params);
+            if (method == null)
+            {
+                return null;
+            }
+            Class<?>[] classes = new Class<?>[params.length];
+            for (int i = 0; i < params.length; ++i)
             {
-                if (i > 0)
-                {
-                    msg.append(", ");
-                }
-
-                if (params[i] == null)
-                {
-                    msg.append("null");
-                }
-                else
-                {
-                    msg.append(params[i].getClass().getName());
-                }
+                classes[i] = params[i] == null ? null : params[i].getClass();
             }
+            return new ResolvedMethod(method,
+                ResolvedMethod.getNeededConverters(conversionHandler, method.getGenericParameterTypes(), classes));
+        }
+        try
+        {
+            return super.getResolvedMethod(c, name, params);
+        }
+        catch(MethodMap.AmbiguousException ae)
+        {
+            logAmbiguousMethod(c, name, params);
+        }
 
-            msg.append(") for class ")
-                    .append(c);
+        return null;
+    }
 
-            log.debug(msg.toString());
+    /**
+     * whoops.  Ambiguous.  Make a nice log message...
+     */
+    private void logAmbiguousMethod(final Class<?> c, final String name, final Object[] params)
+    {
+        StringBuilder msg = new StringBuilder("Introspection Error: Ambiguous method invocation ")
+                .append(name)
+                .append("(");
+
+        for (int i = 0; i < params.length; i++)
+        {
+            if (i > 0)
+            {
+                msg.append(", ");
+            }
+
+            if (params[i] == null)
+            {
+                msg.append("null");
+            }
+            else
+            {
+                msg.append(params[i].getClass().getName());
+            }
         }
 
-        return null;
+        msg.append(") for class ")
+                .append(c);
+
+        log.debug(msg.toString());
     }
 
 }
@@ -100,6 +100,35 @@ public Method getMethod(final Class<?> c, final String name, final Object[] para
         return classMap.findMethod(name, Validate.notNull(params, "params object is null!"));
     }
 
+    /**
+     * Gets the method defined by <code>name</code> and
+     * <code>params</code> for the Class <code>c</code>, along with
+     * the converters needed to adapt the parameters.
+     *
+     * @param c Class in which the method search is taking place
+     * @param name Name of the method being searched for
+     * @param params An array of Objects (not Classes) that describe the
+     *               the parameters
+     *
+     * @return The resolved method, or null.
+     * @throws NullPointerException When the parameters passed in can not be used for introspection because null.
+     * @throws MethodMap.AmbiguousException When the method map contains more than one match for the requested signature.
+     * @since 2.4
+     */
+    public ResolvedMethod getResolvedMethod(final Class<?> c, final String name, final Object[] params)
+            throws MethodMap.AmbiguousException
+    {
+        IntrospectorCache ic = getIntrospectorCache();
+
+        ClassMap classMap = ic.get(Validate.notNull(c, "class object is null!"));
+        if (classMap == null)
+        {
+            classMap = ic.put(c);
+        }
+
+        return classMap.findResolvedMethod(name, Validate.notNull(params, "params object is null!"));
+    }
+
     /**
      * Gets the field defined by <code>name</code>.
      *
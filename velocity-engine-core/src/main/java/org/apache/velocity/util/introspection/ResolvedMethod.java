@@ -0,0 +1,94 @@
+package org.apache.velocity.util.introspection;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+/**
+ * A method resolved for a given tuple of argument classes, along with the
+ * converters needed to adapt the arguments to the method parameter types.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class ResolvedMethod
+{
+    private final Method method;
+
+    private final Converter<?>[] converters;
+
+    /**
+     * @param method resolved method
+     * @param converters needed converters, indexed by argument position, or null if no conversion is needed
+     */
+    public ResolvedMethod(Method method, Converter<?>[] converters)
+    {
+        this.method = method;
+        this.converters = converters;
+    }
+
+    /**
+     * @return resolved method
+     */
+    public Method getMethod()
+    {
+        return method;
+    }
+
+    /**
+     * @return needed converters, indexed by argument position (with null entries for arguments
+     * not needing any conversion), or null if no argument needs to be converted
+     */
+    public Converter<?>[] getConverters()
+    {
+        return converters;
+    }
+
+    /**
+     * Get the converters needed to adapt the provided arguments classes to the given parameter types
+     * @param conversionHandler conversion handler, may be null
+     * @param expected method parameter types
+     * @param provided arguments classes, with null entries for null arguments
+     * @return null if no conversion is needed, otherwise an array containing needed converters
+     */
+    static Converter<?>[] getNeededConverters(TypeConversionHandler conversionHandler, Type[] expected, Class<?>[] provided)
+    {
+        if (conversionHandler == null) return null;
+        // var args are not handled here - CB TODO
+        int n = Math.min(expected.length, provided.length);
+        Converter<?>[] converters = null;
+        for (int i = 0; i < n; ++i)
+        {
+            Class<?> arg = provided[i];
+            if (arg == null) continue;
+            Converter<?> converter = conversionHandler.getNeededConverter(expected[i], arg);
+            if (converter != null)
+            {
+                if (converters == null)
+                {
+                    converters = new Converter[expected.length];
+                }
+                converters[i] = converter;
+            }
+        }
+        return converters;
+    }
+}
@@ -22,6 +22,10 @@
 import org.slf4j.Logger;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * <p>Prevent "dangerous" classloader/reflection related calls.  Use this
@@ -38,14 +42,35 @@
  */
 public class SecureIntrospectorImpl extends Introspector implements SecureIntrospectorControl
 {
-    private String[] badClasses;
-    private String[] badPackages;
+    /**
+     * Restricted class and package names
+     */
+    private final Set<String> badClassSet;
+    private final Set<String> badPackageSet;
+
+    /**
+     * Cached verdicts for the methods of each class, apart from
+     * the few method names handled specifically
+     */
+    private final ClassValue<Boolean> classPermissions = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue(Class<?> clazz)
+        {
+            return checkClassPermission(clazz);
+        }
+    };
 
     public SecureIntrospectorImpl(String[] badClasses, String[] badPackages, Logger log)
     {
         super(log);
-        this.badClasses = badClasses;
-        this.badPackages = badPackages;
+        this.badClassSet = toSet(badClasses);
+        this.badPackageSet = toSet(badPackages);
+    }
+
+    private static Set<String> toSet(String[] names)
+    {
+        return names == null ? Collections.emptySet() : new HashSet<>(Arrays.asList(names));
     }
 
     /**
@@ -75,6 +100,34 @@ public Method getMethod(Class<?> clazz, String methodName, Object[] params)
         }
     }
 
+    /**
+     * Get the resolved method corresponding to the given class, name and parameters.
+     * Will check for appropriate execute permissions and return null if the method
+     * is not allowed to be executed.
+     *
+     * @param clazz Class on which method will be called
+     * @param methodName Name of method to be called
+     * @param params array of parameters to method
+     * @return resolved method
+     * @throws IllegalArgumentException The parameter passed in were incorrect.
+     * @since 2.4
+     */
+    @Override
+    public ResolvedMethod getResolvedMethod(Class<?> clazz, String methodName, Object[] params)
+        throws IllegalArgumentException
+    {
+        if (!checkObjectExecutePermission(clazz, methodName))
+        {
+            log.warn("Cannot retrieve method {} from object of class {} due to security restrictions."
+                     , methodName, clazz.getName());
+            return null;
+        }
+        else
+        {
+            return super.getResolvedMethod(clazz, methodName, params);
+        }
+    }
+
     /**
      * Determine which methods and classes to prevent from executing.  Always blocks
      * methods wait() and notify().  Always allows methods on Number, Boolean, and String.
@@ -99,26 +152,43 @@ public boolean checkObjectExecutePermission(Class<?> clazz, String methodName)
         }
 
         /*
-         * Always allow the most common classes - Number, Boolean and String
+         * Always allow Class.getName()
          */
-        else if (Number.class.isAssignableFrom(clazz))
+        else if (methodName != null && methodName.equals("getName") &&
+                 Class.class.isAssignableFrom(clazz))
         {
             return true;
         }
-        else if (Boolean.class.isAssignableFrom(clazz))
+
+        /*
+         * other verdicts only depend upon the class
+         */
+        return classPermissions.get(clazz);
+    }
+
+    /**
+     * Determine whether the methods of the given class are allowed to be executed,
+     * apart from the method names specifically handled by
+     * {@link #checkObjectExecutePermission(Class, String)}.
+     *
+     * @param clazz Class on which methods will be called
+     * @return true if the class methods may be called
+     * @since 2.4
+     */
+    protected boolean checkClassPermission(Class<?> clazz)
+    {
+        /*
+         * Always allow the most common classes - Number, Boolean and String
+         */
+        if (Number.class.isAssignableFrom(clazz))
         {
             return true;
         }
-        else if (String.class.isAssignableFrom(clazz))
+        else if (Boolean.class.isAssignableFrom(clazz))
         {
             return true;
         }
-
-        /*
-         * Always allow Class.getName()
-         */
-        else if (Class.class.isAssignableFrom(clazz) &&
-                 (methodName != null) && methodName.equals("getName"))
+        else if (String.class.isAssignableFrom(clazz))
         {
             return true;
         }
@@ -145,22 +215,6 @@ else if (Class.class.isAssignableFrom(clazz) &&
         int dotPos = className.lastIndexOf('.');
         String packageName = (dotPos == -1) ? "" : className.substring(0, dotPos);
 
-        for (String badPackage : badPackages)
-        {
-            if (packageName.equals(badPackage))
-            {
-                return false;
-            }
-        }
-
-        for (String badClass : badClasses)
-        {
-            if (className.equals(badClass))
-            {
-                return false;
-            }
-        }
-
-        return true;
+        return !badPackageSet.contains(packageName) && !badClassSet.contains(className);
     }
 }
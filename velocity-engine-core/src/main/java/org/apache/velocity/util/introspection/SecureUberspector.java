@@ -55,6 +55,7 @@ public void init()
                         .getStringArray(RuntimeConstants.INTROSPECTOR_RESTRICT_CLASSES);
 
         introspector = new SecureIntrospectorImpl(badClasses, badPackages, log);
+        preloadPropertyGetters();
     }
 
     /**
@@ -29,6 +29,7 @@
 import org.apache.velocity.runtime.parser.node.MapSetExecutor;
 import org.apache.velocity.runtime.parser.node.PropertyExecutor;
 import org.apache.velocity.runtime.parser.node.PutExecutor;
+import org.apache.velocity.runtime.parser.node.RecordComponentExecutor;
 import org.apache.velocity.runtime.parser.node.SetExecutor;
 import org.apache.velocity.runtime.parser.node.SetPropertyExecutor;
 import org.apache.velocity.util.ArrayIterator;
@@ -42,10 +43,12 @@
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *  Implementation of Uberspect to provide the default introspective
@@ -77,6 +80,23 @@ public class UberspectImpl implements Uberspect, RuntimeServicesAware
      */
     protected RuntimeServices rsvc;
 
+    /**
+     * marks missing properties in the property getters table
+     */
+    private static final Object NO_PROPERTY = new Object();
+
+    /**
+     * Property getters found for each class, by property name
+     */
+    private final ClassValue<Map<String, Object>> propertyGetters = new ClassValue<Map<String, Object>>()
+    {
+        @Override
+        protected Map<String, Object> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /**
      *  init - generates the Introspector. As the setup code
      *  makes sure that the log gets set before this is called,
@@ -86,6 +106,88 @@ public class UberspectImpl implements Uberspect, RuntimeServicesAware
     public void init()
     {
         introspector = new Introspector(log, conversionHandler);
+        preloadPropertyGetters();
+    }
+
+    /**
+     * Resolves upfront the property getters of the classes listed in the
+     * <code>introspector.preload.classes</code> property, so that rendering
+     * doesn't have to introspect them. Map classes are skipped, since their
+     * properties depend on their content.
+     * @since 2.4
+     */
+    protected void preloadPropertyGetters()
+    {
+        if (rsvc == null)
+        {
+            return;
+        }
+        String[] classNames = rsvc.getConfiguration().getStringArray(RuntimeConstants.INTROSPECTOR_PRELOAD_CLASSES);
+        for (String className : classNames)
+        {
+            Class<?> claz;
+            try
+            {
+                claz = ClassUtils.getClass(className);
+            }
+            catch (ClassNotFoundException cnfe)
+            {
+                String err = "The specified class for property getters preloading (" + className
+                    + ") does not exist or is not accessible to the current classloader.";
+                log.error(err);
+                throw new VelocityException(err, cnfe);
+            }
+            if (Map.class.isAssignableFrom(claz))
+            {
+                log.debug("Not preloading property getters of map class {}", className);
+                continue;
+            }
+            try
+            {
+                for (Method method : claz.getMethods())
+                {
+                    String name = method.getName();
+                    if (method.getParameterCount() > 0 || Modifier.isStatic(method.getModifiers()))
+                    {
+                        continue;
+                    }
+                    if (name.length() > 3 && name.startsWith("get"))
+                    {
+                        preloadPropertyGetter(claz, name.substring(3));
+                    }
+                    else if (name.length() > 2 && name.startsWith("is"))
+                    {
+                        preloadPropertyGetter(claz, name.substring(2));
+                    }
+                }
+                for (String component : RecordComponentExecutor.getRecordComponentNames(claz))
+                {
+                    getPropertyGet(claz, null, component);
+                }
+            }
+            catch (ReflectiveOperationException roe)
+            {
+                String err = "Could not preload property getters of class " + className;
+                log.error(err, roe);
+                throw new VelocityException(err, roe);
+            }
+        }
+    }
+
+    /**
+     * preloads a property getter, along with its variant with a flipped first character
+     * @param claz
+     * @param property property name, as found in the getter name
+     */
+    private void preloadPropertyGetter(Class<?> claz, String property)
+    {
+        getPropertyGet(claz, null, property);
+        char first = property.charAt(0);
+        char flipped = Character.isUpperCase(first) ? Character.toLowerCase(first) : Character.toUpperCase(first);
+        if (flipped != first)
+        {
+            getPropertyGet(claz, null, flipped + property.substring(1));
+        }
     }
 
     public TypeConversionHandler getConversionHandler()
@@ -293,10 +395,10 @@ public VelMethod getMethod(Object obj, String methodName, Object[] args, Info i)
             return null;
         }
 
-        Method m = introspector.getMethod(obj.getClass(), methodName, args);
+        ResolvedMethod m = introspector.getResolvedMethod(obj.getClass(), methodName, args);
         if (m != null)
         {
-            return new VelMethodImpl(m, false, getNeededConverters(m.getGenericParameterTypes(), args));
+            return new VelMethodImpl(m.getMethod(), false, m.getConverters());
         }
 
         Class<?> cls = obj.getClass();
@@ -304,53 +406,26 @@ public VelMethod getMethod(Object obj, String methodName, Object[] args, Info i)
         if (cls.isArray())
         {
             // check for support via our array->list wrapper
-            m = introspector.getMethod(ArrayListWrapper.class, methodName, args);
+            m = introspector.getResolvedMethod(ArrayListWrapper.class, methodName, args);
             if (m != null)
             {
                 // and create a method that knows to wrap the value
                 // before invoking the method
-                return new VelMethodImpl(m, true, getNeededConverters(m.getGenericParameterTypes(), args));
+                return new VelMethodImpl(m.getMethod(), true, m.getConverters());
             }
         }
         // watch for classes, to allow calling their static methods (VELOCITY-102)
         else if (cls == Class.class)
         {
-            m = introspector.getMethod((Class<?>)obj, methodName, args);
+            m = introspector.getResolvedMethod((Class<?>)obj, methodName, args);
             if (m != null)
             {
-                return new VelMethodImpl(m, false, getNeededConverters(m.getGenericParameterTypes(), args));
+                return new VelMethodImpl(m.getMethod(), false, m.getConverters());
             }
         }
         return null;
     }
 
-    /**
-     * get the list of needed converters to adapt passed argument types to method types
-     * @return null if not conversion needed, otherwise an array containing needed converters
-     */
-    private Converter<?>[] getNeededConverters(Type[] expected, Object[] provided)
-    {
-        if (conversionHandler == null) return null;
-        // var args are not handled here - CB TODO
-        int n = Math.min(expected.length, provided.length);
-        Converter<?>[] converters = null;
-        for (int i = 0; i < n; ++i)
-        {
-            Object arg = provided[i];
-            if (arg == null) continue;
-            Converter<?> converter = conversionHandler.getNeededConverter(expected[i], arg.getClass());
-            if (converter != null)
-            {
-                if (converters == null)
-                {
-                    converters = new Converter[expected.length];
-                }
-                converters[i] = converter;
-            }
-        }
-        return converters;
-    }
-
     /**
      * Property  getter
      * @param obj
@@ -366,8 +441,45 @@ public VelPropertyGet getPropertyGet(Object obj, String identifier, Info i)
             return null;
         }
 
-        Class<?> claz = obj.getClass();
+        return getPropertyGet(obj.getClass(), obj, identifier);
+    }
 
+    /**
+     * Property getter lookup, through the property getters table of the class
+     * @param claz object class
+     * @param obj object, or null if the class is not a map
+     * @param identifier property name
+     * @return A Velocity Getter Method, or null
+     */
+    private VelPropertyGet getPropertyGet(Class<?> claz, Object obj, String identifier)
+    {
+        if (identifier == null)
+        {
+            return findPropertyGet(claz, obj, identifier);
+        }
+        Map<String, Object> getters = propertyGetters.get(claz);
+        Object getter = getters.get(identifier);
+        if (getter == null)
+        {
+            getter = findPropertyGet(claz, obj, identifier);
+            if (getter == null)
+            {
+                getter = NO_PROPERTY;
+            }
+            getters.put(identifier, getter);
+        }
+        return getter == NO_PROPERTY ? null : (VelPropertyGet)getter;
+    }
+
+    /**
+     * Introspects a property getter
+     * @param claz object class
+     * @param obj object, or null if the class is not a map
+     * @param identifier property name
+     * @return A Velocity Getter Method, or null
+     */
+    private VelPropertyGet findPropertyGet(Class<?> claz, Object obj, String identifier)
+    {
         /*
          *  first try for a getFoo() type of property
          *  (also getfoo() )
@@ -401,10 +513,19 @@ public VelPropertyGet getPropertyGet(Object obj, String identifier, Info i)
                     identifier);
         }
 
+        /*
+         *  also look for a record component
+         */
+
+        if (!executor.isAlive())
+        {
+            executor = new RecordComponentExecutor(log, introspector, claz, identifier);
+        }
+
         /*
          * and idem on an array
          */
-        if (!executor.isAlive() && obj.getClass().isArray())
+        if (!executor.isAlive() && claz.isArray())
         {
             executor = new BooleanPropertyExecutor(log, introspector, ArrayListWrapper.class,
                     identifier, true);
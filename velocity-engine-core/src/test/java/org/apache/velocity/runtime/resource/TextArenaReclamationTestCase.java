@@ -0,0 +1,69 @@
+package org.apache.velocity.runtime.resource;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.velocity.Template;
+
+/**
+ * Test the reclamation of the space used by the texts of discarded templates.
+ * Templates collection is simulated, to avoid depending on the garbage collector.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class TextArenaReclamationTestCase extends TestCase
+{
+    private static final String TEXT;
+
+    static
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; ++i)
+        {
+            builder.append("reclaimed text ");
+        }
+        TEXT = builder.toString();
+    }
+
+    public TextArenaReclamationTestCase(String name)
+    {
+        super(name);
+    }
+
+    public void testReclamation() throws Exception
+    {
+        TextArena arena = new TextArena(4096, 16);
+        Template template = new Template();
+        arena.store(template, TEXT);
+        arena.store(template, TEXT);
+        assertTrue(arena.getAllocatedBytes() > 2 * TEXT.length());
+        assertEquals(4096, arena.getCapacity());
+
+        arena.discard(template);
+        assertEquals(0, arena.getAllocatedBytes());
+
+        // freed blocks are reused rather than mapping a new chunk
+        Template other = new Template();
+        long address = arena.store(other, TEXT);
+        assertEquals(TEXT, arena.getText(address));
+        assertEquals(4096, arena.getCapacity());
+    }
+}
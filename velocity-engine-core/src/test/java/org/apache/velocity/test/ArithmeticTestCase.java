@@ -190,6 +190,44 @@ private void negateHelper(Number n, double expectedResult, Class expectedResultT
         assertEquals ("ResultType does not match.", expectedResultType, result.getClass());
     }
 
+    /**
+     * Test the Integer, Long and Double fast paths, with the same results as the general ones
+     */
+    public void testFastPaths()
+    {
+        addHelper (Integer.MAX_VALUE, 1, (double)Integer.MAX_VALUE+1, Long.class);
+        addHelper (Integer.MIN_VALUE, -1, (double)Integer.MIN_VALUE-1, Long.class);
+        addHelper (1L, 2, 3, Long.class);
+        addHelper (Long.MAX_VALUE, 1L, (double)Long.MAX_VALUE+1, BigInteger.class);
+        addHelper (1, 2.5d, 3.5, Double.class);
+
+        subtractHelper (Integer.MIN_VALUE, 1, (double)Integer.MIN_VALUE-1, Long.class);
+        subtractHelper (0, Integer.MIN_VALUE, -(double)Integer.MIN_VALUE, Long.class);
+        subtractHelper (Long.MIN_VALUE, 1, (double)Long.MIN_VALUE-1, BigInteger.class);
+        subtractHelper (3L, 1, 2, Long.class);
+
+        multiplyHelper (Integer.MIN_VALUE, -1, -(double)Integer.MIN_VALUE, Long.class);
+        multiplyHelper (65536, 65536, 65536d*65536d, Long.class);
+        multiplyHelper (Long.MIN_VALUE, -1L, -(double)Long.MIN_VALUE, BigInteger.class);
+        multiplyHelper (Long.MAX_VALUE, 2, 2d*Long.MAX_VALUE, BigInteger.class);
+        multiplyHelper (3L, -4, -12, Long.class);
+        multiplyHelper (3d, 4L, 12, Double.class);
+
+        divideHelper (Integer.MIN_VALUE, -1, -(double)Integer.MIN_VALUE, Long.class);
+        divideHelper (7L, 2, 3, Long.class);
+        divideHelper (7, 2d, 3.5, Double.class);
+
+        moduloHelper (-7, 3, -1, Integer.class);
+        moduloHelper (7L, 3, 1, Long.class);
+
+        compareHelper (Long.MAX_VALUE, Integer.MIN_VALUE, 1);
+        compareHelper (Integer.MIN_VALUE, Long.MAX_VALUE, -1);
+        compareHelper (5L, 5, 0);
+
+        assertTrue (MathUtils.isZero (0L));
+        assertTrue (!MathUtils.isZero (1L));
+    }
+
 /*
  *
  *    COMMENT OUT FOR PERFORMANCE-MEASSUREMENTS
@@ -21,6 +21,7 @@
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
@@ -436,6 +437,106 @@ public void testEscapeReferenceMatch() throws Exception
 
     }
 
+    /**
+     * test that a single escape reference handler writes escaped values directly,
+     * and only checks once per reference whether it applies to it
+     * @throws Exception
+     */
+    public void testEscapeReferenceStreaming() throws Exception
+    {
+        VelocityEngine ve = new VelocityEngine();
+        ve.setProperty(RuntimeConstants.EVENTHANDLER_REFERENCEINSERTION, CountingEscapeReference.class.getName());
+        ve.setProperty("eventhandler.escape.html.match", ".*bold.*");
+        ve.init();
+
+        Context context = new VelocityContext();
+        context.put("bold", "<b>");
+        context.put("italic", "<i>");
+        context.put("list", new String[] { "<u>", "\u00e9" });
+        Writer writer = new StringWriter();
+        CountingEscapeReference.checks = 0;
+        CountingEscapeReference.inserts = 0;
+        ve.evaluate(context, writer, "test", "#foreach($i in [1..3])$bold $italic $!{bold}x $bold.substring(0,2) $!nobold $list.get(1)#end");
+        assertEquals(StringUtils.repeat("&lt;b&gt; <i> &lt;b&gt;x &lt;b  \u00e9", 3), writer.toString());
+        assertEquals(6, CountingEscapeReference.checks);
+        // references the handler doesn't apply to bypass it
+        assertEquals(0, CountingEscapeReference.inserts);
+
+        // a context reference insertion handler disables streaming
+        EventCartridge ec = new EventCartridge();
+        ec.addEventHandler(new EscapeSqlReference());
+        context.put("bold", "<b class='x'>");
+        ec.attachToContext(context);
+        writer = new StringWriter();
+        ve.evaluate(context, writer, "test", "$bold");
+        assertEquals("&lt;b class=''x''&gt;", writer.toString());
+
+        log("Escaped references directly into the writer");
+    }
+
+    /**
+     * test that prefixed references are written once when the escaped value is null
+     * @throws Exception
+     */
+    public void testEscapeReferenceStreamingNullValue() throws Exception
+    {
+        VelocityEngine ve = new VelocityEngine();
+        ve.setProperty(RuntimeConstants.EVENTHANDLER_REFERENCEINSERTION, NullEscapeReference.class.getName());
+        ve.setProperty("eventhandler.escape.html.match", ".*bold.*");
+        ve.init();
+
+        String template = "$bold \\\\$bold #$bold $italic";
+        Context context = new VelocityContext();
+        context.put("bold", "<b>");
+        context.put("italic", "<i>");
+        Writer writer = new StringWriter();
+        ve.evaluate(context, writer, "test", template);
+        assertEquals("$bold \\\\$bold #$bold <i>", writer.toString());
+
+        // same output without streaming
+        EventCartridge ec = new EventCartridge();
+        ec.addEventHandler(new NullEscapeReference());
+        ec.attachToContext(context);
+        Writer expected = new StringWriter();
+        ve.evaluate(context, expected, "test", template);
+        assertEquals(expected.toString(), writer.toString());
+    }
+
+    public static class CountingEscapeReference extends EscapeHtmlReference
+    {
+        static int checks = 0;
+        static int inserts = 0;
+
+        @Override
+        public boolean appliesTo(String reference)
+        {
+            ++checks;
+            return super.appliesTo(reference);
+        }
+
+        @Override
+        public Object referenceInsert(Context context, String reference, Object value)
+        {
+            ++inserts;
+            return super.referenceInsert(context, reference, value);
+        }
+    }
+
+    public static class NullEscapeReference extends EscapeHtmlReference
+    {
+        @Override
+        protected String escape(Object text)
+        {
+            return null;
+        }
+
+        @Override
+        protected boolean escape(Object value, Writer writer)
+        {
+            return false;
+        }
+    }
+
     private Context newEscapeContext()
     {
         Context context = new VelocityContext();
@@ -0,0 +1,86 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.Template;
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.parser.node.Node;
+import org.apache.velocity.runtime.parser.node.SimpleNode;
+
+/**
+ * Test the rendering of templates whose AST drops its tokens after init.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class CompactASTTestCase extends BaseTestCase
+{
+    private static final String SOURCE =
+        "#set($a = 1)$a #if($a == 1)one#end $missing.foo #macro(m $x)[$x]#end#m('y') #foreach($i in [1..3])$i#end";
+
+    public CompactASTTestCase(String name)
+    {
+        super(name);
+    }
+
+    @Override
+    protected void setUpEngine(VelocityEngine engine)
+    {
+        engine.setProperty(RuntimeConstants.PARSER_COMPACT_AST, true);
+    }
+
+    public void testRendering()
+    {
+        addTemplate("compact", SOURCE);
+        assertTmplEquals("1 one $missing.foo [y] 123", "compact");
+    }
+
+    public void testLiterals()
+    {
+        addTemplate("compact", SOURCE);
+        Template template = engine.getTemplate("compact");
+        SimpleNode root = (SimpleNode)template.getData();
+        assertNotNull(root.getSourceMap());
+        assertTokensDropped(root);
+        assertEquals(SOURCE, root.literal());
+        assertTrue(template.getRetainedSize() > root.getSourceMap().getRetainedSize());
+    }
+
+    public void testNotCompacted()
+    {
+        engine = createEngine();
+        engine.setProperty(RuntimeConstants.PARSER_COMPACT_AST, false);
+        addTemplate("plain", SOURCE);
+        Template template = engine.getTemplate("plain");
+        assertEquals(-1, template.getRetainedSize());
+        assertNull(template.getSourceMap());
+    }
+
+    private void assertTokensDropped(Node node)
+    {
+        assertNull(node.getFirstToken());
+        assertNull(node.getLastToken());
+        for (int i = 0; i < node.jjtGetNumChildren(); ++i)
+        {
+            assertTokensDropped(node.jjtGetChild(i));
+        }
+    }
+}
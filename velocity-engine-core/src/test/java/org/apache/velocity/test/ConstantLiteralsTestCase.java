@@ -0,0 +1,112 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.velocity.util.ConstantList;
+import org.apache.velocity.util.ConstantMap;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Test the copy-on-write collections used for constant list and map literals.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class ConstantLiteralsTestCase extends TestCase
+{
+    public ConstantLiteralsTestCase(String name)
+    {
+        super(name);
+    }
+
+    public void testConstantList()
+    {
+        ConstantList model = new ConstantList(new Object[] { "a", "b", 3 });
+        ConstantList list = new ConstantList(model);
+        assertEquals(Arrays.asList("a", "b", 3), list);
+
+        list.add("d");
+        list.set(0, "z");
+        list.remove(1);
+        assertEquals(Arrays.asList("z", 3, "d"), list);
+        assertEquals(Arrays.asList("a", "b", 3), model);
+        assertEquals(Arrays.asList("a", "b", 3), new ConstantList(model));
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(3, model.size());
+    }
+
+    public void testConstantMap()
+    {
+        for (int size : new int[] { 3, 20 })
+        {
+            Map<Object, Object> entries = new LinkedHashMap<>();
+            for (int i = 0; i < size; ++i)
+            {
+                entries.put("key" + i, i);
+            }
+            ConstantMap model = new ConstantMap(entries);
+            ConstantMap map = new ConstantMap(model);
+            assertEquals(entries, map);
+            assertEquals(entries.keySet().iterator().next(), map.keySet().iterator().next());
+            assertEquals(2, map.get("key2"));
+            assertNull(map.get("missing"));
+
+            map.put("key1", "one");
+            map.remove("key0");
+            assertEquals("one", map.get("key1"));
+            assertFalse(map.containsKey("key0"));
+            assertEquals(size - 1, map.size());
+            assertEquals(entries, model);
+            assertEquals(entries, new ConstantMap(model));
+        }
+    }
+
+    public void testConstantMapViews()
+    {
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        entries.put("draft", "gray");
+        entries.put("live", "green");
+        ConstantMap model = new ConstantMap(entries);
+
+        ConstantMap map = new ConstantMap(model);
+        for (Map.Entry<Object, Object> entry : map.entrySet())
+        {
+            entry.setValue(entry.getValue() + "!");
+        }
+        assertEquals("gray!", map.get("draft"));
+        assertEquals("green!", map.get("live"));
+
+        map = new ConstantMap(model);
+        Iterator<Object> keys = map.keySet().iterator();
+        keys.next();
+        keys.remove();
+        assertTrue(keys.hasNext());
+        assertEquals("live", keys.next());
+        assertEquals(1, map.size());
+        assertEquals(entries, model);
+    }
+}
@@ -0,0 +1,271 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.exception.ParseErrorException;
+import org.apache.velocity.exception.VelocityException;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.parser.CharStream;
+import org.apache.velocity.runtime.parser.ContentCharStream;
+import org.apache.velocity.runtime.parser.VelocityCharStream;
+import org.apache.velocity.test.misc.TestLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Check that {@link ContentCharStream} behaves like {@link VelocityCharStream}.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class ContentCharStreamTestCase extends TestCase implements TemplateTestBase
+{
+    public ContentCharStreamTestCase(String name)
+    {
+        super(name);
+    }
+
+    public void testEmpty() throws Exception
+    {
+        compare("", 1);
+    }
+
+    public void testLinesAndTabs() throws Exception
+    {
+        compare("#if($foo)\n\tbar\r\n\t\tbaz\rqux\n#end\n", 2);
+        compare("\t$a\t$b\r\r\n\n\t", 3);
+    }
+
+    public void testLargeTemplate() throws Exception
+    {
+        Random random = new Random(42);
+        String alphabet = "ab$#(){}\\ \t\r\n";
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20000; ++i)
+        {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        compare(builder.toString(), 4);
+    }
+
+    public void testTextRuns() throws Exception
+    {
+        ContentCharStream stream = stream("foo bar$baz");
+        assertEquals(ContentCharStream.INLINE_TEXT_RUN, stream.readTextRun('$', '#'));
+        assertEquals("foo bar", stream.GetImage());
+        assertEquals('$', stream.BeginToken());
+
+        stream = stream("a#b\\c");
+        assertEquals(ContentCharStream.INLINE_TEXT_RUN, stream.readTextRun('$', '#'));
+        assertEquals("a", stream.GetImage());
+        assertEquals('#', stream.BeginToken());
+        assertEquals(ContentCharStream.INLINE_TEXT_RUN, stream.readTextRun('$', '#'));
+        assertEquals("b", stream.GetImage());
+        assertEquals(ContentCharStream.NO_TEXT_RUN, stream.readTextRun('$', '#'));
+        assertEquals('\\', stream.BeginToken());
+        assertEquals(ContentCharStream.INLINE_TEXT_RUN, stream.readTextRun('$', '#'));
+        assertEquals("c", stream.GetImage());
+        assertEquals(1, stream.getBeginLine());
+        assertEquals(5, stream.getBeginColumn());
+        assertEquals(ContentCharStream.NO_TEXT_RUN, stream.readTextRun('$', '#'));
+    }
+
+    public void testTextRunsWithNewlines() throws Exception
+    {
+        ContentCharStream stream = stream("foo\n bar\r\nbaz$qux");
+        assertEquals(ContentCharStream.TEXT_RUN, stream.readTextRun('$', '#'));
+        assertEquals("foo\n bar\r\n", stream.GetImage());
+        assertEquals(1, stream.getBeginLine());
+        assertEquals(1, stream.getBeginColumn());
+        assertEquals(2, stream.getEndLine());
+        assertEquals(ContentCharStream.INLINE_TEXT_RUN, stream.readTextRun('$', '#'));
+        assertEquals("baz", stream.GetImage());
+        assertEquals(3, stream.getBeginLine());
+        assertEquals(1, stream.getBeginColumn());
+
+        stream = stream("foo\rbar");
+        assertEquals(ContentCharStream.TEXT_RUN, stream.readTextRun('$', '#'));
+        assertEquals("foo\r", stream.GetImage());
+        assertEquals(ContentCharStream.INLINE_TEXT_RUN, stream.readTextRun('$', '#'));
+        assertEquals("bar", stream.GetImage());
+    }
+
+    public void testNoTextRun() throws Exception
+    {
+        for (String template : new String[] { "", " foo", "\tfoo", "\nfoo", "\rfoo", "$foo", "#foo", "\\foo" })
+        {
+            ContentCharStream stream = stream(template);
+            assertEquals(ContentCharStream.NO_TEXT_RUN, stream.readTextRun('$', '#'));
+            if (template.length() > 0)
+            {
+                assertEquals(template.charAt(0), stream.BeginToken());
+            }
+        }
+        ContentCharStream stream = stream("@foo");
+        assertEquals(ContentCharStream.NO_TEXT_RUN, stream.readTextRun('@', '%'));
+    }
+
+    /**
+     * Renders all the test templates with and without bulk reading, and compares
+     * the outputs, or the errors along with their locations.
+     */
+    public void testTemplateCorpus() throws Exception
+    {
+        List<String> names = new ArrayList<>();
+        collectTemplates(new File(TEST_COMPARE_DIR), "", names);
+        Collections.sort(names);
+        assertTrue(names.size() > 100);
+        for (String gobbling : new String[] { "lines", "bc" })
+        {
+            VelocityEngine expected = createEngine(gobbling, false);
+            VelocityEngine actual = createEngine(gobbling, true);
+            for (String name : names)
+            {
+                assertEquals(name, render(expected, name), render(actual, name));
+            }
+        }
+    }
+
+    private static void collectTemplates(File dir, String prefix, List<String> names)
+    {
+        File[] files = dir.listFiles();
+        if (files == null)
+        {
+            return;
+        }
+        for (File file : files)
+        {
+            if (file.isDirectory())
+            {
+                collectTemplates(file, prefix + file.getName() + "/", names);
+            }
+            else if (file.getName().endsWith(".vm"))
+            {
+                names.add(prefix + file.getName());
+            }
+        }
+    }
+
+    private static VelocityEngine createEngine(String gobbling, boolean bulkRead)
+    {
+        VelocityEngine engine = new VelocityEngine();
+        engine.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, TEST_COMPARE_DIR);
+        engine.setProperty(RuntimeConstants.RUNTIME_LOG_INSTANCE, new TestLogger());
+        engine.setProperty(RuntimeConstants.SPACE_GOBBLING, gobbling);
+        engine.setProperty(RuntimeConstants.PARSER_BULK_READ, bulkRead);
+        engine.init();
+        return engine;
+    }
+
+    private static String render(VelocityEngine engine, String name)
+    {
+        StringWriter writer = new StringWriter();
+        try
+        {
+            engine.getTemplate(name, "UTF-8").merge(new VelocityContext(), writer);
+            return writer.toString();
+        }
+        catch (ParseErrorException pee)
+        {
+            return "parse error at line " + pee.getLineNumber() + ", column " + pee.getColumnNumber()
+                + ": " + pee.getMessage();
+        }
+        catch (VelocityException ve)
+        {
+            return writer + "\n" + ve.getClass().getName() + ": " + ve.getMessage();
+        }
+    }
+
+    private static ContentCharStream stream(String template) throws IOException
+    {
+        ContentCharStream stream = new ContentCharStream();
+        stream.ReInit(new StringReader(template), 1, 1);
+        return stream;
+    }
+
+    /**
+     * Mimics the lexer access pattern on both streams: tokens are begun, extended
+     * and partially backed up, and their bounds and images are compared.
+     */
+    private void compare(String template, long seed) throws Exception
+    {
+        VelocityCharStream expected = new VelocityCharStream(new StringReader(template), 1, 1, 16);
+        ContentCharStream actual = new ContentCharStream();
+        actual.ReInit(new StringReader(template), 1, 1);
+        Random random = new Random(seed);
+        while (true)
+        {
+            char c = expected.BeginToken();
+            assertEquals(c, actual.BeginToken());
+            int len = random.nextInt(6);
+            int read = 0;
+            for (; read < len; ++read)
+            {
+                Character ec = read(expected);
+                Character ac = read(actual);
+                assertEquals(ec, ac);
+                if (ec == null)
+                {
+                    break;
+                }
+            }
+            int backup = read == 0 ? 0 : random.nextInt(read + 1);
+            expected.backup(backup);
+            actual.backup(backup);
+            assertEquals(expected.getBeginLine(), actual.getBeginLine());
+            assertEquals(expected.getBeginColumn(), actual.getBeginColumn());
+            assertEquals(expected.getEndLine(), actual.getEndLine());
+            assertEquals(expected.getEndColumn(), actual.getEndColumn());
+            String image = expected.GetImage();
+            assertEquals(image, actual.GetImage());
+            int suffix = random.nextInt(image.length() + 1);
+            assertTrue(Arrays.equals(expected.GetSuffix(suffix), actual.GetSuffix(suffix)));
+            if (read(expected) == null)
+            {
+                assertNull(read(actual));
+                return;
+            }
+            assertNotNull(read(actual));
+        }
+    }
+
+    private static Character read(CharStream stream)
+    {
+        try
+        {
+            return stream.readChar();
+        }
+        catch (IOException ioe)
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.velocity.util.DuckType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test the duck typing conventions of {@link DuckType}.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class DuckTypeTestCase extends TestCase
+{
+    public DuckTypeTestCase(String name)
+    {
+        super(name);
+    }
+
+    public static class Duck
+    {
+        private final String value;
+
+        public Duck(String value)
+        {
+            this.value = value;
+        }
+
+        public String getAsString()
+        {
+            return value;
+        }
+    }
+
+    public static class Sized
+    {
+        private final int size;
+
+        public Sized(int size)
+        {
+            this.size = size;
+        }
+
+        public int size()
+        {
+            return size;
+        }
+    }
+
+    public void testConventions()
+    {
+        for (int pass = 0; pass < 2; ++pass)
+        {
+            assertTrue(DuckType.asEmpty(null));
+            assertTrue(DuckType.asEmpty(""));
+            assertFalse(DuckType.asEmpty("a"));
+            assertTrue(DuckType.asEmpty(new int[0]));
+            assertFalse(DuckType.asEmpty(new String[] { "a" }));
+            assertTrue(DuckType.asEmpty(Collections.emptyList()));
+            assertTrue(DuckType.asEmpty(new StringBuilder()));
+            assertTrue(DuckType.asEmpty(0));
+            assertFalse(DuckType.asEmpty(1.5));
+            assertTrue(DuckType.asEmpty(new Sized(0)));
+            assertFalse(DuckType.asEmpty(new Sized(2)));
+            assertTrue(DuckType.asEmpty(new Duck(null)));
+            assertTrue(DuckType.asEmpty(new Duck("")));
+            assertFalse(DuckType.asEmpty(new Duck("quack")));
+            assertFalse(DuckType.asEmpty(new Object()));
+
+            assertTrue(DuckType.asBoolean(new Duck("quack"), true));
+            assertFalse(DuckType.asBoolean(new Duck(""), true));
+            assertTrue(DuckType.asBoolean(new Duck(""), false));
+            assertFalse(DuckType.asBoolean(Boolean.FALSE, false));
+
+            assertEquals("quack", DuckType.asString(new Duck("quack")));
+            assertEquals("[1, 2]", DuckType.asString(new int[] { 1, 2 }));
+            assertTrue(DuckType.asNull(new Duck(null)));
+            assertEquals(3, DuckType.asNumber(new Duck("3")).intValue());
+
+            DuckType.clearCache();
+        }
+    }
+
+    public void testConcurrentAccess()
+        throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int task = 0; task < 16; ++task)
+            {
+                results.add(executor.submit(() ->
+                {
+                    boolean ok = true;
+                    for (int i = 0; i < 1000; ++i)
+                    {
+                        ok &= DuckType.asEmpty(new Sized(0)) && !DuckType.asEmpty(new Duck("quack"));
+                    }
+                    return ok;
+                }));
+            }
+            for (Future<Boolean> result : results)
+            {
+                assertTrue(result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -73,6 +73,26 @@ public void testManualEventHandlers()
         doTestMethodExceptionEventHandler2();
     }
 
+    /**
+     * Test that removing or adding handlers updates the dispatch chains
+     */
+    public void testRemovedEventHandlers()
+            throws Exception
+    {
+        TestEventCartridge te = new TestEventCartridge();
+        EventCartridge ec = new EventCartridge();
+        ec.addEventHandler(te);
+        ec.attachToContext(context);
+        context.put("name", "Velocity");
+
+        assertEvalEquals(REFERENCE_VALUE, "$name");
+        assertTrue(ec.removeEventHandler(te));
+        assertEvalEquals("Velocity", "$name");
+        assertEvalEquals("$floobie", "$floobie");
+        ec.addEventHandler(te);
+        assertEvalEquals(REFERENCE_VALUE + NO_REFERENCE_VALUE, "$name$floobie");
+    }
+
     /**
      * Test assigning the event handlers via properties
      */
@@ -118,6 +118,37 @@ public void testNestedVelocityHasNextProperty()
         assertEvalEquals("test1 (a1;a2;a3)-test2 (a1;a2;a3)-test3 (a1;a2;a3)-test4 (a1;a2;a3)", "#foreach ($value in $list)$value (#foreach ($val in $list2)$val#if( $foreach.hasNext );#end#end)#if( $foreach.hasNext )-#end#end");
     }
 
+    public void testIntegerRanges()
+        throws Exception
+    {
+        assertEvalEquals("1,2,3", "#foreach ($i in [1..3])$i#if( $foreach.hasNext ),#end#end");
+        assertEvalEquals("3:0 2:1 1:2 ", "#foreach ($i in [3..1])$i:$foreach.index #end");
+        assertEvalEquals("-1 0 1 ", "#foreach ($i in [-1..1])$i #end");
+        assertEvalEquals("2000 2001 ", "#foreach ($i in [2000..2001])$i #end");
+        assertEvalEquals("1 2 ", "#foreach ($i in [1..10])$i #if( $i == 2 )#break#end#end");
+    }
+
+    public void testArrays()
+        throws Exception
+    {
+        context.put("objects", new Object[] { "a", 1, null, "d" });
+        context.put("ints", new int[] { 5, 1500 });
+        context.put("doubles", new double[] { 1.5, 2.5 });
+        context.put("empty", new int[0]);
+        assertEvalEquals("a-1-$i-d", "#foreach ($i in $objects)$i#if( $foreach.hasNext )-#end#end");
+        assertEvalEquals("1:5 2:1500 ", "#foreach ($i in $ints)$foreach.count:$i #end");
+        assertEvalEquals("1.5 2.5 last", "#foreach ($i in $doubles)$i #if( $foreach.last )last#end#end");
+        assertEvalEquals("none", "#foreach ($i in $empty)$i#{else}none#end");
+    }
+
+    public void testMaxNbrLoopsOnArray()
+        throws Exception
+    {
+        engine.setProperty(RuntimeConstants.MAX_NUMBER_LOOPS, 2);
+        context.put("ints", new int[] { 1, 2, 3 });
+        assertEvalEquals("1 true 2 true ", "#foreach ($i in $ints)$i $foreach.hasNext #end");
+    }
+
     public static class MyIterable
     {
         private List foo;
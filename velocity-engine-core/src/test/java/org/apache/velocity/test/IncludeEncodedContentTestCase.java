@@ -0,0 +1,114 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.io.ByteStreamWriter;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.resource.loader.FileResourceLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Test #include of static content kept encoded by the resource loader.
+ */
+public class IncludeEncodedContentTestCase extends BaseTestCase
+{
+    private File contentDir;
+    private String bigContent;
+
+    public IncludeEncodedContentTestCase(String name)
+    {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        contentDir = Files.createTempDirectory("encoded-content").toFile();
+
+        /* big enough to be memory-mapped */
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 2 * FileResourceLoader.MAPPING_THRESHOLD)
+        {
+            builder.append("Café crème € ").append(builder.length()).append('\n');
+        }
+        bigContent = builder.toString();
+        Files.write(new File(contentDir, "big.txt").toPath(), bigContent.getBytes(StandardCharsets.UTF_8));
+
+        /* small, with a BOM */
+        byte[] bom = new byte[] { (byte)0xef, (byte)0xbb, (byte)0xbf };
+        byte[] small = "small é".getBytes(StandardCharsets.UTF_8);
+        byte[] withBom = new byte[bom.length + small.length];
+        System.arraycopy(bom, 0, withBom, 0, bom.length);
+        System.arraycopy(small, 0, withBom, bom.length, small.length);
+        Files.write(new File(contentDir, "small.txt").toPath(), withBom);
+
+        super.setUp();
+    }
+
+    @Override
+    protected void setUpEngine(VelocityEngine engine)
+    {
+        engine.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, contentDir.getAbsolutePath());
+        engine.setProperty(RuntimeConstants.RESOURCE_CONTENT_KEEP_ENCODED, true);
+    }
+
+    @Override
+    public void tearDown()
+    {
+        super.tearDown();
+        for (File file : contentDir.listFiles())
+        {
+            file.delete();
+        }
+        contentDir.delete();
+    }
+
+    public void testDecodedOutput() throws Exception
+    {
+        addTemplate("include", "[#include('big.txt')|#include('small.txt')]");
+        assertTmplEquals("[" + bigContent + "|small é]", "include");
+    }
+
+    public void testRawOutput() throws Exception
+    {
+        addTemplate("include", "[#include('big.txt')|#include('small.txt')]");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Writer writer = new ByteStreamWriter(out, StandardCharsets.UTF_8);
+        engine.mergeTemplate("include", "UTF-8", context, writer);
+        writer.flush();
+        assertEquals("[" + bigContent + "|small é]", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testOtherCharsetOutput() throws Exception
+    {
+        addTemplate("include", "#include('small.txt')");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Writer writer = new ByteStreamWriter(out, StandardCharsets.ISO_8859_1);
+        engine.mergeTemplate("include", "UTF-8", context, writer);
+        writer.flush();
+        assertEquals("small é", new String(out.toByteArray(), StandardCharsets.ISO_8859_1));
+    }
+}
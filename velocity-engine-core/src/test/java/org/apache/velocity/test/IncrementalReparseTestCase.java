@@ -0,0 +1,146 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.Template;
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.exception.MethodInvocationException;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.parser.node.Node;
+
+import java.io.StringWriter;
+
+/**
+ * Test the incremental re-parsing of modified templates.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class IncrementalReparseTestCase extends BaseTestCase
+{
+    private static final String HEADER =
+        "#macro(item $x)<li>$x</li>#end\n" +
+        "<ul>\n" +
+        "#foreach($i in [1..3])\n" +
+        "#item($i)\n" +
+        "#end\n" +
+        "</ul>\n";
+
+    /* lines space gobbling eats the newlines of the directive lines */
+    private static final String RENDERED_HEADER = "<ul>\n<li>1</li><li>2</li><li>3</li></ul>\n";
+
+    public IncrementalReparseTestCase(String name)
+    {
+        super(name);
+    }
+
+    @Override
+    protected void setUpEngine(VelocityEngine engine)
+    {
+        engine.setProperty(RuntimeConstants.RESOURCE_MANAGER_INCREMENTAL_REPARSE, true);
+        engine.setProperty(RuntimeConstants.RESOURCE_LOADER + ".string.cache", true);
+        engine.setProperty(RuntimeConstants.RESOURCE_LOADER + ".string.modification_check_interval", 1);
+        engine.setProperty(RuntimeConstants.RUNTIME_REFERENCES_STRICT, true);
+        /* so that the modified macro replaces the previous one */
+        engine.setProperty(RuntimeConstants.VM_PERM_INLINE_LOCAL, true);
+    }
+
+    private Template modify(String source) throws Exception
+    {
+        Thread.sleep(1100);
+        addTemplate("page", source);
+        return engine.getTemplate("page");
+    }
+
+    private String render(Template template)
+    {
+        StringWriter writer = new StringWriter();
+        template.merge(context, writer);
+        return writer.toString();
+    }
+
+    public void testReparse() throws Exception
+    {
+        context.put("title", "Title");
+        addTemplate("page", HEADER + "<p>one</p>\n<p>$title</p>\n<p>three</p>\n");
+        Template first = engine.getTemplate("page");
+        assertEquals(RENDERED_HEADER + "<p>one</p>\n<p>Title</p>\n<p>three</p>\n",
+                     render(first));
+        Node header = ((Node)first.getData()).jjtGetChild(0);
+
+        /* same number of lines */
+        Template second = modify(HEADER + "<p>one</p>\n<p>$title!</p>\n<p>three</p>\n");
+        assertNotSame(first, second);
+        assertSame(header, ((Node)second.getData()).jjtGetChild(0));
+        assertEquals(RENDERED_HEADER + "<p>one</p>\n<p>Title!</p>\n<p>three</p>\n",
+                     render(second));
+
+        /* added lines */
+        Template third = modify(HEADER + "<p>one</p>\n<p>$title!</p>\n<p>two</p>\n\n<p>$missing</p>\n");
+        assertSame(header, ((Node)third.getData()).jjtGetChild(0));
+        try
+        {
+            render(third);
+            fail("strict mode should have thrown");
+        }
+        catch (MethodInvocationException mie)
+        {
+            assertEquals(11, mie.getLineNumber());
+        }
+
+        /* modified macro */
+        Template fourth = modify(HEADER.replace("<li>", "<li class=\"item\">") + "<p>one</p>\n");
+        assertEquals(RENDERED_HEADER.replace("<li>", "<li class=\"item\">") + "<p>one</p>\n",
+                     render(fourth));
+    }
+
+    public void testPreviousVersionIntact() throws Exception
+    {
+        engine = createEngine();
+        engine.setProperty(RuntimeConstants.RESOURCE_MANAGER_TEXT_ARENA, true);
+        engine.setProperty(RuntimeConstants.RESOURCE_MANAGER_TEXT_ARENA_MIN_LENGTH, 4);
+        addTemplate("page", HEADER + "<p>one</p>\n<p>two</p>\n<p>three</p>\n");
+        Template first = engine.getTemplate("page");
+        Node firstRoot = (Node)first.getData();
+        Node header = firstRoot.jjtGetChild(0);
+
+        Template second = modify(HEADER + "<p>one</p>\n<p>two!</p>\n<p>three</p>\n");
+        assertSame(header, ((Node)second.getData()).jjtGetChild(0));
+
+        /* the previous version may still be in use */
+        assertSame(firstRoot, first.getData());
+        assertSame(firstRoot, header.jjtGetParent());
+        assertSame(first, header.getTemplate());
+        assertEquals(RENDERED_HEADER + "<p>one</p>\n<p>two</p>\n<p>three</p>\n",
+                     render(first));
+        assertEquals(RENDERED_HEADER + "<p>one</p>\n<p>two!</p>\n<p>three</p>\n",
+                     render(second));
+    }
+
+    public void testEmptyTemplate() throws Exception
+    {
+        context.put("title", "Title");
+        addTemplate("page", "");
+        assertEquals("", render(engine.getTemplate("page")));
+
+        Template modified = modify("<p>$title</p>\n");
+        assertEquals("<p>Title</p>\n", render(modified));
+    }
+}
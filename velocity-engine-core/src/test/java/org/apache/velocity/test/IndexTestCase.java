@@ -22,6 +22,11 @@
 import org.apache.velocity.runtime.RuntimeConstants;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Vector;
 /**
  * Test index syntax e.g, $foo[1]
  */
@@ -111,6 +116,20 @@ public void testCallingIndex()
         assertEvalEquals("$\\![]", "$\\![]");
     }
 
+    public void testPolymorphicIndex()
+    {
+        Map<Integer, String> map = new HashMap<>();
+        map.put(0, "m");
+        context.put("containers", Arrays.asList(new int[] {1}, new String[] {"s"},
+            new ArrayList<>(Arrays.asList("l")), new LinkedList<>(Arrays.asList("k")),
+            new Vector<>(Arrays.asList("v")), map));
+        // the same nodes see more receiver classes than they cache
+        assertEvalEquals("1slkvm1slkvm",
+            "#foreach($i in [1..2])#foreach($c in $containers)$c[0]#end#end");
+        assertEvalEquals("int[] String[] ArrayList LinkedList Vector HashMap ",
+            "#foreach($c in $containers)$c.class.simpleName #end");
+    }
+
     public void testIndexSetting()
     {
         assertEvalEquals("foo", "#set($str[1] = \"foo\")$str[1]");
@@ -23,6 +23,9 @@
 import junit.framework.TestSuite;
 import org.apache.velocity.test.misc.TestLogger;
 import org.apache.velocity.util.introspection.Introspector;
+import org.apache.velocity.util.introspection.ResolvedMethod;
+import org.apache.velocity.util.introspection.TypeConversionHandlerImpl;
+import org.slf4j.Logger;
 
 import java.lang.reflect.Method;
 
@@ -204,6 +207,35 @@ public void testIntrospectorReallyUntouchable()
         assertNull("able to access a private-access method.", method);
     }
 
+    public void testGetMethodOverride()
+            throws Exception
+    {
+        // resolved methods go through an overridden getMethod()
+        Introspector restricted = new RestrictedIntrospector(log);
+
+        assertNull(restricted.getResolvedMethod(MethodProvider.class, "shortMethod", new Object[] { (short)1 }));
+
+        ResolvedMethod resolved = restricted.getResolvedMethod(MethodProvider.class, "integerMethod", new Object[] { "16" });
+        assertNotNull(resolved);
+        assertEquals("integerMethod", resolved.getMethod().getName());
+        assertNotNull(resolved.getConverters());
+        assertEquals(16, resolved.getConverters()[0].convert("16"));
+    }
+
+    public static class RestrictedIntrospector extends Introspector
+    {
+        public RestrictedIntrospector(Logger log)
+        {
+            super(log, new TypeConversionHandlerImpl());
+        }
+
+        @Override
+        public Method getMethod(Class<?> c, String name, Object[] params)
+        {
+            return name.equals("shortMethod") ? null : super.getMethod(c, name, params);
+        }
+    }
+
     public static class MethodProvider
     {
         /*
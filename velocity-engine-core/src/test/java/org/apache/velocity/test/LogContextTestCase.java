@@ -0,0 +1,186 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.exception.MethodInvocationException;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.parser.LogContext;
+import org.apache.velocity.runtime.parser.node.SimpleNode;
+import org.apache.velocity.test.misc.TestLogger;
+import org.apache.velocity.util.introspection.Info;
+import org.slf4j.MDC;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test the tracking of rendering locations.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class LogContextTestCase extends TestCase
+{
+    public LogContextTestCase(String name)
+    {
+        super(name);
+    }
+
+    private static class Node extends SimpleNode
+    {
+        private final String name;
+
+        Node(String name)
+        {
+            super(0);
+            this.name = name;
+        }
+
+        @Override
+        public String literal()
+        {
+            return name;
+        }
+    }
+
+    /**
+     * Records the MDC updates
+     */
+    private static class RecordingLogContext extends LogContext
+    {
+        List<String> locations = new ArrayList<>();
+
+        RecordingLogContext()
+        {
+            super(true);
+        }
+
+        @Override
+        protected void setLogContext(Info info)
+        {
+            super.setLogContext(info);
+            locations.add(info.getTemplateName() + ":" + info.getLine());
+        }
+
+        @Override
+        protected void clearLogContext()
+        {
+            super.clearLogContext();
+            locations.add("cleared");
+        }
+    }
+
+    public void testStackTrace()
+    {
+        RecordingLogContext logContext = new RecordingLogContext();
+        Node outer = new Node("#outer()");
+        Node ref = new Node("$ref.method()");
+        Node method = new Node("method()");
+
+        assertNull(logContext.getStackTrace());
+        logContext.pushLogContext(outer, new Info("a.vm", 1, 1));
+        logContext.pushLogContext(ref, new Info("b.vm", 2, 3));
+        // repeated pushes of the same node are folded
+        logContext.pushLogContext(ref, new Info("b.vm", 2, 3));
+        logContext.pushLogContext(method, new Info("b.vm", 2, 8));
+
+        String[] stack = logContext.getStackTrace();
+        assertEquals(3, stack.length);
+        assertEquals("    method() at b.vm[line 2, column 8]", stack[0]);
+        assertEquals("    $ref.method() at b.vm[line 2, column 3]", stack[1]);
+        assertEquals("    #outer() at a.vm[line 1, column 1]", stack[2]);
+
+        logContext.popLogContext();
+        assertEquals(2, logContext.getStackTrace().length);
+        logContext.popLogContext();
+        stack = logContext.getStackTrace();
+        assertEquals(2, stack.length);
+        assertEquals("    $ref.method() at b.vm[line 2, column 3]", stack[0]);
+        logContext.popLogContext();
+        assertEquals(1, logContext.getStackTrace().length);
+        logContext.popLogContext();
+        assertNull(logContext.getStackTrace());
+
+        assertEquals("[a.vm:1, b.vm:2, b.vm:2, b.vm:2, a.vm:1, cleared]", logContext.locations.toString());
+        assertNull(MDC.get(LogContext.MDC_FILE));
+
+        // popping an empty stack is harmless
+        logContext.popLogContext();
+        assertNull(logContext.getStackTrace());
+        assertEquals(6, logContext.locations.size());
+    }
+
+    public void testDisabled()
+    {
+        LogContext logContext = new LogContext(false);
+        logContext.pushLogContext(new Node("$ref"), new Info("a.vm", 1, 1));
+        assertNull(logContext.getStackTrace());
+        logContext.popLogContext();
+    }
+
+    public static class Failing
+    {
+        public String fail()
+        {
+            throw new IllegalStateException("failure");
+        }
+    }
+
+    public void testTemplateStackTrace()
+    {
+        RuntimeInstance ri = new RuntimeInstance();
+        ri.setProperty(RuntimeConstants.RUNTIME_LOG_INSTANCE, new TestLogger());
+        ri.setProperty(RuntimeConstants.RUNTIME_LOG_TRACK_LOCATION, true);
+        ri.init();
+
+        VelocityContext context = new VelocityContext();
+        context.put("obj", new Failing());
+        try
+        {
+            ri.evaluate(context, new StringWriter(), "test", "#macro(m)$obj.fail()#end\n#m()");
+            fail("exception expected");
+        }
+        catch (MethodInvocationException mie)
+        {
+            String[] stack = mie.getVtlStackTrace();
+            assertNotNull(stack);
+            // innermost location first, the reference only appears once
+            assertEquals(3, stack.length);
+            assertTrue(stack[0], stack[0].contains(".fail(...) at test[line 1, column 15]"));
+            assertTrue(stack[2], stack[2].contains("#m(...) at test[line 2, column 1]"));
+            int references = 0;
+            for (String level : stack)
+            {
+                if (level.contains("$obj.fail()"))
+                {
+                    ++references;
+                }
+            }
+            assertEquals(1, references);
+        }
+        // the stack is empty again
+        assertNull(ri.getLogContext().getStackTrace());
+        assertNull(MDC.get(LogContext.MDC_FILE));
+    }
+}
@@ -31,7 +31,9 @@
 import java.io.BufferedWriter;
 import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Arrays;
 
 /**
  * Test a reported bug in which method overloading throws IllegalArgumentException
@@ -118,6 +120,24 @@ public void testParsedMethodOverloading()
 
     }
 
+    public void testPolymorphicCalls()
+    throws Exception
+    {
+        /*
+         * the same method node sees more argument classes than it caches
+         */
+        VelocityEngine ve = new VelocityEngine();
+        ve.init();
+        Context context = new VelocityContext();
+        context.put("test", this);
+        context.put("args", Arrays.asList(1, "a", 2L, 'c', 1.5, "b"));
+        StringWriter writer = new StringWriter();
+        ve.evaluate(context, writer, "polymorphic",
+            "#foreach($i in [1..2])$test.overloadedMethod3() #foreach($a in $args)$test.overloadedMethod3($a) #end#end");
+        assertEquals("none Integer String Object Object Object String none Integer String Object Object Object String ",
+            writer.toString());
+    }
+
     public void testFile(String basefilename)
     throws Exception
     {
@@ -181,4 +201,25 @@ public String overloadedMethod2 ( String i )
     {
         return "String";
     }
+
+
+    public String overloadedMethod3 ()
+    {
+        return "none";
+    }
+
+    public String overloadedMethod3 ( Integer i )
+    {
+        return "Integer";
+    }
+
+    public String overloadedMethod3 ( String s )
+    {
+        return "String";
+    }
+
+    public String overloadedMethod3 ( Object o )
+    {
+        return "Object";
+    }
 }
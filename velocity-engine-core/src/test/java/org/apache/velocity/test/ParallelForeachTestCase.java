@@ -0,0 +1,103 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.RuntimeConstants;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * This class tests the #parallelforeach loop.
+ */
+public class ParallelForeachTestCase extends BaseTestCase
+{
+    public ParallelForeachTestCase(String name)
+    {
+        super(name);
+    }
+
+    @Override
+    protected void setUpEngine(VelocityEngine engine)
+    {
+        engine.setProperty(RuntimeConstants.PARALLEL_FOREACH_CHUNK_SIZE, 3);
+    }
+
+    private static String expected(int size)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i <= size; ++i)
+        {
+            builder.append(i).append(',');
+        }
+        return builder.toString();
+    }
+
+    public void testOrderIsKept()
+    {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 1; i <= 100; ++i)
+        {
+            list.add(i);
+        }
+        context.put("list", list);
+        context.put("array", list.toArray());
+        context.put("linked", new LinkedList<>(list));
+        assertEvalEquals(expected(100), "#parallelforeach($i in [1..100])$i,#end");
+        assertEvalEquals(expected(100), "#parallelforeach($i in $list)$i,#end");
+        assertEvalEquals(expected(100), "#parallelforeach($i in $array)$i,#end");
+        assertEvalEquals(expected(100), "#parallelforeach($i in $linked)$i,#end");
+        assertEvalEquals(expected(4), "#parallelforeach($i in [1..4])$i,#end");
+        assertNull(context.get("i"));
+    }
+
+    public void testScope()
+    {
+        assertEvalEquals("0:1:true,1:2:true,2:3:true,3:4:true,4:5:true,5:6:true,6:7:false,",
+            "#parallelforeach($i in [1..7])$foreach.index:$foreach.count:$foreach.hasNext,#end");
+        assertNull(context.get("foreach"));
+    }
+
+    public void testNested()
+    {
+        assertEvalEquals("1a1b1c1d1e1f2a2b2c2d2e2f",
+            "#parallelforeach($i in [1..2])#parallelforeach($j in ['a','b','c','d','e','f'])$i$j#end#end");
+    }
+
+    public void testElse()
+    {
+        assertEvalEquals("none", "#parallelforeach($i in [])$i#{else}none#end");
+    }
+
+    public void testSideEffectsAreSequential()
+    {
+        assertEvalEquals("21", "#set($sum = 0)#parallelforeach($i in [1..6])#set($sum = $sum + $i)#end$sum");
+        assertEvalEquals("1234", "#parallelforeach($i in [1..10])#if($i > 4)#break#end$i#end");
+        assertEvalEquals("1,2,3,4,5,6,7,", "#macro(m $x)$x,#end#parallelforeach($i in [1..7])#m($i)#end");
+    }
+
+    public void testMaxNbrLoops()
+    {
+        engine.setProperty(RuntimeConstants.MAX_NUMBER_LOOPS, 7);
+        assertEvalEquals(expected(7), "#parallelforeach($i in [1..100])$i,#end");
+    }
+}
@@ -0,0 +1,164 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.runtime.ElasticParserPool;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.StripedParserPool;
+import org.apache.velocity.runtime.parser.Parser;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test the alternative parser pools.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class ParserPoolTestCase extends TestCase
+{
+    public ParserPoolTestCase(String name)
+    {
+        super(name);
+    }
+
+    private RuntimeInstance createRuntime(Class<?> poolClass, int size)
+    {
+        return createRuntime(poolClass, size, 0);
+    }
+
+    private RuntimeInstance createRuntime(Class<?> poolClass, int size, int idleTimeout)
+    {
+        RuntimeInstance ri = new RuntimeInstance();
+        ri.setProperty(RuntimeConstants.PARSER_POOL_CLASS, poolClass.getName());
+        ri.setProperty(RuntimeConstants.PARSER_POOL_SIZE, size);
+        ri.setProperty(RuntimeConstants.PARSER_POOL_MIN_SIZE, 1);
+        ri.setProperty(RuntimeConstants.PARSER_POOL_IDLE_TIMEOUT, idleTimeout);
+        ri.init();
+        return ri;
+    }
+
+    public void testElasticPool() throws Exception
+    {
+        RuntimeInstance ri = createRuntime(ElasticParserPool.class, 4);
+        ElasticParserPool pool = (ElasticParserPool)ri.getParserPool();
+        assertEquals(1, pool.getSize());
+
+        List<Parser> parsers = new ArrayList<>();
+        for (int i = 0; i < 4; ++i)
+        {
+            Parser parser = pool.get();
+            assertNotNull(parser);
+            parsers.add(parser);
+        }
+        assertNull(pool.get());
+        assertEquals(4, pool.getSize());
+        assertEquals(4, pool.getMissCount());
+        assertEquals(1, pool.getOverflowCount());
+
+        for (Parser parser : parsers)
+        {
+            pool.put(parser);
+        }
+        Thread.sleep(5);
+        pool.put(pool.get());
+        assertEquals(1, pool.getSize());
+        assertEquals(1, pool.getIdleCount());
+        assertTrue(pool.getBorrowWaitNanos() > 0);
+    }
+
+    public void testIdlePoolShrinks() throws Exception
+    {
+        RuntimeInstance ri = createRuntime(ElasticParserPool.class, 4, 100);
+        ElasticParserPool pool = (ElasticParserPool)ri.getParserPool();
+        List<Parser> parsers = new ArrayList<>();
+        for (int i = 0; i < 4; ++i)
+        {
+            parsers.add(pool.get());
+        }
+        for (Parser parser : parsers)
+        {
+            pool.put(parser);
+        }
+        assertEquals(4, pool.getSize());
+
+        /* no parser is returned to the pool anymore, borrowing alone must release the expired ones */
+        Thread.sleep(150);
+        Parser parser = pool.get();
+        assertNotNull(parser);
+        assertEquals(1, pool.getSize());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    public void testStripedPool()
+    {
+        RuntimeInstance ri = createRuntime(StripedParserPool.class, 4);
+        StripedParserPool pool = (StripedParserPool)ri.getParserPool();
+        Parser parser = pool.get();
+        pool.put(parser);
+        assertSame(parser, pool.get());
+        assertNotSame(parser, pool.get());
+        long misses = pool.getMissCount();
+        pool.put(parser);
+        assertSame(parser, pool.get());
+        assertEquals(misses, pool.getMissCount());
+    }
+
+    public void testConcurrentParsing() throws Exception
+    {
+        RuntimeInstance ri = createRuntime(ElasticParserPool.class, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; ++i)
+            {
+                futures.add(executor.submit(() ->
+                {
+                    for (int j = 0; j < 50; ++j)
+                    {
+                        StringWriter writer = new StringWriter();
+                        ri.evaluate(new VelocityContext(), writer, "test", "#set($a = 1)$a");
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        ElasticParserPool pool = (ElasticParserPool)ri.getParserPool();
+        assertTrue(pool.getSize() <= 4);
+        assertTrue(pool.getBorrowCount() >= 400);
+    }
+}
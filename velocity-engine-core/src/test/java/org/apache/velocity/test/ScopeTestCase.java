@@ -366,4 +366,44 @@ public void testInfoTemplate()
         assertEvalEquals("test", "#parse('test')");
     }
 
+    public void testUnreferencedScopesAreSkipped()
+    {
+        context.put("ctx", context);
+        assertEvalEquals("falsefalse", "#foreach($i in [1..2])$ctx.containsKey('foreach')#end");
+        assertEvalEquals("true", "#foreach($i in [1..1])$ctx.containsKey('foreach')#if($foreach.first)#end#end");
+        assertEvalEquals("false", "#macro(m)$ctx.containsKey('macro')#end#m()");
+        assertEvalEquals("true", "#macro(n)$ctx.containsKey('macro')$!macro.foo#end#n()");
+        // from a template, since evaluate() keeps its own $evaluate around unknown #evaluate content
+        addTemplate("evaluated", "#evaluate('$ctx.containsKey(\"evaluate\")')");
+        assertTmplEquals("false", "evaluated");
+        addTemplate("unreferenced", "$ctx.containsKey('template')");
+        assertTmplEquals("false", "unreferenced");
+        assertEvalEquals("false", "#parse('unreferenced')");
+        addTemplate("referenced", "$ctx.containsKey('template')$!template.foo");
+        assertTmplEquals("true", "referenced");
+        // dynamic content keeps its scope controls
+        assertEvalEquals("true", "#foreach($i in [1..1])#evaluate('$ctx.containsKey(\"foreach\")')#end");
+        assertNull(context.get("foreach"));
+    }
+
+    public void testScopesReferencedByBlocks()
+    {
+        assertEvalEquals("12", "#define($d)$foreach.count#end#foreach($i in [1..2])$d#end");
+        assertEvalEquals("12", "#macro(vm2)#foreach($i in [1..2])$bodyContent#end#end#@vm2()$foreach.count#end");
+        assertNull(context.get("foreach"));
+    }
+
+    public void testScopeAnalysisDisabled()
+    {
+        engine = createEngine();
+        engine.setProperty(RuntimeConstants.CONTEXT_SCOPE_ANALYSIS, false);
+        context.put("ctx", context);
+        assertEvalEquals("truetrue", "#foreach($i in [1..2])$ctx.containsKey('foreach')#end");
+        assertEvalEquals("true", "#macro(m)$ctx.containsKey('macro')#end#m()");
+        assertEvalEquals("true", "#evaluate('$ctx.containsKey(\"evaluate\")')");
+        addTemplate("unreferenced", "$ctx.containsKey('template')");
+        assertTmplEquals("true", "unreferenced");
+        assertNull(context.get("foreach"));
+    }
+
 }
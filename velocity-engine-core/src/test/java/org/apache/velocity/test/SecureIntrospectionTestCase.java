@@ -28,6 +28,8 @@
 import org.apache.velocity.exception.ParseErrorException;
 import org.apache.velocity.exception.ResourceNotFoundException;
 import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.test.misc.TestLogger;
+import org.apache.velocity.util.introspection.SecureIntrospectorImpl;
 import org.apache.velocity.util.introspection.SecureUberspector;
 
 import java.io.IOException;
@@ -112,6 +114,37 @@ public void testGoodMethodCalls()
         doTestMethods(ve, goodTemplateStrings, true);
     }
 
+    /**
+     *  Test that cached permission verdicts stay consistent
+     *  with the method names and restricted classes and packages
+     */
+    public void testCheckObjectExecutePermission()
+    {
+        SecureIntrospectorImpl introspector = new SecureIntrospectorImpl(
+            new String[] { "java.lang.Class", "java.lang.Runtime", "java.lang.System" },
+            new String[] { "java.lang.reflect", "java.io" },
+            new TestLogger());
+
+        for (int pass = 0; pass < 2; ++pass)
+        {
+            assertTrue(introspector.checkObjectExecutePermission(getClass(), "aTestMethod"));
+            assertFalse(introspector.checkObjectExecutePermission(getClass(), "wait"));
+            assertFalse(introspector.checkObjectExecutePermission(getClass(), "notify"));
+            assertTrue(introspector.checkObjectExecutePermission(getClass(), null));
+            assertTrue(introspector.checkObjectExecutePermission(Integer.class, "intValue"));
+            assertTrue(introspector.checkObjectExecutePermission(String.class, "length"));
+            assertTrue(introspector.checkObjectExecutePermission(Class.class, "getName"));
+            assertFalse(introspector.checkObjectExecutePermission(Class.class, "getMethods"));
+            assertFalse(introspector.checkObjectExecutePermission(Runtime.class, "exec"));
+            assertFalse(introspector.checkObjectExecutePermission(System[].class, "clone"));
+            assertFalse(introspector.checkObjectExecutePermission(java.lang.reflect.Method.class, "invoke"));
+            assertFalse(introspector.checkObjectExecutePermission(java.io.File.class, "delete"));
+            assertTrue(introspector.checkObjectExecutePermission(java.util.ArrayList.class, "size"));
+            assertFalse(introspector.checkObjectExecutePermission(Thread.class, "interrupt"));
+            assertFalse(introspector.checkObjectExecutePermission(URLClassLoader.class, "loadClass"));
+        }
+    }
+
     private void doTestMethods(VelocityEngine ve, String[] templateStrings, boolean shouldeval)
     {
         Context c = new VelocityContext();
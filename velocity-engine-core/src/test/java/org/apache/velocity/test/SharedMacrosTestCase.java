@@ -0,0 +1,89 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.resource.loader.StringResourceLoader;
+import org.apache.velocity.runtime.resource.util.StringResourceRepository;
+import org.apache.velocity.test.misc.TestLogger;
+
+import java.io.StringWriter;
+
+/**
+ * Test the sharing of identical macro definitions across templates.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class SharedMacrosTestCase extends TestCase
+{
+    private RuntimeInstance ri;
+
+    public SharedMacrosTestCase(String name)
+    {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        ri = new RuntimeInstance();
+        ri.setProperty(RuntimeConstants.RUNTIME_LOG_INSTANCE, new TestLogger());
+        ri.setProperty(RuntimeConstants.RESOURCE_LOADERS, "string");
+        ri.setProperty("resource.loader.string.class", StringResourceLoader.class.getName());
+        ri.setProperty("resource.loader.string.repository.name", "shared.repo");
+        ri.setProperty("resource.loader.string.repository.static", "false");
+        ri.setProperty(RuntimeConstants.VM_PERM_INLINE_LOCAL, true);
+        ri.setProperty(RuntimeConstants.VM_SHARE_DEFINITIONS, true);
+        ri.init();
+
+        StringResourceRepository repo = (StringResourceRepository)ri.getApplicationAttribute("shared.repo");
+        repo.putStringResource("a", "#macro(bold $x)<b>$x</b>#end#bold('a')");
+        repo.putStringResource("b", "#macro(bold $x)<b>$x</b>#end#bold('b')");
+        repo.putStringResource("c", "#macro(bold $x)<i>$x</i>#end#bold('c')");
+        repo.putStringResource("d", "#macro(wrap $x)#bold($x)#end#macro(bold $x)[$x]#end#wrap('d')");
+        repo.putStringResource("e", "#macro(wrap $x)#bold($x)#end#macro(bold $x)($x)#end#wrap('e')");
+    }
+
+    private String render(String name)
+    {
+        StringWriter writer = new StringWriter();
+        ri.getTemplate(name).merge(new VelocityContext(), writer);
+        return writer.toString();
+    }
+
+    public void testSharedDefinitions()
+    {
+        assertEquals("<b>a</b>", render("a"));
+        assertEquals("<b>b</b>", render("b"));
+        assertEquals("<i>c</i>", render("c"));
+        assertEquals(1, ri.getSharedMacrosCount());
+    }
+
+    public void testMacroCallsNotShared()
+    {
+        assertEquals("[d]", render("d"));
+        assertEquals("(e)", render("e"));
+        assertEquals(0, ri.getSharedMacrosCount());
+    }
+}
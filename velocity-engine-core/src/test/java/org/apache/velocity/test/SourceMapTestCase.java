@@ -0,0 +1,127 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.velocity.Template;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.parser.Token;
+import org.apache.velocity.runtime.parser.node.NodeUtils;
+import org.apache.velocity.runtime.parser.node.SimpleNode;
+import org.apache.velocity.runtime.parser.node.SourceMap;
+import org.apache.velocity.runtime.resource.loader.StringResourceLoader;
+import org.apache.velocity.runtime.resource.util.StringResourceRepository;
+import org.apache.velocity.test.misc.TestLogger;
+
+/**
+ * Test the template source maps.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class SourceMapTestCase extends TestCase
+{
+    public SourceMapTestCase(String name)
+    {
+        super(name);
+    }
+
+    private static Token token(Token previous, String image, int line, int column)
+    {
+        Token t = new Token();
+        t.image = image;
+        t.beginLine = line;
+        t.beginColumn = column;
+        if (previous != null)
+        {
+            previous.next = t;
+        }
+        return t;
+    }
+
+    private static class Node extends SimpleNode
+    {
+        Node(Token first, Token last)
+        {
+            super(0);
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    public void testSourceMap()
+    {
+        Token hello = token(null, "Hello ", 1, 1);
+        Token name = token(hello, "$name", 1, 7);
+        Token text = token(name, "\nsecond line\n", 1, 12);
+        Token end = token(text, "end", 3, 1);
+        SimpleNode root = new Node(hello, end);
+        SimpleNode reference = new Node(name, name);
+        SimpleNode rest = new Node(text, end);
+        root.jjtAddChild(reference, 0);
+        root.jjtAddChild(rest, 1);
+
+        NodeUtils.indexTokens(root, null);
+        SourceMap map = root.getSourceMap();
+        assertNotNull(map);
+        assertSame(map, reference.getSourceMap());
+        assertEquals(4, map.size());
+        assertEquals(3, map.getLineCount());
+
+        /* literals no longer need the tokens */
+        NodeUtils.compact(root);
+        assertEquals("$name", reference.literal());
+        assertEquals("\nsecond line\nend", rest.literal());
+
+        assertEquals("Hello $name", map.getLine(1));
+        assertEquals("second line", map.getLine(2));
+        assertEquals("end", map.getLine(3));
+        assertNull(map.getLine(4));
+        assertEquals("Hello $name\n      ^", map.getSnippet(1, 7));
+    }
+
+    private static Template getTemplate(boolean sourceMap)
+    {
+        RuntimeInstance ri = new RuntimeInstance();
+        ri.setProperty(RuntimeConstants.RUNTIME_LOG_INSTANCE, new TestLogger());
+        ri.setProperty(RuntimeConstants.RESOURCE_LOADERS, "string");
+        ri.setProperty("resource.loader.string.class", StringResourceLoader.class.getName());
+        ri.setProperty("resource.loader.string.repository.name", "map.repo");
+        ri.setProperty("resource.loader.string.repository.static", "false");
+        ri.setProperty(RuntimeConstants.PARSER_SOURCE_MAP, sourceMap);
+        ri.init();
+        StringResourceRepository repo = (StringResourceRepository)ri.getApplicationAttribute("map.repo");
+        repo.putStringResource("test", "Hello $name\n#if($x)$x#end");
+        return ri.getTemplate("test");
+    }
+
+    public void testSourceMapSetting()
+    {
+        assertNull(getTemplate(false).getSourceMap());
+        assertNull(((SimpleNode)getTemplate(false).getData()).getSourceMap());
+
+        Template template = getTemplate(true);
+        SourceMap map = template.getSourceMap();
+        assertNotNull(map);
+        assertSame(map, ((SimpleNode)template.getData()).getSourceMap());
+        assertEquals("#if($x)$x#end", map.getLine(2));
+    }
+}
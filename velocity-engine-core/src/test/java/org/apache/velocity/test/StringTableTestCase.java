@@ -0,0 +1,57 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.velocity.util.StringTable;
+
+/**
+ * Test the canonicalization of template strings by {@link StringTable}.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class StringTableTestCase extends TestCase
+{
+    public StringTableTestCase(String name)
+    {
+        super(name);
+    }
+
+    public void testCanonicalize()
+    {
+        StringTable table = new StringTable();
+        String first = new String("<div class=\"header\">");
+        String second = new String("<div class=\"header\">");
+        assertNotSame(first, second);
+
+        assertSame(first, table.canonicalize(first));
+        assertEquals(0L, table.getBytesSaved());
+        assertSame(first, table.canonicalize(second));
+        assertEquals(2L * first.length(), table.getBytesSaved());
+        assertSame(first, table.canonicalize(first));
+        assertEquals(2L * first.length(), table.getBytesSaved());
+        assertEquals(1, table.size());
+
+        assertNull(table.canonicalize(null));
+        assertEquals("", table.canonicalize(""));
+        assertEquals(1, table.size());
+    }
+}
@@ -0,0 +1,120 @@
+package org.apache.velocity.test;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.io.ByteStreamWriter;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.resource.TextArena;
+import org.apache.velocity.runtime.resource.loader.StringResourceLoader;
+import org.apache.velocity.runtime.resource.util.StringResourceRepository;
+import org.apache.velocity.test.misc.TestLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Test the off-heap storage of static template texts.
+ *
+ * @version $Id$
+ * @since 2.4
+ */
+public class TextArenaTestCase extends TestCase
+{
+    public TextArenaTestCase(String name)
+    {
+        super(name);
+    }
+
+    private static String repeat(String text, int count)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; ++i)
+        {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+
+    public void testStoreAndWrite() throws Exception
+    {
+        TextArena arena = new TextArena(65536, 16);
+        Template template = new Template();
+        String ascii = repeat("static text ", 10);
+        String unicode = repeat("été ☃ ", 5000);
+
+        assertEquals(-1, arena.store(template, "short"));
+        assertEquals(-1, arena.store(null, ascii));
+        assertEquals(-1, arena.store(template, repeat("x", 70000)));
+
+        long first = arena.store(template, ascii);
+        long second = arena.store(template, unicode);
+        assertTrue(first != -1 && second != -1);
+        assertEquals(ascii, arena.getText(first));
+        assertEquals(unicode, arena.getText(second));
+
+        StringWriter chars = new StringWriter();
+        arena.writeTo(second, chars);
+        arena.writeTo(first, chars);
+        assertEquals(unicode + ascii, chars.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ByteStreamWriter raw = new ByteStreamWriter(bytes, StandardCharsets.UTF_8);
+        arena.writeTo(first, raw);
+        arena.writeTo(second, raw);
+        raw.flush();
+        assertEquals(ascii + unicode, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream latin1 = new ByteArrayOutputStream();
+        raw = new ByteStreamWriter(latin1, StandardCharsets.ISO_8859_1);
+        arena.writeTo(first, raw);
+        raw.flush();
+        assertEquals(ascii, new String(latin1.toByteArray(), StandardCharsets.ISO_8859_1));
+    }
+
+    public void testRendering() throws Exception
+    {
+        RuntimeInstance ri = new RuntimeInstance();
+        ri.setProperty(RuntimeConstants.RUNTIME_LOG_INSTANCE, new TestLogger());
+        ri.setProperty(RuntimeConstants.RESOURCE_LOADERS, "string");
+        ri.setProperty("resource.loader.string.class", StringResourceLoader.class.getName());
+        ri.setProperty("resource.loader.string.repository.name", "arena.repo");
+        ri.setProperty("resource.loader.string.repository.static", "false");
+        ri.setProperty(RuntimeConstants.RESOURCE_MANAGER_TEXT_ARENA, true);
+        ri.setProperty(RuntimeConstants.RESOURCE_MANAGER_TEXT_ARENA_MIN_LENGTH, 16);
+        ri.init();
+
+        String header = repeat("<p>static header</p>\n", 20);
+        String footer = repeat("<p>static fôôter</p>\n", 20);
+        StringResourceRepository repo = (StringResourceRepository)ri.getApplicationAttribute("arena.repo");
+        repo.putStringResource("page", header + "$name\n#[[" + footer + "]]#");
+
+        VelocityContext context = new VelocityContext();
+        context.put("name", "arena");
+        StringWriter writer = new StringWriter();
+        ri.getTemplate("page").merge(context, writer);
+        assertEquals(header + "arena\n" + footer, writer.toString());
+        assertTrue(ri.getTextArena().getAllocatedBytes() > header.length() + footer.length());
+    }
+}
@@ -21,6 +21,8 @@
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import org.apache.velocity.exception.VelocityException;
+import org.apache.velocity.runtime.RuntimeConstants;
 import org.apache.velocity.runtime.RuntimeInstance;
 import org.apache.velocity.test.misc.GetPutObject;
 import org.apache.velocity.test.misc.UberspectorTestObject;
@@ -230,6 +232,40 @@ public void testBooleanGetters()
         assertEquals("Found wrong method", "ispremiumBool", getter.getMethodName());
     }
 
+    public void testPreloadedGetters()
+            throws Exception
+    {
+        RuntimeInstance preloading = new RuntimeInstance();
+        preloading.setProperty(RuntimeConstants.INTROSPECTOR_PRELOAD_CLASSES, UberspectorTestObject.class.getName());
+        preloading.init();
+
+        Uberspect u = preloading.getUberspect();
+        UberspectorTestObject uto = new UberspectorTestObject();
+
+        VelPropertyGet getter = u.getPropertyGet(uto, "regular", null);
+        assertNotNull(getter);
+        assertEquals("Found wrong method", "getRegular", getter.getMethodName());
+        assertSame(getter, u.getPropertyGet(uto, "regular", null));
+
+        getter = u.getPropertyGet(uto, "PremiumBool", null);
+        assertNotNull(getter);
+        assertEquals("Found wrong method", "ispremiumBool", getter.getMethodName());
+
+        assertNull(u.getPropertyGet(uto, "unambiguous", null));
+        assertNull(u.getPropertyGet(uto, "unambiguous", null));
+
+        preloading = new RuntimeInstance();
+        preloading.setProperty(RuntimeConstants.INTROSPECTOR_PRELOAD_CLASSES, "org.apache.velocity.NoSuchClass");
+        try
+        {
+            preloading.init();
+            fail("Preloading an unknown class should fail");
+        }
+        catch (VelocityException ve)
+        {
+            // expected
+        }
+    }
 
     public void testRegularSetters()
             throws Exception
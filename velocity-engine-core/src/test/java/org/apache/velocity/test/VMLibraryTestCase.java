@@ -31,6 +31,7 @@
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
@@ -321,5 +322,30 @@ public void testMacrosWithNoDefinition()
         }
     }
 
-
+    /**
+     * Macro libraries loaded concurrently must keep the precedence
+     * of the sequential loading.
+     *
+     * @throws Exception
+     */
+    public void testParallelLibrariesLoading()
+            throws Exception
+    {
+        for (int parallelism = 1; parallelism <= 2; ++parallelism)
+        {
+            VelocityEngine ve = new VelocityEngine();
+            ve.setProperty(Velocity.RUNTIME_LOG_INSTANCE, new TestLogger());
+            ve.setProperty(RuntimeConstants.RESOURCE_LOADERS, "file");
+            ve.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH,
+                    TEST_COMPARE_DIR + "/macrolibs");
+            ve.setProperty(RuntimeConstants.VM_LIBRARY, "vm_library1.vm,vm_library2.vm,vm_library3.vm");
+            ve.setProperty(RuntimeConstants.VM_LIBRARY_PARALLELISM, parallelism);
+            ve.init();
+
+            // later libraries win, and a library can call and escape its own macros
+            StringWriter writer = new StringWriter();
+            ve.evaluate(new VelocityContext(), writer, "parallel", "#foo(1) #bar(2) #greet('world')");
+            assertEquals("parallelism " + parallelism, "8 6 Hello, world! #hello", writer.toString());
+        }
+    }
 }
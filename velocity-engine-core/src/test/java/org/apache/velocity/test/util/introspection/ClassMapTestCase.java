@@ -25,6 +25,10 @@
 import org.apache.velocity.test.BaseTestCase;
 import org.apache.velocity.test.misc.TestLogger;
 import org.apache.velocity.util.introspection.ClassMap;
+import org.apache.velocity.util.introspection.Converter;
+import org.apache.velocity.util.introspection.MethodMap;
+import org.apache.velocity.util.introspection.ResolvedMethod;
+import org.apache.velocity.util.introspection.TypeConversionHandlerImpl;
 import org.slf4j.Logger;
 
 /**
@@ -73,6 +77,45 @@ public void testPrimitives()
         assertNotNull(c.findMethod("setShort",     new Object[] { new Short((short)42)}));
     }
 
+    public void testResolvedMethods()
+        throws Exception
+    {
+        Logger log = Velocity.getLog();
+
+        ClassMap c = new ClassMap(TestClassMap.class, log, new TypeConversionHandlerImpl());
+
+        // conversions are selected once per arguments classes
+        ResolvedMethod resolved = c.findResolvedMethod("setInteger", new Object[] { "16" });
+        assertNotNull(resolved);
+        assertEquals("setInteger", resolved.getMethod().getName());
+        Converter<?>[] converters = resolved.getConverters();
+        assertNotNull(converters);
+        assertEquals(16, converters[0].convert("16"));
+        assertSame(resolved, c.findResolvedMethod("setInteger", new Object[] { "23" }));
+        assertNull(c.findResolvedMethod("setInteger", new Object[] { 16 }).getConverters());
+
+        // ambiguities are memoized too
+        for (int i = 0; i < 2; ++i)
+        {
+            try
+            {
+                c.findResolvedMethod("overloaded", new Object[] { "a", "b" });
+                fail("ambiguous method call");
+            }
+            catch (MethodMap.AmbiguousException ae)
+            {
+                // expected
+            }
+        }
+
+        // null arguments share the methods found for Object arguments
+        assertEquals(String.class, c.findMethod("overloaded", new Object[] { "a", new Object() }).getParameterTypes()[0]);
+        assertEquals(Object.class, c.findMethod("nullable", new Object[] { null }).getParameterTypes()[0]);
+        assertEquals(Object.class, c.findMethod("nullable", new Object[] { new Object() }).getParameterTypes()[0]);
+        assertEquals(String.class, c.findMethod("nullable", new Object[] { "a" }).getParameterTypes()[0]);
+        assertNull(c.findMethod("setInteger", new Object[] { null }));
+    }
+
     public static final class TestClassMap
     {
         public void setBoolean(boolean b)
@@ -106,5 +149,21 @@ public void setLong(long l)
         public void setShort(short s)
         {
         }
+
+        public void overloaded(String s, Object o)
+        {
+        }
+
+        public void overloaded(Object o, String s)
+        {
+        }
+
+        public void nullable(Object o)
+        {
+        }
+
+        public void nullable(String s)
+        {
+        }
     }
 }
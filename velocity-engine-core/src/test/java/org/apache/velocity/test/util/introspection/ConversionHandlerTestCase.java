@@ -163,6 +163,35 @@ public List<String> convert(Object o)
         assertEquals("correct", writer.toString());
     }
 
+    public void testConverterLookup()
+        throws Exception
+    {
+        TypeConversionHandler ch = new TypeConversionHandlerImpl();
+
+        /* standard conversions */
+        Converter<?> converter = ch.getNeededConverter(Integer.TYPE, String.class);
+        assertNotNull(converter);
+        assertEquals(42, converter.convert("42"));
+        assertSame(converter, ch.getNeededConverter(Integer.TYPE, String.class));
+        assertNull(ch.getNeededConverter(Integer.class, Obj.class));
+        assertNull(ch.getNeededConverter(Integer.class, Obj.class));
+
+        /* standard conversions take precedence */
+        ch.addConverter(Integer.TYPE, String.class, o -> -1);
+        assertSame(converter, ch.getNeededConverter(Integer.TYPE, String.class));
+
+        /* custom conversions also apply to the boxed or unboxed formal type */
+        ch.addConverter(Float.TYPE, Obj.class, o -> 4.5f);
+        assertEquals(4.5f, ch.getNeededConverter(Float.class, Obj.class).convert(new Obj()));
+
+        /* parameterized formal types */
+        Converter<List<Integer>> listConverter = o -> Arrays.asList(1, 2, 3);
+        ch.addConverter(TypeUtils.parameterize(List.class, Integer.class), String.class, listConverter);
+        Type formal = Obj.class.getMethod("iWantAnIntegerList", List.class).getGenericParameterTypes()[0];
+        assertSame(listConverter, ch.getNeededConverter(formal, String.class));
+        assertNull(ch.getNeededConverter(TypeUtils.parameterize(List.class, String.class), String.class));
+    }
+
     /* converts *everything* to string "foo" */
     public static class MyCustomConverter implements TypeConversionHandler
     {